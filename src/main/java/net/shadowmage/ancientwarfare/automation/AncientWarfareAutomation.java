@@ -35,17 +35,24 @@ import net.shadowmage.ancientwarfare.automation.container.ContainerWorksiteMushr
 import net.shadowmage.ancientwarfare.automation.container.ContainerWorksiteQuarry;
 import net.shadowmage.ancientwarfare.automation.container.ContainerWorksiteReedFarm;
 import net.shadowmage.ancientwarfare.automation.container.ContainerWorksiteTreeFarm;
+import net.shadowmage.ancientwarfare.automation.network.PacketTorqueAnimation;
 import net.shadowmage.ancientwarfare.automation.proxy.RFProxy;
 import net.shadowmage.ancientwarfare.automation.registry.CropFarmRegistry;
 import net.shadowmage.ancientwarfare.automation.registry.FruitFarmRegistry;
 import net.shadowmage.ancientwarfare.automation.registry.TreeFarmRegistry;
+import net.shadowmage.ancientwarfare.automation.tile.torque.TorqueAnimationSync;
+import net.shadowmage.ancientwarfare.automation.tile.torque.TorqueNetworkManager;
+import net.shadowmage.ancientwarfare.automation.tile.worksite.WorksiteScanScheduler;
+import net.shadowmage.ancientwarfare.automation.tile.worksite.WorksiteTickScheduler;
 import net.shadowmage.ancientwarfare.core.AncientWarfareCore;
 import net.shadowmage.ancientwarfare.core.api.ModuleStatus;
 import net.shadowmage.ancientwarfare.core.compat.CompatLoader;
 import net.shadowmage.ancientwarfare.core.config.AWLog;
 import net.shadowmage.ancientwarfare.core.network.NetworkHandler;
+import net.shadowmage.ancientwarfare.core.network.PacketBase;
 import net.shadowmage.ancientwarfare.core.proxy.CommonProxyBase;
 import net.shadowmage.ancientwarfare.core.registry.RegistryLoader;
+import net.shadowmage.ancientwarfare.core.util.BlockChangeTracker;
 
 @Mod(name = "Ancient Warfare Automation", modid = AncientWarfareAutomation.modID, version = "@VERSION@", dependencies = "required-after:ancientwarfare;after:redstoneflux;after:buildcraftcore")
 public class AncientWarfareAutomation {
@@ -83,6 +90,8 @@ public class AncientWarfareAutomation {
          */
 		proxy.preInit();
 
+		PacketBase.registerPacketType(NetworkHandler.PACKET_TORQUE_ANIMATION, PacketTorqueAnimation::new);
+
         /*
 		 * register containers
          */
@@ -112,6 +121,11 @@ public class AncientWarfareAutomation {
 		 * register tick-handlers
          */
 		MinecraftForge.EVENT_BUS.register(this);
+		MinecraftForge.EVENT_BUS.register(WorksiteScanScheduler.INSTANCE);
+		MinecraftForge.EVENT_BUS.register(WorksiteTickScheduler.INSTANCE);
+		MinecraftForge.EVENT_BUS.register(TorqueNetworkManager.INSTANCE);
+		MinecraftForge.EVENT_BUS.register(TorqueAnimationSync.INSTANCE);
+		BlockChangeTracker.INSTANCE.addListener(WorksiteScanScheduler.INSTANCE);
 
 		ForgeChunkManager.setForcedChunkLoadingCallback(this, AWChunkLoader.INSTANCE);
 
@@ -31,6 +31,27 @@ public class AWAutomationStatics extends ModConfiguration {
 	public static int fishFarmRescanTicks = 200;
 	public static int animalFarmRescanTicks = 200;
 
+	/*
+	 * Idle worksites sleep until something changes that may give them work, this is the fallback wake up interval
+	 */
+	public static int worksiteIdleWakeTicks = 20;
+
+	/*
+	 * How many target blocks a single farm may scan per tick, and how many all farms of a world may scan per tick together
+	 */
+	public static int farmScanBlocksPerTick = 16;
+	public static int farmScanBlocksPerTickGlobal = 1024;
+
+	/*
+	 * Farms rescan their targets on block changes, this is the fallback full rescan interval for changes that are not notified
+	 */
+	public static int farmFullRescanTicks = 1200;
+
+	/*
+	 * How many interface fill/empty requests a warehouse resolves per work activation
+	 */
+	public static int warehouseTransfersPerWork = 1;
+
 	/*
 	 * Travel time per block when sending/receiving items using the mailbox system<br>
 	 * Distances are calculated as a floating point distance and rounded to the nearest whole<br>
@@ -124,6 +145,16 @@ public class AWAutomationStatics extends ModConfiguration {
 
 		enable_energy_network_updates = config.get(serverOptions, "enable_server_energy_network", enable_energy_network_updates, "Enable/Disable Sending network updates for energy tiles.\n" + "Default = " + enable_energy_network_updates + "\n" + "Disabling may improve server network performance on congested/low-bandwith deployments.").getBoolean();
 
+		worksiteIdleWakeTicks = config.get(serverOptions, "worksite_idle_wake_ticks", worksiteIdleWakeTicks, "Worksites without work sleep until an inventory, block, torque or redstone change wakes them up.\n" + "This is the interval in ticks after which a sleeping worksite checks for work anyway.\n" + "Default= " + worksiteIdleWakeTicks + "\n" + "Higher values reduce server load of idle worksites.").getInt();
+
+		farmScanBlocksPerTick = config.get(serverOptions, "farm_scan_blocks_per_tick", farmScanBlocksPerTick, "How many target blocks a single farm may scan for work per tick.\n" + "Default= " + farmScanBlocksPerTick + "\n" + "Higher values let farms notice work faster.\nLower values reduce server load.").getInt();
+
+		farmScanBlocksPerTickGlobal = config.get(serverOptions, "farm_scan_blocks_per_tick_global", farmScanBlocksPerTickGlobal, "How many target blocks all farms in a dimension may scan for work per tick together.\n" + "Default= " + farmScanBlocksPerTickGlobal + "\n" + "Caps the cost of farm scanning on servers with many farms.").getInt();
+
+		farmFullRescanTicks = config.get(serverOptions, "farm_full_rescan_ticks", farmFullRescanTicks, "Farms rescan targets when blocks in their work area change.\n" + "This is the interval in ticks of the fallback full rescan, for changes that are not notified.\n" + "Default= " + farmFullRescanTicks).getInt();
+
+		warehouseTransfersPerWork = config.get(serverOptions, "warehouse_transfers_per_work", warehouseTransfersPerWork, "How many interface fill or empty requests a warehouse resolves per work activation.\n" + "Default= " + warehouseTransfersPerWork + "\n" + "Higher values let warehouses settle interfaces faster, but each work activation still costs the same energy,\n" + "so warehouses become cheaper to run.\n" + "Values below 1 are treated as 1.").getInt();
+
 		mailboxTimePerBlock = config.get(serverOptions, "mailbox_travel_time_per_block", mailboxTimePerBlock, "Ticks per block to be traveled for teleporting items.\n" + "Default= " + mailboxTimePerBlock + "Higher values increase travel time for items.\nLower values reduce travel time.\n" + "Zero or negative values result in instant transfer.").getInt();
 
 		mailboxTimeForDimension = config.get(serverOptions, "mailbox_travel_time_per_dimension", mailboxTimeForDimension, "Ticks for dimensional travel for teleporting items.\n" + "Default= " + mailboxTimeForDimension + "Higher values increase travel time for items.\nLower values reduce travel time.\n" + "Zero or negative values result in instant transfer.").getInt();
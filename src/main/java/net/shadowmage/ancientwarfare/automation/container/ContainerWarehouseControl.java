@@ -4,12 +4,9 @@ import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.inventory.Slot;
 import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.NBTTagCompound;
-import net.minecraft.nbt.NBTTagList;
-import net.minecraftforge.common.util.Constants;
 import net.shadowmage.ancientwarfare.automation.tile.warehouse2.TileWarehouse;
 import net.shadowmage.ancientwarfare.core.container.ContainerTileBase;
 import net.shadowmage.ancientwarfare.core.inventory.ItemQuantityMap;
-import net.shadowmage.ancientwarfare.core.inventory.ItemQuantityMap.ItemHashEntry;
 import net.shadowmage.ancientwarfare.core.util.InventoryTools.ComparatorItemStack.SortOrder;
 import net.shadowmage.ancientwarfare.core.util.InventoryTools.ComparatorItemStack.SortType;
 
@@ -18,7 +15,7 @@ import javax.annotation.Nonnull;
 public class ContainerWarehouseControl extends ContainerTileBase<TileWarehouse> {
 
 	public ItemQuantityMap itemMap = new ItemQuantityMap();
-	private final ItemQuantityMap cache = new ItemQuantityMap();
+	private final WarehouseItemMapSync itemMapSync = new WarehouseItemMapSync();
 	private boolean shouldUpdate = true;
 	public int maxStorage = 0;
 	public int currentStored = 0;
@@ -62,8 +59,8 @@ public class ContainerWarehouseControl extends ContainerTileBase<TileWarehouse>
 				item = new ItemStack(reqTag.getCompoundTag("reqItem"));
 			}
 			tileEntity.handleSlotClick(player, item, reqTag.getBoolean("isShiftClick"), reqTag.getBoolean("isRightClick"));
-		} else if (tag.hasKey("changeList")) {
-			handleChangeList(tag.getTagList("changeList", Constants.NBT.TAG_COMPOUND));
+		} else if (WarehouseItemMapSync.isSyncPacket(tag)) {
+			itemMapSync.readChanges(tag, itemMap);
 		} else {
 			if (tag.hasKey("maxStorage")) {
 				maxStorage = tag.getInteger("maxStorage");
@@ -110,45 +107,9 @@ public class ContainerWarehouseControl extends ContainerTileBase<TileWarehouse>
 		}
 	}
 
-	private void handleChangeList(NBTTagList changeList) {
-		for (int i = 0; i < changeList.tagCount(); i++) {
-			NBTTagCompound tag = changeList.getCompoundTagAt(i);
-			itemMap.putEntryFromNBT(tag);
-		}
-	}
-
 	private void synchItemMaps() {
-		/*
-		 *
-         * need to loop through this.itemMap and compare quantities to tileEntity.itemMap
-         *    add any changes to change-list
-         * need to loop through tileEntity.itemMap and find new entries
-         *    add any new entries to change-list
-         */
-
-		cache.clear();
-		tileEntity.getItems(cache);
-		ItemQuantityMap warehouseItemMap = cache;
-		int qty;
-		NBTTagList changeList = new NBTTagList();
-		for (ItemHashEntry wrap : this.itemMap.keySet()) {
-			qty = this.itemMap.getCount(wrap);
-			if (qty != warehouseItemMap.getCount(wrap)) {
-				qty = warehouseItemMap.getCount(wrap);
-				changeList.appendTag(warehouseItemMap.writeEntryToNBT(wrap));
-				this.itemMap.put(wrap, qty);
-			}
-		}
-		for (ItemHashEntry entry : warehouseItemMap.keySet()) {
-			if (!itemMap.contains(entry)) {
-				qty = warehouseItemMap.getCount(entry);
-				changeList.appendTag(warehouseItemMap.writeEntryToNBT(entry));
-				this.itemMap.put(entry, qty);
-			}
-		}
-		if (changeList.tagCount() > 0) {
-			NBTTagCompound tag = new NBTTagCompound();
-			tag.setTag("changeList", changeList);
+		NBTTagCompound tag = itemMapSync.writeChanges(tileEntity);
+		if (tag != null) {
 			sendDataToClient(tag);
 		}
 	}
@@ -5,9 +5,7 @@ import net.minecraft.inventory.ClickType;
 import net.minecraft.inventory.Slot;
 import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.NBTTagCompound;
-import net.minecraft.nbt.NBTTagList;
 import net.minecraft.util.NonNullList;
-import net.minecraftforge.common.util.Constants;
 import net.minecraftforge.items.IItemHandler;
 import net.minecraftforge.items.IItemHandlerModifiable;
 import net.minecraftforge.items.ItemStackHandler;
@@ -23,7 +21,6 @@ import net.shadowmage.ancientwarfare.core.container.ICraftingContainer;
 import net.shadowmage.ancientwarfare.core.crafting.AWCraftingManager;
 import net.shadowmage.ancientwarfare.core.crafting.ICraftingRecipe;
 import net.shadowmage.ancientwarfare.core.inventory.ItemQuantityMap;
-import net.shadowmage.ancientwarfare.core.inventory.ItemQuantityMap.ItemHashEntry;
 import net.shadowmage.ancientwarfare.core.util.InventoryTools;
 
 import javax.annotation.Nonnull;
@@ -36,7 +33,7 @@ public class ContainerWarehouseCraftingStation extends ContainerTileBase<TileWar
 	public ContainerCraftingRecipeMemory containerCrafting;
 
 	private ItemQuantityMap itemMap = new ItemQuantityMap();
-	private final ItemQuantityMap cache = new ItemQuantityMap();
+	private final WarehouseItemMapSync itemMapSync = new WarehouseItemMapSync();
 	private boolean shouldUpdate = true;
 	private int currentCraftTotalSize = 0;
 
@@ -138,9 +135,9 @@ public class ContainerWarehouseCraftingStation extends ContainerTileBase<TileWar
 
 	@Override
 	public void handlePacketData(NBTTagCompound tag) {
-		if (tag.hasKey("changeList")) {
+		if (WarehouseItemMapSync.isSyncPacket(tag)) {
 			AWLog.logDebug("rec. warehouse item map..");
-			handleChangeList(tag.getTagList("changeList", Constants.NBT.TAG_COMPOUND));
+			handleItemMapChanges(tag);
 		} else if (tag.hasKey("recipe")) {
 			containerCrafting.handleRecipeUpdate(tag);
 		}
@@ -156,12 +153,8 @@ public class ContainerWarehouseCraftingStation extends ContainerTileBase<TileWar
 		}
 	}
 
-	private void handleChangeList(NBTTagList changeList) {
-		NBTTagCompound tag;
-		for (int i = 0; i < changeList.tagCount(); i++) {
-			tag = changeList.getCompoundTagAt(i);
-			itemMap.putEntryFromNBT(tag);
-		}
+	private void handleItemMapChanges(NBTTagCompound tag) {
+		itemMapSync.readChanges(tag, itemMap);
 		TileWarehouseBase warehouse = tileEntity.getWarehouse();
 		if (warehouse != null) {
 			warehouse.clearItemCache();
@@ -170,40 +163,12 @@ public class ContainerWarehouseCraftingStation extends ContainerTileBase<TileWar
 	}
 
 	private void synchItemMaps() {
-		/*
-		 * need to loop through this.itemMap and compare quantities to warehouse.itemMap
-         *    add any changes to change-list
-         * need to loop through warehouse.itemMap and find new entries
-         *    add any new entries to change-list
-         */
-
-		cache.clear();
 		TileWarehouseBase warehouse = tileEntity.getWarehouse();
-		if (warehouse != null) {
-			warehouse.getItems(cache);
-		}
-		ItemQuantityMap warehouseItemMap = cache;
-		int qty;
-		NBTTagList changeList = new NBTTagList();
-		NBTTagCompound tag;
-		for (ItemHashEntry wrap : this.itemMap.keySet()) {
-			qty = this.itemMap.getCount(wrap);
-			if (qty != warehouseItemMap.getCount(wrap)) {
-				qty = warehouseItemMap.getCount(wrap);
-				changeList.appendTag(warehouseItemMap.writeEntryToNBT(wrap));
-				this.itemMap.put(wrap, qty);
-			}
-		}
-		for (ItemHashEntry entry : warehouseItemMap.keySet()) {
-			if (!itemMap.contains(entry)) {
-				qty = warehouseItemMap.getCount(entry);
-				changeList.appendTag(warehouseItemMap.writeEntryToNBT(entry));
-				this.itemMap.put(entry, qty);
-			}
+		if (warehouse == null) {
+			return;
 		}
-		if (changeList.tagCount() > 0) {
-			tag = new NBTTagCompound();
-			tag.setTag("changeList", changeList);
+		NBTTagCompound tag = itemMapSync.writeChanges(warehouse);
+		if (tag != null) {
 			sendDataToClient(tag);
 		}
 	}
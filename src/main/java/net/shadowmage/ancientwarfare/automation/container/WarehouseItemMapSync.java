@@ -0,0 +1,143 @@
+package net.shadowmage.ancientwarfare.automation.container;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.nbt.NBTTagList;
+import net.minecraftforge.common.util.Constants;
+import net.shadowmage.ancientwarfare.automation.tile.warehouse2.TileWarehouseBase;
+import net.shadowmage.ancientwarfare.automation.tile.warehouse2.WarehouseChangeJournal;
+import net.shadowmage.ancientwarfare.core.AncientWarfareCore;
+import net.shadowmage.ancientwarfare.core.inventory.ItemQuantityMap;
+import net.shadowmage.ancientwarfare.core.inventory.ItemQuantityMap.ItemHashEntry;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * Per-viewer delta sync of a warehouse item map.<br>
+ * Server side remembers the journal version last sent to the client and sends only items changed since then.<br>
+ * Each item is sent as full NBT once, afterwards it is referred to by a numeric id that is only valid for this viewer.
+ */
+public class WarehouseItemMapSync {
+
+	private static final String SYNC_TAG = "itemSync";
+	private static final String RESET_TAG = "reset";
+	private static final String DEFINITIONS_TAG = "defs";
+	private static final String ID_TAG = "id";
+	private static final String ITEM_TAG = "item";
+	private static final String IDS_TAG = "ids";
+	private static final String QUANTITIES_TAG = "qty";
+
+	//server side
+	@Nullable
+	private TileWarehouseBase syncedWarehouse;
+	private long syncedVersion = -1;
+	private final Object2IntOpenHashMap<ItemHashEntry> itemIds = new Object2IntOpenHashMap<>();
+	private final List<ItemHashEntry> changes = new ArrayList<>();
+
+	//client side
+	private final Int2ObjectOpenHashMap<ItemHashEntry> itemsById = new Int2ObjectOpenHashMap<>();
+
+	public WarehouseItemMapSync() {
+		itemIds.defaultReturnValue(-1);
+	}
+
+	public static boolean isSyncPacket(NBTTagCompound tag) {
+		return tag.hasKey(SYNC_TAG);
+	}
+
+	/*
+	 * SERVER ONLY
+	 *
+	 * @return packet data with the changes since the last call, or null if the viewer is up to date
+	 */
+	@Nullable
+	public NBTTagCompound writeChanges(TileWarehouseBase warehouse) {
+		if (warehouse != syncedWarehouse) {
+			syncedWarehouse = warehouse;
+			syncedVersion = -1;
+		}
+		WarehouseChangeJournal journal = warehouse.getChangeJournal();
+		if (syncedVersion == journal.getVersion()) {
+			return null;
+		}
+		boolean reset = syncedVersion < journal.getResetVersion();
+		changes.clear();
+		if (reset) {
+			changes.addAll(warehouse.getItemKeys());
+		} else {
+			journal.getChangesSince(syncedVersion, changes);
+		}
+		syncedVersion = journal.getVersion();
+		if (!reset && changes.isEmpty()) {
+			return null;
+		}
+
+		NBTTagList definitions = new NBTTagList();
+		int[] ids = new int[changes.size()];
+		int[] quantities = new int[changes.size()];
+		for (int i = 0; i < changes.size(); i++) {
+			ItemHashEntry entry = changes.get(i);
+			int id = itemIds.getInt(entry);
+			if (id < 0) {
+				id = itemIds.size();
+				itemIds.put(entry, id);
+				NBTTagCompound definition = new NBTTagCompound();
+				definition.setInteger(ID_TAG, id);
+				definition.setTag(ITEM_TAG, entry.getItemStack().writeToNBT(new NBTTagCompound()));
+				definitions.appendTag(definition);
+			}
+			ids[i] = id;
+			quantities[i] = warehouse.getCountOf(entry);
+		}
+		changes.clear();
+
+		NBTTagCompound syncTag = new NBTTagCompound();
+		syncTag.setBoolean(RESET_TAG, reset);
+		if (definitions.tagCount() > 0) {
+			syncTag.setTag(DEFINITIONS_TAG, definitions);
+		}
+		syncTag.setIntArray(IDS_TAG, ids);
+		syncTag.setIntArray(QUANTITIES_TAG, quantities);
+		NBTTagCompound tag = new NBTTagCompound();
+		tag.setTag(SYNC_TAG, syncTag);
+		return tag;
+	}
+
+	/*
+	 * CLIENT ONLY
+	 * applies changes written by {@link #writeChanges(TileWarehouseBase)} to the client side copy of the item map
+	 */
+	public void readChanges(NBTTagCompound tag, ItemQuantityMap itemMap) {
+		NBTTagCompound syncTag = tag.getCompoundTag(SYNC_TAG);
+		if (syncTag.getBoolean(RESET_TAG)) {
+			itemMap.clear();
+		}
+		NBTTagList definitions = syncTag.getTagList(DEFINITIONS_TAG, Constants.NBT.TAG_COMPOUND);
+		for (int i = 0; i < definitions.tagCount(); i++) {
+			NBTTagCompound definition = definitions.getCompoundTagAt(i);
+			ItemStack stack = new ItemStack(definition.getCompoundTag(ITEM_TAG));
+			if (stack.isEmpty()) {
+				AncientWarfareCore.log.warn("Unable to read warehouse item from NBT, probably no longer exists. {}", definition.toString());
+				continue;
+			}
+			itemsById.put(definition.getInteger(ID_TAG), ItemHashEntry.of(stack));
+		}
+		int[] ids = syncTag.getIntArray(IDS_TAG);
+		int[] quantities = syncTag.getIntArray(QUANTITIES_TAG);
+		for (int i = 0; i < ids.length && i < quantities.length; i++) {
+			ItemHashEntry entry = itemsById.get(ids[i]);
+			if (entry == null) {
+				continue;
+			}
+			if (quantities[i] <= 0) {
+				itemMap.remove(entry);
+			} else {
+				itemMap.put(entry, quantities[i]);
+			}
+		}
+	}
+}
@@ -4,7 +4,6 @@ import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.nbt.NBTTagList;
 import net.minecraft.util.math.BlockPos;
-import net.minecraft.world.World;
 import net.minecraft.world.storage.WorldSavedData;
 import net.minecraftforge.common.MinecraftForge;
 import net.minecraftforge.common.util.Constants;
@@ -17,14 +16,21 @@ import net.shadowmage.ancientwarfare.core.util.Trig;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
-import java.util.Iterator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
 
 public class MailboxData extends WorldSavedData {
 	private MailboxSet publicMailboxes = new MailboxSet("public");
 	private HashMap<String, MailboxSet> privateMailboxes = new HashMap<>();
+	/*
+	 * ticks since load, sent and arrival times of items are counted in this
+	 */
+	private long tickCount = 0;
 
 	public MailboxData(String par1Str) {
 		super(par1Str);
@@ -67,7 +73,7 @@ public class MailboxData extends WorldSavedData {
 
 	public void onTick(int length) {
 		synchronized (publicMailboxes) {
-			boolean change = publicMailboxes.tick(length);
+			boolean change = publicMailboxes.tick();
 			if (change) {
 				markDirty();
 			}
@@ -75,12 +81,13 @@ public class MailboxData extends WorldSavedData {
 		synchronized (privateMailboxes) {
 			boolean change = false;
 			for (MailboxSet set : this.privateMailboxes.values()) {
-				change |= set.tick(length);
+				change |= set.tick();
 			}
 			if (change) {
 				markDirty();
 			}
 		}
+		tickCount += length;
 	}
 
 	public boolean addMailbox(@Nullable String owner, String name) {
@@ -128,11 +135,6 @@ public class MailboxData extends WorldSavedData {
 		return names;
 	}
 
-	public List<DeliverableItem> getDeliverableItems(@Nullable String owner, String name, List<DeliverableItem> items, World world, int x, int y, int z) {
-		MailboxSet set = owner == null ? publicMailboxes : getOrCreatePrivateMailbox(owner);
-		return set.getDeliverableItems(name, items, world, x, y, z);
-	}
-
 	public void removeDeliverableItem(@Nullable String owner, String name, DeliverableItem item) {
 		MailboxSet set = owner == null ? publicMailboxes : getOrCreatePrivateMailbox(owner);
 		set.removeDeliverableItem(name, item);
@@ -202,10 +204,10 @@ public class MailboxData extends WorldSavedData {
 			return tag;
 		}
 
-		private boolean tick(int length) {
+		private boolean tick() {
 			boolean ret = false;
 			for (MailboxEntry entry : this.mailboxes.values()) {
-				ret |= entry.tick(length);
+				ret |= entry.tick();
 			}
 			return ret;
 		}
@@ -217,13 +219,6 @@ public class MailboxData extends WorldSavedData {
 			return this.mailboxes.get(name);
 		}
 
-		private List<DeliverableItem> getDeliverableItems(String name, List<DeliverableItem> items, World world, int x, int y, int z) {
-			if (this.mailboxes.containsKey(name)) {
-				return this.mailboxes.get(name).getDeliverableItems(items, world, x, y, z);
-			}
-			return Collections.emptyList();
-		}
-
 		private void removeDeliverableItem(String name, DeliverableItem item) {
 			if (this.mailboxes.containsKey(name)) {
 				this.mailboxes.get(name).removeDeliverableItem(item);
@@ -239,8 +234,15 @@ public class MailboxData extends WorldSavedData {
 
 	public final class MailboxEntry {
 		private String mailboxName;
-		private List<DeliverableItem> incomingItems = new ArrayList<>();
-		private List<TileMailbox> receivers = new ArrayList<>();
+		/*
+		 * items in the order of their arrival tick, only the head has to be looked at to find due items
+		 */
+		private PriorityQueue<DeliverableItem> incomingItems = new PriorityQueue<>(Comparator.comparingLong(item -> item.arrivalTick));
+		/*
+		 * receiving boxes, by the tick they last asked for mail at
+		 */
+		private Map<TileMailbox, Long> receivers = new HashMap<>();
+		private boolean receiversChanged = false;
 
 		private MailboxEntry(String name) {
 			this.mailboxName = name;
@@ -250,35 +252,36 @@ public class MailboxData extends WorldSavedData {
 		}//nbt-constructor
 
 		private void addReceiver(TileMailbox tile) {
-			this.receivers.add(tile);
+			if (receivers.put(tile, tickCount) == null) {
+				receiversChanged = true;
+			}
 		}
 
 		private void removeDeliverableItem(DeliverableItem item) {
 			incomingItems.remove(item);
 		}
 
-		private List<DeliverableItem> getDeliverableItems(List<DeliverableItem> items, World world, int x, int y, int z) {
-			int dim = world.provider.getDimension();
-			int time = 0;
-			int timePerBlock = 10;//set time from config for per-block time
-			int timeForDimension = 100;//set time from config for cross-dimensional items
-			for (DeliverableItem item : this.incomingItems) {
-				if (dim != item.originDimension) {
-					time = timeForDimension;
-				} else {
-					float dist = Trig.getDistance(item.x, item.y, item.z, x, y, z);
-					time = (int) (dist * (float) timePerBlock);
-				}
-				if (item.deliveryTime >= time) {
-					items.add(item);
-				}
+		private void addDeliverableItem(ItemStack item, int dimension, BlockPos pos) {
+			DeliverableItem item1 = new DeliverableItem(item, dimension, pos.getX(), pos.getY(), pos.getZ());
+			item1.sentTick = tickCount;
+			schedule(item1);
+		}
+
+		/*
+		 * Sets the arrival of the item to when it reaches the closest receiver
+		 */
+		private void schedule(DeliverableItem item) {
+			item.arrivalTick = Long.MAX_VALUE;//held until a receiver shows up
+			for (TileMailbox box : receivers.keySet()) {
+				item.arrivalTick = Math.min(item.arrivalTick, item.sentTick + getTravelTime(item, box));
 			}
-			return items;
+			incomingItems.add(item);
 		}
 
-		private void addDeliverableItem(ItemStack item, int dimension, BlockPos pos) {
-			DeliverableItem item1 = new DeliverableItem(item, dimension, pos.getX(), pos.getY(), pos.getZ());
-			incomingItems.add(item1);
+		private void rescheduleAll() {
+			List<DeliverableItem> items = new ArrayList<>(incomingItems);
+			incomingItems.clear();
+			items.forEach(this::schedule);
 		}
 
 		private void readFromNBT(NBTTagCompound tag) {
@@ -290,7 +293,7 @@ public class MailboxData extends WorldSavedData {
 				itemTag = itemList.getCompoundTagAt(i);
 				item = new DeliverableItem();
 				item.readFromNBT(itemTag);
-				incomingItems.add(item);
+				schedule(item);
 			}
 		}
 
@@ -306,46 +309,52 @@ public class MailboxData extends WorldSavedData {
 			return tag;
 		}
 
-		private boolean tick(int length) {
+		/*
+		 * Hands due items to the receivers, at most one item per receiver and tick
+		 */
+		private boolean tick() {
 			boolean ret = incomingItems.size() > 0;
-			for (DeliverableItem item : this.incomingItems) {
-				item.tick(length);
+			if (receivers.values().removeIf(lastSeen -> lastSeen < tickCount)) {
+				receiversChanged = true;//box was unloaded, broken or renamed
+			}
+			if (receiversChanged) {
+				receiversChanged = false;
+				rescheduleAll();
 			}
+			Set<TileMailbox> served = new HashSet<>();
+			List<DeliverableItem> undelivered = new ArrayList<>();
+			while (served.size() < receivers.size() && !incomingItems.isEmpty() && incomingItems.peek().arrivalTick <= tickCount) {
+				DeliverableItem item = incomingItems.poll();
+				TileMailbox box = getReceiverInRange(item, served);
+				if (box != null) {
+					served.add(box);
+					InventoryTools.mergeItemStack(box.receivedInventory, item.item);
+				}
+				if (box == null || !item.item.isEmpty()) {
+					undelivered.add(item);
+				}
+			}
+			incomingItems.addAll(undelivered);
+			return ret;
+		}
 
-			int dim;
-			int time = 0;
-			int timePerBlock = 10;//set time from config for per-block time
-			int timeForDimension = 100;//set time from config for cross-dimensional items
-			int x, y, z;
-			Iterator<DeliverableItem> it;
-			DeliverableItem item;
-			@Nonnull ItemStack stack;
-			for (TileMailbox box : receivers) {
-				dim = box.getWorld().provider.getDimension();
-				x = box.getPos().getX();
-				y = box.getPos().getY();
-				z = box.getPos().getZ();
-				it = this.incomingItems.iterator();
-				while (it.hasNext() && (item = it.next()) != null) {
-					if (dim != item.originDimension) {
-						time = timeForDimension;
-					} else {
-						float dist = Trig.getDistance(item.x, item.y, item.z, x, y, z);
-						time = (int) (dist * (float) timePerBlock);
-					}
-					if (item.deliveryTime >= time)//find if item is deliverable to this box
-					{
-						stack = InventoryTools.mergeItemStack(box.receivedInventory, item.item);
-						if (stack.isEmpty()) {
-							it.remove();
-						}
-						break;
-					}
+		@Nullable
+		private TileMailbox getReceiverInRange(DeliverableItem item, Set<TileMailbox> served) {
+			for (TileMailbox box : receivers.keySet()) {
+				if (!served.contains(box) && item.sentTick + getTravelTime(item, box) <= tickCount) {
+					return box;
 				}
 			}
-			receivers.clear();
+			return null;
+		}
 
-			return ret;
+		private int getTravelTime(DeliverableItem item, TileMailbox box) {
+			int timePerBlock = 10;//set time from config for per-block time
+			int timeForDimension = 100;//set time from config for cross-dimensional items
+			if (box.getWorld().provider.getDimension() != item.originDimension) {
+				return timeForDimension;
+			}
+			return (int) (Trig.getDistance(item.x, item.y, item.z, box.getPos().getX(), box.getPos().getY(), box.getPos().getZ()) * (float) timePerBlock);
 		}
 
 		@Override
@@ -358,7 +367,8 @@ public class MailboxData extends WorldSavedData {
 		int originDimension, x, y, z;
 		@Nonnull
 		public ItemStack item;
-		int deliveryTime;//system milis at which this stack is deliverable
+		long sentTick;//tick of the mailbox data at which this stack was sent
+		long arrivalTick;//tick at which this stack reaches the closest receiver
 
 		private DeliverableItem(ItemStack item, int dim, int x, int y, int z) {
 			this.item = item;
@@ -373,7 +383,7 @@ public class MailboxData extends WorldSavedData {
 
 		private void readFromNBT(NBTTagCompound tag) {
 			item = new ItemStack(tag.getCompoundTag("item"));
-			deliveryTime = tag.getInteger("time");
+			sentTick = tickCount - tag.getInteger("time");
 			originDimension = tag.getInteger("dim");
 			this.x = tag.getInteger("x");
 			this.y = tag.getInteger("y");
@@ -382,17 +392,13 @@ public class MailboxData extends WorldSavedData {
 
 		private NBTTagCompound writeToNBT(NBTTagCompound tag) {
 			tag.setTag("item", item.writeToNBT(new NBTTagCompound()));
-			tag.setInteger("time", deliveryTime);
+			tag.setInteger("time", (int) (tickCount - sentTick));
 			tag.setInteger("dim", originDimension);
 			tag.setInteger("x", x);
 			tag.setInteger("y", y);
 			tag.setInteger("z", z);
 			return tag;
 		}
-
-		private void tick(int length) {
-			deliveryTime += length;
-		}
 	}
 
 }
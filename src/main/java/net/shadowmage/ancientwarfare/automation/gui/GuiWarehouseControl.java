@@ -122,7 +122,7 @@ public class GuiWarehouseControl extends GuiContainerBase<ContainerWarehouseCont
 		NonNullList<ItemStack> displayStacks = NonNullList.create();
 
 		for (ItemHashEntry entry : getContainer().itemMap.keySet()) {
-			stack = entry.getItemStack();
+			stack = entry.getItemStack().copy();
 
 			if (matchesSearch(stack)) {
 				stack.setCount(getContainer().itemMap.getCount(entry));
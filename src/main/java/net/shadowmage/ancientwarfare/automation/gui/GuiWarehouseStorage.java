@@ -101,7 +101,7 @@ public class GuiWarehouseStorage extends GuiContainerBase<ContainerWarehouseStor
 		NonNullList<ItemStack> displayStacks = NonNullList.create();
 		for (ItemHashEntry entry : getContainer().itemMap.keySet()) {
 			qty = getContainer().itemMap.getCount(entry);
-			stack = entry.getItemStack();
+			stack = entry.getItemStack().copy();
 			stack.setCount(qty);
 			displayStacks.add(stack);
 		}
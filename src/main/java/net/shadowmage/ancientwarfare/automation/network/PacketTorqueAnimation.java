@@ -0,0 +1,80 @@
+package net.shadowmage.ancientwarfare.automation.network;
+
+import io.netty.buffer.ByteBuf;
+import it.unimi.dsi.fastutil.ints.Int2IntMap;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.math.BlockPos;
+import net.minecraftforge.fml.common.network.ByteBufUtils;
+import net.shadowmage.ancientwarfare.automation.tile.torque.TileTorqueBase;
+import net.shadowmage.ancientwarfare.automation.tile.torque.multiblock.TileFlywheelStorage;
+import net.shadowmage.ancientwarfare.core.network.PacketBase;
+
+/*
+ * Animation states of the torque tiles of one chunk changed during a tick, see
+ * {@link net.shadowmage.ancientwarfare.automation.tile.torque.TorqueAnimationSync}<br>
+ * Each state takes 4 bytes: the position of the tile within the chunk, the event type and the quantized value.
+ */
+public class PacketTorqueAnimation extends PacketBase {
+
+	private int chunkX, chunkZ;
+	private Int2IntMap states;
+	private int[] entries;
+
+	public PacketTorqueAnimation() {
+		// receive side constructor
+	}
+
+	/*
+	 * @param states values by local index of the tile shifted left 8 bits or'ed with the event type
+	 */
+	public PacketTorqueAnimation(int chunkX, int chunkZ, Int2IntMap states) {
+		this.chunkX = chunkX;
+		this.chunkZ = chunkZ;
+		this.states = states;
+	}
+
+	public static int getLocalIndex(BlockPos pos) {
+		return (pos.getY() & 0xff) << 8 | (pos.getZ() & 15) << 4 | (pos.getX() & 15);
+	}
+
+	@Override
+	protected void writeToStream(ByteBuf data) {
+		data.writeInt(chunkX);
+		data.writeInt(chunkZ);
+		ByteBufUtils.writeVarInt(data, states.size(), 5);
+		for (Int2IntMap.Entry state : states.int2IntEntrySet()) {
+			data.writeShort(state.getIntKey() >> 8);
+			data.writeByte(state.getIntKey() & 0xff);
+			data.writeByte(state.getIntValue());
+		}
+	}
+
+	@Override
+	protected void readFromStream(ByteBuf data) {
+		chunkX = data.readInt();
+		chunkZ = data.readInt();
+		entries = new int[ByteBufUtils.readVarInt(data, 5)];
+		for (int i = 0; i < entries.length; i++) {
+			entries[i] = data.readInt();
+		}
+	}
+
+	@Override
+	protected void execute(EntityPlayer player) {
+		int baseX = chunkX << 4;
+		int baseZ = chunkZ << 4;
+		BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+		for (int entry : entries) {
+			int localIndex = entry >>> 16;
+			pos.setPos(baseX + (localIndex & 15), localIndex >> 8, baseZ + (localIndex >> 4 & 15));
+			if (!player.world.isBlockLoaded(pos)) {
+				continue;
+			}
+			TileEntity te = player.world.getTileEntity(pos);
+			if (te instanceof TileTorqueBase || te instanceof TileFlywheelStorage) {
+				te.receiveClientEvent(entry >> 8 & 0xff, entry & 0xff);
+			}
+		}
+	}
+}
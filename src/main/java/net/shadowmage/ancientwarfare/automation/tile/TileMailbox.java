@@ -9,7 +9,6 @@ import net.minecraftforge.common.capabilities.Capability;
 import net.minecraftforge.items.CapabilityItemHandler;
 import net.minecraftforge.items.ItemStackHandler;
 import net.shadowmage.ancientwarfare.automation.gamedata.MailboxData;
-import net.shadowmage.ancientwarfare.automation.gamedata.MailboxData.DeliverableItem;
 import net.shadowmage.ancientwarfare.core.block.BlockRotationHandler.IRotatableTile;
 import net.shadowmage.ancientwarfare.core.gamedata.AWGameData;
 import net.shadowmage.ancientwarfare.core.render.property.CoreProperties;
@@ -19,7 +18,6 @@ import net.shadowmage.ancientwarfare.core.util.InventoryTools;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -50,9 +48,6 @@ public class TileMailbox extends TileOwned implements IRotatableTile, ITickable,
 		if (mailboxName != null)//try to receive mail
 		{
 			MailboxData data = AWGameData.INSTANCE.getData(world, MailboxData.class);
-
-			List<DeliverableItem> items = new ArrayList<>();
-			data.getDeliverableItems(privateBox ? getOwner().getName() : null, mailboxName, items, world, pos.getX(), pos.getY(), pos.getZ());
 			data.addMailboxReceiver(privateBox ? getOwner().getName() : null, mailboxName, this);
 
 			if (destinationName != null)//try to send mail
@@ -27,20 +27,20 @@ public abstract class TileFlywheelController extends TileTorqueSingleCell {
 	protected abstract double getMaxTransfer();
 
 	@Override
-	public void update() {
-		if (!world.isRemote) {
-			serverNetworkUpdate();
-			torqueIn = torqueCell.getEnergy() - prevEnergy;
-			torqueLoss = applyPowerDrain(torqueCell);
-			torqueLoss += applyPowerDrain(inputCell);
-			torqueLoss += applyDrainToStorage();
-			torqueOut = transferPowerTo(getPrimaryFacing());
-			balancePower();
-			prevEnergy = torqueCell.getEnergy();
-		} else {
-			clientNetworkUpdate();
-			updateRotation();
-		}
+	protected void serverUpdate() {
+		serverNetworkUpdate();
+		torqueIn = torqueCell.getEnergy() - prevEnergy;
+		torqueLoss = applyPowerDrain(torqueCell);
+		torqueLoss += applyPowerDrain(inputCell);
+		torqueLoss += applyDrainToStorage();
+		torqueOut = transferPowerTo(getPrimaryFacing());
+		balancePower();
+		prevEnergy = torqueCell.getEnergy();
+	}
+
+	@Override
+	protected boolean isNetworkNode() {
+		return true;
 	}
 
 	protected double applyDrainToStorage() {
@@ -14,6 +14,7 @@ import net.shadowmage.ancientwarfare.core.interfaces.IWorkSite;
 import net.shadowmage.ancientwarfare.core.interfaces.IWorker;
 import net.shadowmage.ancientwarfare.core.owner.IOwnable;
 import net.shadowmage.ancientwarfare.core.owner.Owner;
+import net.shadowmage.ancientwarfare.core.tile.WorksiteRegistry;
 import net.shadowmage.ancientwarfare.core.upgrade.WorksiteUpgrade;
 import net.shadowmage.ancientwarfare.core.util.Trig;
 
@@ -48,6 +49,24 @@ public class TileHandCrankedGenerator extends TileTorqueSingleCell implements IW
 		inputCell = new TorqueCell(32, 0, 150, eff);
 	}
 
+	@Override
+	public void onLoad() {
+		super.onLoad();
+		WorksiteRegistry.INSTANCE.add(this);
+	}
+
+	@Override
+	public void invalidate() {
+		super.invalidate();
+		WorksiteRegistry.INSTANCE.remove(this);
+	}
+
+	@Override
+	public void onChunkUnload() {
+		super.onChunkUnload();
+		WorksiteRegistry.INSTANCE.remove(this);
+	}
+
 	@Override
 	public void update() {
 		if (!world.isRemote) {
@@ -18,8 +18,6 @@ import net.shadowmage.ancientwarfare.core.block.BlockRotationHandler.IRotatableT
 import net.shadowmage.ancientwarfare.core.interfaces.IInteractableTile;
 import net.shadowmage.ancientwarfare.core.interfaces.ITorque.ITorqueTile;
 import net.shadowmage.ancientwarfare.core.interfaces.ITorque.TorqueCell;
-import net.shadowmage.ancientwarfare.core.network.NetworkHandler;
-import net.shadowmage.ancientwarfare.core.network.PacketBlockEvent;
 import net.shadowmage.ancientwarfare.core.tile.TileUpdatable;
 import net.shadowmage.ancientwarfare.core.util.BlockTools;
 
@@ -44,6 +42,11 @@ public abstract class TileTorqueBase extends TileUpdatable implements ITorqueTil
 	private TileEntity[] rfCache;//cannot reference interface directly, but can cast directly...//only used when cofh installed
 	private ITorqueTile[] torqueCache;
 
+	/*
+	 * server side, the network that ticks this tile, null while the tile ticks itself
+	 */
+	TorqueNetworkManager.TorqueNetwork network;
+
 	/*
 	 * helper vars to be used by tiles during updating, to cache in/out/loss values<br>
 	 * IMPORTANT: should NOT be relied upon for calculations, only for use for display purposes<br>
@@ -159,11 +162,26 @@ public abstract class TileTorqueBase extends TileUpdatable implements ITorqueTil
 		invalidateTorqueCache();
 	}
 
+	@Override
+	public void onChunkUnload() {
+		super.onChunkUnload();
+		if (!world.isRemote) {
+			TorqueNetworkManager.INSTANCE.remove(this);
+		}
+	}
+
 	public void onNeighborTileChanged() {
 		invalidateTorqueCache();
 	}
 
 	protected final void invalidateTorqueCache() {
+		clearNeighborCaches();
+		if (hasWorld() && !world.isRemote) {
+			TorqueNetworkManager.INSTANCE.onConnectionsChanged(this);
+		}
+	}
+
+	final void clearNeighborCaches() {
 		torqueCache = null;
 		rfCache = null;
 		onNeighborCacheInvalidated();
@@ -207,6 +225,19 @@ public abstract class TileTorqueBase extends TileUpdatable implements ITorqueTil
 
 	//************************************** Utility Methods ***************************************//
 
+	/*
+	 * @return true for tiles that only store and pass on torque (shafts, conduits, distributors, flywheels), these are
+	 * joined with the connected ones into a torque network that ticks them in the order torque flows through them
+	 */
+	protected boolean isNetworkNode() {
+		return false;
+	}
+
+	/*
+	 * server side work of the tile for a tick, run from update() or by the torque network of the tile
+	 */
+	protected abstract void serverUpdate();
+
 	protected void updateRotation() {
 		throw new UnsupportedOperationException();
 	}
@@ -285,8 +316,7 @@ public abstract class TileTorqueBase extends TileUpdatable implements ITorqueTil
 	}
 
 	protected final void sendDataToClient(int type, int data) {
-		PacketBlockEvent pkt = new PacketBlockEvent(pos, getBlockType(), (short) type, (short) data);
-		NetworkHandler.sendToAllTrackingChunk(world, pos.getX() >> 4, pos.getZ() >> 4, pkt);
+		TorqueAnimationSync.INSTANCE.queue(this, type, data);
 	}
 
 	protected final float getRenderRotation(double rotation, double lastRotationDiff, float partialTicks) {
@@ -25,6 +25,11 @@ public abstract class TileTorqueShaft extends TileTorqueSingleCell {
 
 	protected abstract double getMaxTransfer();
 
+	@Override
+	protected boolean isNetworkNode() {
+		return true;
+	}
+
 	@Override
 	protected void serverNetworkSynch() {
 		if (prev() == null) {
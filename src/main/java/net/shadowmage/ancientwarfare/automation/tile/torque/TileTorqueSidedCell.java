@@ -46,18 +46,30 @@ public abstract class TileTorqueSidedCell extends TileTorqueBase {
 	@Override
 	public void update() {
 		if (!world.isRemote) {
-			serverNetworkUpdate();
-			torqueIn = getTotalTorque() - prevEnergy;
-			balanceStorage();
-			torqueLoss = applyPowerLoss();
-			torqueOut = transferPower();
-			prevEnergy = getTotalTorque();
+			if (network == null) {
+				serverUpdate();
+			}
 		} else {
 			clientNetworkUpdate();
 			updateRotation();
 		}
 	}
 
+	@Override
+	protected void serverUpdate() {
+		serverNetworkUpdate();
+		torqueIn = getTotalTorque() - prevEnergy;
+		balanceStorage();
+		torqueLoss = applyPowerLoss();
+		torqueOut = transferPower();
+		prevEnergy = getTotalTorque();
+	}
+
+	@Override
+	protected boolean isNetworkNode() {
+		return true;
+	}
+
 	protected double applyPowerLoss() {
 		double loss = 0;
 		for (SidedTorqueCell aStorage : storage) {
@@ -40,17 +40,24 @@ public abstract class TileTorqueSingleCell extends TileTorqueBase {
 	@Override
 	public void update() {
 		if (!world.isRemote) {
-			serverNetworkUpdate();
-			torqueIn = torqueCell.getEnergy() - prevEnergy;
-			torqueLoss = applyPowerDrain(torqueCell);
-			torqueOut = transferPowerTo(getPrimaryFacing());
-			prevEnergy = torqueCell.getEnergy();
+			if (network == null) {
+				serverUpdate();
+			}
 		} else {
 			clientNetworkUpdate();
 			updateRotation();
 		}
 	}
 
+	@Override
+	protected void serverUpdate() {
+		serverNetworkUpdate();
+		torqueIn = torqueCell.getEnergy() - prevEnergy;
+		torqueLoss = applyPowerDrain(torqueCell);
+		torqueOut = transferPowerTo(getPrimaryFacing());
+		prevEnergy = torqueCell.getEnergy();
+	}
+
 	protected double applyPowerLoss() {
 		return applyPowerDrain(torqueCell);
 	}
@@ -0,0 +1,65 @@
+package net.shadowmage.ancientwarfare.automation.tile.torque;
+
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.World;
+import net.minecraftforge.event.world.WorldEvent;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent;
+import net.shadowmage.ancientwarfare.automation.network.PacketTorqueAnimation;
+import net.shadowmage.ancientwarfare.core.network.NetworkHandler;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/*
+ * Collects the animation states (rotation speed percents, flywheel fill, powered flags) that torque tiles send to
+ * clients during a tick, and sends them at the end of the world tick as one frame per chunk instead of a block event
+ * packet per tile and side.<br>
+ * A later state of the same tile and type in a tick replaces the earlier one.
+ */
+public final class TorqueAnimationSync {
+
+	public static final TorqueAnimationSync INSTANCE = new TorqueAnimationSync();
+
+	private final Map<World, Long2ObjectMap<Int2IntOpenHashMap>> worldFrames = new HashMap<>();
+
+	private TorqueAnimationSync() {
+	}
+
+	/*
+	 * @param type  event type passed to receiveClientEvent of the tile on the client, 0-255
+	 * @param value event value, 0-255
+	 */
+	public void queue(TileEntity tile, int type, int value) {
+		BlockPos pos = tile.getPos();
+		Int2IntOpenHashMap frame = worldFrames.computeIfAbsent(tile.getWorld(), w -> new Long2ObjectOpenHashMap<>())
+				.computeIfAbsent(ChunkPos.asLong(pos.getX() >> 4, pos.getZ() >> 4), k -> new Int2IntOpenHashMap());
+		frame.put(PacketTorqueAnimation.getLocalIndex(pos) << 8 | (type & 0xff), value & 0xff);
+	}
+
+	@SubscribeEvent
+	public void onWorldTick(TickEvent.WorldTickEvent evt) {
+		if (evt.phase != TickEvent.Phase.END) {
+			return;
+		}
+		Long2ObjectMap<Int2IntOpenHashMap> frames = worldFrames.get(evt.world);
+		if (frames != null && !frames.isEmpty()) {
+			for (Long2ObjectMap.Entry<Int2IntOpenHashMap> entry : frames.long2ObjectEntrySet()) {
+				int chunkX = (int) entry.getLongKey();
+				int chunkZ = (int) (entry.getLongKey() >> 32);
+				NetworkHandler.sendToAllTrackingChunk(evt.world, chunkX, chunkZ, new PacketTorqueAnimation(chunkX, chunkZ, entry.getValue()));
+			}
+			frames.clear();
+		}
+	}
+
+	@SubscribeEvent
+	public void onWorldUnload(WorldEvent.Unload evt) {
+		worldFrames.remove(evt.getWorld());
+	}
+}
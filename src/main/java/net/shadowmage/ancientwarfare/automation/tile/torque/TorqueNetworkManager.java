@@ -0,0 +1,233 @@
+package net.shadowmage.ancientwarfare.automation.tile.torque;
+
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import net.minecraft.util.EnumFacing;
+import net.minecraft.world.World;
+import net.minecraftforge.event.world.WorldEvent;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent;
+import net.shadowmage.ancientwarfare.core.interfaces.ITorque.ITorqueTile;
+
+import javax.annotation.Nullable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/*
+ * Joins connected torque tiles that only store and pass on torque (shafts, conduits, distributors, flywheels) into
+ * networks, and ticks each network at the end of the world tick instead of having each tile tick on its own.<br>
+ * A network is compiled once when it is built, into its tiles ordered the way torque flows through them (from the tiles
+ * fed by generators towards the consumers), so one pass over the tiles moves torque from the generators to the
+ * consumers in the same tick instead of one tile further each tick.<br>
+ * A change of the connections of any tile of a network (placed or broken neighbor, rotation, chunk unload) dissolves the
+ * network, its tiles tick on their own until the network is rebuilt at the end of the tick.
+ */
+public final class TorqueNetworkManager {
+
+	public static final TorqueNetworkManager INSTANCE = new TorqueNetworkManager();
+
+	private final Map<World, WorldNetworks> worldData = new HashMap<>();
+
+	private TorqueNetworkManager() {
+	}
+
+	void onConnectionsChanged(TileTorqueBase tile) {
+		WorldNetworks data = worldData.computeIfAbsent(tile.getWorld(), w -> new WorldNetworks());
+		if (tile.network != null) {
+			data.dissolve(tile.network);
+		}
+		if (tile.isInvalid() || !tile.isNetworkNode()) {
+			data.pending.remove(tile);
+		} else {
+			data.pending.add(tile);
+		}
+	}
+
+	void remove(TileTorqueBase tile) {
+		WorldNetworks data = worldData.get(tile.getWorld());
+		if (data != null) {
+			if (tile.network != null) {
+				data.dissolve(tile.network);
+			}
+			data.pending.remove(tile);
+		}
+	}
+
+	@SubscribeEvent
+	public void onWorldTick(TickEvent.WorldTickEvent evt) {
+		if (evt.phase != TickEvent.Phase.END) {
+			return;
+		}
+		WorldNetworks data = worldData.get(evt.world);
+		if (data != null) {
+			evt.world.profiler.startSection("AWTorqueNetworks");
+			data.tick();
+			evt.world.profiler.endSection();
+		}
+	}
+
+	@SubscribeEvent
+	public void onWorldUnload(WorldEvent.Unload evt) {
+		worldData.remove(evt.getWorld());
+	}
+
+	private static final class WorldNetworks {
+		private final Set<TorqueNetwork> networks = new LinkedHashSet<>();
+		private final Set<TileTorqueBase> pending = new LinkedHashSet<>();
+		private final List<TileTorqueBase> building = new ArrayList<>();
+		private final List<TorqueNetwork> ticking = new ArrayList<>();
+
+		private void tick() {
+			if (!pending.isEmpty()) {
+				building.addAll(pending);
+				pending.clear();
+				for (TileTorqueBase tile : building) {
+					if (tile.network == null && canJoin(tile)) {
+						networks.add(build(tile));
+					}
+				}
+				building.clear();
+			}
+			ticking.addAll(networks);
+			for (TorqueNetwork network : ticking) {
+				network.tick();
+			}
+			ticking.clear();
+		}
+
+		private void dissolve(TorqueNetwork network) {
+			networks.remove(network);
+			for (TileTorqueBase tile : network.tiles) {
+				tile.network = null;
+				tile.clearNeighborCaches();
+				pending.add(tile);
+			}
+		}
+
+		/*
+		 * flood fills the network from the tile, absorbing networks of tiles that connected since they were built
+		 */
+		private TorqueNetwork build(TileTorqueBase start) {
+			TorqueNetwork network = new TorqueNetwork();
+			List<TileTorqueBase> tiles = new ArrayList<>();
+			ArrayDeque<TileTorqueBase> open = new ArrayDeque<>();
+			start.network = network;
+			tiles.add(start);
+			open.add(start);
+			while (!open.isEmpty()) {
+				TileTorqueBase tile = open.poll();
+				ITorqueTile[] neighbors = tile.getTorqueCache();
+				for (EnumFacing dir : EnumFacing.VALUES) {
+					TileTorqueBase neighbor = getConnectedNode(tile, dir, neighbors[dir.ordinal()]);
+					if (neighbor == null || neighbor.network == network) {
+						continue;
+					}
+					if (neighbor.network != null) {
+						dissolve(neighbor.network);
+					}
+					neighbor.network = network;
+					tiles.add(neighbor);
+					open.add(neighbor);
+				}
+			}
+			network.tiles = sortByFlow(tiles);
+			return network;
+		}
+
+		/*
+		 * topological order of the tiles along the directions torque flows between them, for loops of tiles the one with
+		 * the fewest remaining inputs is taken next, so a loop only delays the torque going around it
+		 */
+		private static TileTorqueBase[] sortByFlow(List<TileTorqueBase> tiles) {
+			int count = tiles.size();
+			Object2IntOpenHashMap<TileTorqueBase> indices = new Object2IntOpenHashMap<>(count);
+			for (int i = 0; i < count; i++) {
+				indices.put(tiles.get(i), i);
+			}
+			int[][] outputs = new int[count][];
+			int[] inputCounts = new int[count];
+			int[] targets = new int[EnumFacing.VALUES.length];
+			for (int i = 0; i < count; i++) {
+				TileTorqueBase tile = tiles.get(i);
+				ITorqueTile[] neighbors = tile.getTorqueCache();
+				int outputCount = 0;
+				for (EnumFacing dir : EnumFacing.VALUES) {
+					ITorqueTile neighbor = neighbors[dir.ordinal()];
+					if (neighbor instanceof TileTorqueBase && ((TileTorqueBase) neighbor).network == tile.network && tile.canOutputTorque(dir) && neighbor.canInputTorque(dir.getOpposite())) {
+						int target = indices.getInt(neighbor);
+						targets[outputCount++] = target;
+						inputCounts[target]++;
+					}
+				}
+				outputs[i] = new int[outputCount];
+				System.arraycopy(targets, 0, outputs[i], 0, outputCount);
+			}
+
+			TileTorqueBase[] sorted = new TileTorqueBase[count];
+			boolean[] added = new boolean[count];
+			ArrayDeque<Integer> ready = new ArrayDeque<>();
+			for (int i = 0; i < count; i++) {
+				if (inputCounts[i] == 0) {
+					ready.add(i);
+				}
+			}
+			int sortedCount = 0;
+			while (sortedCount < count) {
+				if (ready.isEmpty()) {
+					int next = -1;
+					for (int i = 0; i < count; i++) {
+						if (!added[i] && (next < 0 || inputCounts[i] < inputCounts[next])) {
+							next = i;
+						}
+					}
+					inputCounts[next] = 0;
+					ready.add(next);
+				}
+				int index = ready.poll();
+				if (added[index]) {
+					continue;
+				}
+				added[index] = true;
+				sorted[sortedCount++] = tiles.get(index);
+				for (int target : outputs[index]) {
+					if (!added[target] && --inputCounts[target] == 0) {
+						ready.add(target);
+					}
+				}
+			}
+			return sorted;
+		}
+
+		@Nullable
+		private static TileTorqueBase getConnectedNode(TileTorqueBase tile, EnumFacing dir, @Nullable ITorqueTile neighbor) {
+			if (!(neighbor instanceof TileTorqueBase) || !canJoin((TileTorqueBase) neighbor)) {
+				return null;
+			}
+			EnumFacing opposite = dir.getOpposite();
+			if ((tile.canOutputTorque(dir) && neighbor.canInputTorque(opposite)) || (tile.canInputTorque(dir) && neighbor.canOutputTorque(opposite))) {
+				return (TileTorqueBase) neighbor;
+			}
+			return null;
+		}
+
+		private static boolean canJoin(TileTorqueBase tile) {
+			return tile.isNetworkNode() && !tile.isInvalid() && tile.hasWorld() && tile.getWorld().isBlockLoaded(tile.getPos());
+		}
+	}
+
+	static final class TorqueNetwork {
+		private TileTorqueBase[] tiles;
+
+		private void tick() {
+			for (TileTorqueBase tile : tiles) {
+				if (tile.network == this) {
+					tile.serverUpdate();
+				}
+			}
+		}
+	}
+}
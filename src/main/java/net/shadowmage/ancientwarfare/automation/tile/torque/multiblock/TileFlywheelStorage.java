@@ -7,8 +7,7 @@ import net.minecraft.util.ITickable;
 import net.minecraft.util.math.AxisAlignedBB;
 import net.minecraft.util.math.BlockPos;
 import net.shadowmage.ancientwarfare.automation.config.AWAutomationStatics;
-import net.shadowmage.ancientwarfare.core.network.NetworkHandler;
-import net.shadowmage.ancientwarfare.core.network.PacketBlockEvent;
+import net.shadowmage.ancientwarfare.automation.tile.torque.TorqueAnimationSync;
 import net.shadowmage.ancientwarfare.core.tile.TileUpdatable;
 import net.shadowmage.ancientwarfare.core.util.BlockFinder;
 import net.shadowmage.ancientwarfare.core.util.BlockTools;
@@ -88,8 +87,7 @@ public class TileFlywheelStorage extends TileUpdatable implements ITickable {
 	}
 
 	protected final void sendDataToClient(int type, int data) {
-		PacketBlockEvent pkt = new PacketBlockEvent(pos, getBlockType(), (byte) type, (short) data);
-		NetworkHandler.sendToAllTrackingChunk(world, pos.getX() >> 4, pos.getZ() >> 4, pkt);
+		TorqueAnimationSync.INSTANCE.queue(this, type, data);
 	}
 
 	@Override
@@ -27,6 +27,7 @@ public class TileWarehouse extends TileWarehouseBase {
 
 	@Override
 	public void invalidate() {
+		super.invalidate();
 		BlockPos max = getWorkBoundsMax();
 		if (max == null)
 			return;
@@ -89,16 +90,12 @@ public class TileWarehouse extends TileWarehouseBase {
 				return;
 		}
 
-		List<IWarehouseStorageTile> destinations = storageMap.getDestinations();
 		int toMoveMax = filter.getMaxStackSize();
 		if (rightClick && (toMoveMax > 1)) {
 			if (shiftClick) {
 				toMoveMax = Math.min(stackSize + 1, toMoveMax);
 			} else {
-				int available = 0;
-				for (IWarehouseStorageTile tile : destinations) {
-					available += tile.getQuantityStored(filter);
-				}
+				int available = getCountOf(filter);
 				if (toMoveMax > available) {
 					toMoveMax = available;
 				}
@@ -119,7 +116,7 @@ public class TileWarehouse extends TileWarehouseBase {
 		}
 
 		int removed = 0;
-		for (IWarehouseStorageTile tile : storageMap.getDestinations()) {
+		for (IWarehouseStorageTile tile : storageMap.getLocations(filter)) {
 			int count = tile.getQuantityStored(filter);
 			int removeFromTile = Math.min(toRemove - removed, count);
 			if (removeFromTile > 0) {
@@ -144,7 +141,7 @@ public class TileWarehouse extends TileWarehouseBase {
 	private ItemStack tryGetItemClient(ItemStack filter, int toRemove) {
 		int maxRemove = cachedItemMap.getCount(filter);
 		int removed = Math.min(toRemove, maxRemove);
-		cachedItemMap.decreaseCount(filter, removed);
+		decreaseCachedQuantity(filter, removed);
 		ItemStack result = filter.copy();
 		result.setCount(removed);
 		return result;
@@ -8,12 +8,14 @@ import net.minecraft.util.EnumHand;
 import net.minecraft.util.math.BlockPos;
 import net.minecraftforge.items.CapabilityItemHandler;
 import net.minecraftforge.items.IItemHandler;
+import net.shadowmage.ancientwarfare.automation.config.AWAutomationStatics;
 import net.shadowmage.ancientwarfare.automation.container.ContainerWarehouseControl;
 import net.shadowmage.ancientwarfare.automation.container.ContainerWarehouseCraftingStation;
 import net.shadowmage.ancientwarfare.automation.tile.warehouse2.TileWarehouseInterface.InterfaceEmptyRequest;
 import net.shadowmage.ancientwarfare.automation.tile.warehouse2.TileWarehouseInterface.InterfaceFillRequest;
 import net.shadowmage.ancientwarfare.automation.tile.worksite.TileWorksiteBounded;
 import net.shadowmage.ancientwarfare.core.inventory.ItemQuantityMap;
+import net.shadowmage.ancientwarfare.core.inventory.ItemQuantityMap.ItemHashEntry;
 import net.shadowmage.ancientwarfare.core.network.NetworkHandler;
 import net.shadowmage.ancientwarfare.core.util.BlockTools;
 import net.shadowmage.ancientwarfare.core.util.InventoryTools;
@@ -22,6 +24,7 @@ import net.shadowmage.ancientwarfare.core.util.WorldTools;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -49,6 +52,7 @@ public abstract class TileWarehouseBase extends TileWorksiteBounded implements I
 
 	protected WarehouseStorageMap storageMap = new WarehouseStorageMap();
 	protected ItemQuantityMap cachedItemMap = new ItemQuantityMap();
+	private final WarehouseChangeJournal changeJournal = new WarehouseChangeJournal();
 
 	private final Set<ContainerWarehouseControl> viewers = new HashSet<>();
 	private final Set<ContainerWarehouseCraftingStation> craftingViewers = new HashSet<>();
@@ -92,6 +96,7 @@ public abstract class TileWarehouseBase extends TileWorksiteBounded implements I
 
 		storageMap = new WarehouseStorageMap();
 		cachedItemMap.clear();
+		changeJournal.reset();
 
 		scanForInitialTiles();
 	}
@@ -110,32 +115,58 @@ public abstract class TileWarehouseBase extends TileWorksiteBounded implements I
 
 	public void changeCachedQuantity(ItemStack filter, int change) {
 		if (change > 0) {
-			cachedItemMap.addCount(filter, change);
-		} else {
-			cachedItemMap.decreaseCount(filter, -change);
+			addCachedQuantity(filter, change);
+		} else if (change < 0) {
+			decreaseCachedQuantity(filter, -change);
 		}
 		updateViewers();
 	}
 
-	private boolean tryEmptyInterfaces() {
-		List<TileWarehouseInterface> toEmpty = new ArrayList<TileWarehouseInterface>(interfacesToEmpty);
-		for (TileWarehouseInterface tile : toEmpty) {
-			if (tryEmptyTile(tile)) {
-				tile.recalcRequests();
-				return true;
-			}
+	private void addCachedQuantity(ItemStack filter, int amount) {
+		ItemHashEntry entry = ItemHashEntry.of(filter);
+		cachedItemMap.addCount(entry, amount);
+		changeJournal.recordChange(entry);
+	}
+
+	protected final void decreaseCachedQuantity(ItemStack filter, int amount) {
+		ItemHashEntry entry = ItemHashEntry.getIfPresent(filter);
+		if (entry != null && cachedItemMap.contains(entry)) {
+			cachedItemMap.decreaseCount(entry, amount);
+			recordChange(entry);
+		}
+	}
+
+	private void recordChange(ItemHashEntry entry) {
+		if (cachedItemMap.contains(entry)) {
+			changeJournal.recordChange(entry);
+		} else {
+			changeJournal.recordRemoval(entry);
 		}
-		return false;
 	}
 
-	private boolean tryEmptyTile(TileWarehouseInterface tile) {
-		List<InterfaceEmptyRequest> reqs = tile.getEmptyRequests();
-		for (InterfaceEmptyRequest req : reqs) {
-			if (tryRemoveFromRequest(tile, req)) {
-				return true;
+	/*
+	 * Resolves empty requests of all interfaces that have any, up to maxTransfers requests
+	 *
+	 * @return number of requests that moved items
+	 */
+	private int emptyInterfaces(int maxTransfers) {
+		int transfers = 0;
+		for (TileWarehouseInterface tile : new ArrayList<>(interfacesToEmpty)) {
+			tile.startBatchTransfer();
+			for (InterfaceEmptyRequest req : new ArrayList<>(tile.getEmptyRequests())) {
+				if (transfers >= maxTransfers) {
+					break;
+				}
+				if (tryRemoveFromRequest(tile, req)) {
+					transfers++;
+				}
+			}
+			tile.finishBatchTransfer();
+			if (transfers >= maxTransfers) {
+				break;
 			}
 		}
-		return false;
+		return transfers;
 	}
 
 	private boolean tryRemoveFromRequest(TileWarehouseInterface tile, InterfaceEmptyRequest request) {
@@ -144,75 +175,80 @@ public abstract class TileWarehouseBase extends TileWorksiteBounded implements I
 		if (stack.isEmpty()) {
 			return false;
 		}
-		int count = stack.getCount();
-		int moved;
-		int toMove = request.count;
-		int stackMove;
-		List<IWarehouseStorageTile> potentialStorage = storageMap.getDestinations(stack);
-		for (IWarehouseStorageTile dest : potentialStorage) {
-			stackMove = toMove > stack.getCount() ? stack.getCount() : toMove;
-			moved = dest.insertItem(stack, stackMove);
-			if (moved > 0) {
-				ItemStack filter = stack.copy();
-				filter.setCount(1);
-				changeCachedQuantity(filter, moved);
-			}
-
-			toMove -= moved;
-			if (!inventory.extractItem(request.slotNum, moved, false).isEmpty()) {
-				return true;
-			}
-			if (toMove <= 0) {
+		int toMove = Math.min(request.count, stack.getCount());
+		int moved = 0;
+		for (IWarehouseStorageTile dest : storageMap.getDestinations(stack)) {
+			moved += dest.insertItem(stack, toMove - moved);
+			if (moved >= toMove) {
 				break;
 			}
 		}
-		return false;
-	}
-
-	private boolean tryFillInterfaces() {
-		List<TileWarehouseInterface> toFill = new ArrayList<TileWarehouseInterface>(interfacesToFill);
-		for (TileWarehouseInterface tile : toFill) {
-			if (tryFillTile(tile)) {
-				tile.recalcRequests();
-				return true;
-			}
+		if (moved <= 0) {
+			return false;
 		}
-		return false;
+		addCachedQuantity(stack, moved);
+		inventory.extractItem(request.slotNum, moved, false);
+		return true;
 	}
 
-	private boolean tryFillTile(TileWarehouseInterface tile) {
-		List<InterfaceFillRequest> reqs = tile.getFillRequests();
-		for (InterfaceFillRequest req : reqs) {
-			if (tryFillFromRequest(tile, req)) {
-				return true;
+	/*
+	 * Resolves fill requests of all interfaces that have any, up to maxTransfers requests.
+	 * Requests for items not in the warehouse are rejected from the cached item counts without touching storage tiles.
+	 *
+	 * @return number of requests that moved items
+	 */
+	private int fillInterfaces(int maxTransfers) {
+		int transfers = 0;
+		for (TileWarehouseInterface tile : new ArrayList<>(interfacesToFill)) {
+			tile.startBatchTransfer();
+			for (InterfaceFillRequest req : new ArrayList<>(tile.getFillRequests())) {
+				if (transfers >= maxTransfers) {
+					break;
+				}
+				if (tryFillFromRequest(tile, req)) {
+					transfers++;
+				}
+			}
+			tile.finishBatchTransfer();
+			if (transfers >= maxTransfers) {
+				break;
 			}
 		}
-		return false;
+		return transfers;
 	}
 
 	private boolean tryFillFromRequest(TileWarehouseInterface tile, InterfaceFillRequest request) {
-		List<IWarehouseStorageTile> potentialStorage = storageMap.getDestinations();
-		int found, moved;
-		@Nonnull ItemStack stack;
-		int stackSize;
+		int available = cachedItemMap.getCount(request.requestedItem);
+		if (available <= 0) {
+			return false;
+		}
+		int toMove = Math.min(request.requestAmount, available);
+		int moved = 0;
 		IItemHandler inventory = tile.getCapability(CapabilityItemHandler.ITEM_HANDLER_CAPABILITY, null);
-		for (IWarehouseStorageTile source : potentialStorage) {
-			found = source.getQuantityStored(request.requestedItem);
-			if (found > 0) {
-				stack = request.requestedItem.copy();
-				stack.setCount(found > stack.getMaxStackSize() ? stack.getMaxStackSize() : found);
-				stackSize = stack.getCount();
-				stack = InventoryTools.mergeItemStack(inventory, stack);
-				if (stack.isEmpty() || stack.getCount() != stackSize) {
-					moved = stack.isEmpty() ? stackSize : stackSize - stack.getCount();
-					source.extractItem(request.requestedItem, moved);
-					cachedItemMap.decreaseCount(request.requestedItem, moved);
-					updateViewers();
-					return true;
-				}
+		for (IWarehouseStorageTile source : storageMap.getLocations(request.requestedItem)) {
+			int found = source.getQuantityStored(request.requestedItem);
+			if (found <= 0) {
+				continue;
+			}
+			@Nonnull ItemStack stack = request.requestedItem.copy();
+			stack.setCount(Math.min(Math.min(found, stack.getMaxStackSize()), toMove - moved));
+			int stackSize = stack.getCount();
+			stack = InventoryTools.mergeItemStack(inventory, stack);
+			int merged = stackSize - stack.getCount();
+			if (merged <= 0) {
+				break;//interface is full
+			}
+			source.extractItem(request.requestedItem, merged);
+			moved += merged;
+			if (moved >= toMove) {
+				break;
 			}
 		}
-		return false;
+		if (moved <= 0) {
+			return false;
+		}
+		decreaseCachedQuantity(request.requestedItem, moved);
+		return true;
 	}
 
 	public final void getItems(ItemQuantityMap map) {
@@ -221,23 +257,46 @@ public abstract class TileWarehouseBase extends TileWorksiteBounded implements I
 
 	public final void clearItemCache() {
 		cachedItemMap.clear();
+		changeJournal.reset();
 	}
 
 	public final void addItemsToCache(ItemQuantityMap map) {
 		cachedItemMap.addAll(map);
+		changeJournal.recordChanges(map.keySet());
+	}
+
+	public final int getCountOf(ItemHashEntry entry) {
+		return cachedItemMap.getCount(entry);
+	}
+
+	/*
+	 * @return read only view of all items currently in the warehouse
+	 */
+	public final Set<ItemHashEntry> getItemKeys() {
+		return Collections.unmodifiableSet(cachedItemMap.keySet());
 	}
 
+	public final WarehouseChangeJournal getChangeJournal() {
+		return changeJournal;
+	}
+
+	/*
+	 * Resolves as many pending interface requests as allowed per work activation in one pass,
+	 * viewers are notified once at the end
+	 */
 	@Override
 	protected boolean processWork() {
+		int maxTransfers = Math.max(1, AWAutomationStatics.warehouseTransfersPerWork);
+		int transfers = 0;
 		if (!interfacesToEmpty.isEmpty()) {
-			if (tryEmptyInterfaces()) {
-				return true;
-			}
+			transfers += emptyInterfaces(maxTransfers);
 		}
-		if (!interfacesToFill.isEmpty()) {
-			if (tryFillInterfaces()) {
-				return true;
-			}
+		if (transfers < maxTransfers && !interfacesToFill.isEmpty()) {
+			transfers += fillInterfaces(maxTransfers - transfers);
+		}
+		if (transfers > 0) {
+			updateViewers();
+			return true;
 		}
 		return false;
 	}
@@ -247,6 +306,11 @@ public abstract class TileWarehouseBase extends TileWorksiteBounded implements I
 		return !interfacesToEmpty.isEmpty() || !interfacesToFill.isEmpty();
 	}
 
+	@Override
+	protected boolean hasPendingUpdates() {
+		return !init || shouldRecount;
+	}
+
 	@Override
 	protected final void updateWorksite() {
 		if (!init) {
@@ -276,6 +340,7 @@ public abstract class TileWarehouseBase extends TileWorksiteBounded implements I
 
 	private void recountInventory() {
 		cachedItemMap.clear();
+		changeJournal.reset();
 		for (IWarehouseStorageTile tile : storageTiles) {
 			tile.addItems(cachedItemMap);
 		}
@@ -325,7 +390,9 @@ public abstract class TileWarehouseBase extends TileWorksiteBounded implements I
 			}
 			storageTiles.add(tile);
 			storageMap.addStorageTile(tile);
-			tile.addItems(cachedItemMap);
+			ItemQuantityMap iqm = new ItemQuantityMap();
+			tile.addItems(iqm);
+			addItemsToCache(iqm);
 		}
 	}
 
@@ -333,6 +400,7 @@ public abstract class TileWarehouseBase extends TileWorksiteBounded implements I
 		ItemQuantityMap iqm = new ItemQuantityMap();
 		tile.addItems(iqm);
 		this.cachedItemMap.removeAll(iqm);
+		iqm.keySet().forEach(this::recordChange);
 		storageTiles.remove(tile);
 		storageMap.removeStorageTile(tile);
 		updateViewers();
@@ -351,6 +419,7 @@ public abstract class TileWarehouseBase extends TileWorksiteBounded implements I
 			if (!tile.getFillRequests().isEmpty()) {
 				interfacesToFill.add(tile);
 			}
+			wakeUp();
 		}
 	}
 
@@ -372,6 +441,15 @@ public abstract class TileWarehouseBase extends TileWorksiteBounded implements I
 		if (!tile.getFillRequests().isEmpty()) {
 			interfacesToFill.add(tile);
 		}
+		wakeUp();
+	}
+
+	public final void onStoredQuantityChanged(IWarehouseStorageTile tile, ItemStack item) {
+		if (world.isRemote) {
+			return;
+		}
+		storageMap.onStoredQuantityChanged(tile, item);
+		wakeUp();//pending fill or empty requests may be possible now
 	}
 
 	public final void onStorageFilterChanged(IWarehouseStorageTile tile, List<WarehouseStorageFilter> oldFilters, List<WarehouseStorageFilter> newFilters) {
@@ -379,6 +457,7 @@ public abstract class TileWarehouseBase extends TileWorksiteBounded implements I
 			return;
 		}
 		storageMap.updateTileFilters(tile, oldFilters, newFilters);
+		wakeUp();
 	}
 
 	public final void addStockViewer(TileWarehouseStockViewer viewer) {
@@ -445,10 +524,10 @@ public abstract class TileWarehouseBase extends TileWorksiteBounded implements I
 
 	public void decreaseCountOf(ItemStack layoutStack, int i) {
 		if (world.isRemote) {
-			cachedItemMap.decreaseCount(layoutStack, i);
+			decreaseCachedQuantity(layoutStack, i);
 			return;
 		}
-		List<IWarehouseStorageTile> dest = storageMap.getDestinations();
+		List<IWarehouseStorageTile> dest = storageMap.getLocations(layoutStack);
 		int found = 0;
 		for (IWarehouseStorageTile tile : dest) {
 			found = tile.getQuantityStored(layoutStack);
@@ -458,7 +537,7 @@ public abstract class TileWarehouseBase extends TileWorksiteBounded implements I
 				}
 				i -= found;
 				tile.extractItem(layoutStack, found);
-				cachedItemMap.decreaseCount(layoutStack, found);
+				decreaseCachedQuantity(layoutStack, found);
 				if (i <= 0) {
 					break;
 				}
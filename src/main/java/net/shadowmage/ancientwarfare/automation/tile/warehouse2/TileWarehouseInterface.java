@@ -25,11 +25,17 @@ public class TileWarehouseInterface extends TileControlled implements IInteracta
 		@Override
 		protected void onContentsChanged(int slot) {
 			markDirty();
-			recalcRequests();
+			if (batchTransfer) {
+				requestsChanged = true;
+			} else {
+				recalcRequests();
+			}
 		}
 	};
 
 	private boolean init = false;
+	private boolean batchTransfer = false;
+	private boolean requestsChanged = false;
 	private final List<InterfaceFillRequest> fillRequests = new ArrayList<>();
 	private final List<InterfaceEmptyRequest> emptyRequests = new ArrayList<>();
 	List<WarehouseInterfaceFilter> filters = new ArrayList<>();
@@ -160,6 +166,21 @@ public class TileWarehouseInterface extends TileControlled implements IInteracta
 		return qty;
 	}
 
+	/*
+	 * Defers request recalculation while the controlling warehouse moves several stacks in and out of this interface
+	 */
+	void startBatchTransfer() {
+		batchTransfer = true;
+	}
+
+	void finishBatchTransfer() {
+		batchTransfer = false;
+		if (requestsChanged) {
+			requestsChanged = false;
+			recalcRequests();
+		}
+	}
+
 	public List<InterfaceFillRequest> getFillRequests() {
 		return fillRequests;
 	}
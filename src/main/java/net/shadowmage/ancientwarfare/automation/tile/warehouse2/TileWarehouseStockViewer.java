@@ -7,6 +7,7 @@ import net.minecraft.util.EnumHand;
 import net.minecraftforge.common.util.INBTSerializable;
 import net.shadowmage.ancientwarfare.automation.container.ContainerWarehouseStockViewer;
 import net.shadowmage.ancientwarfare.core.interfaces.IInteractableTile;
+import net.shadowmage.ancientwarfare.core.inventory.ItemQuantityMap.ItemHashEntry;
 import net.shadowmage.ancientwarfare.core.network.NetworkHandler;
 import net.shadowmage.ancientwarfare.core.owner.IOwnable;
 import net.shadowmage.ancientwarfare.core.owner.Owner;
@@ -26,6 +27,7 @@ public class TileWarehouseStockViewer extends TileControlled implements IOwnable
 	private final List<WarehouseStockFilter> filters = new ArrayList<>();
 	private Owner owner = Owner.EMPTY;
 	private boolean shouldUpdate = false;
+	private long syncedVersion = -1;
 
 	private final Set<ContainerWarehouseStockViewer> viewers = new HashSet<>();
 
@@ -50,6 +52,7 @@ public class TileWarehouseStockViewer extends TileControlled implements IOwnable
 	public void setFilters(List<WarehouseStockFilter> filters) {
 		this.filters.clear();
 		this.filters.addAll(filters);
+		syncedVersion = -1;
 		shouldUpdate = false;//set to false, as we are manually updating right now
 		recountFilters(false);//recount filters, do not send update
 		BlockTools.notifyBlockUpdate(this); //to re-send description packet to client with new filters
@@ -63,6 +66,7 @@ public class TileWarehouseStockViewer extends TileControlled implements IOwnable
 		int count;
 		int index = 0;
 		if (twb == null) {
+			syncedVersion = -1;
 			count = 0;
 			for (WarehouseStockFilter filter : this.filters) {
 				if (count != filter.getQuantity()) {
@@ -74,8 +78,14 @@ public class TileWarehouseStockViewer extends TileControlled implements IOwnable
 				index++;
 			}
 		} else {
+			WarehouseChangeJournal journal = twb.getChangeJournal();
 			for (WarehouseStockFilter filter : this.filters) {
-				count = filter.getFilterItem().isEmpty() ? 0 : twb.getCountOf(filter.getFilterItem());
+				ItemHashEntry entry = filter.getFilterItem().isEmpty() ? null : ItemHashEntry.getIfPresent(filter.getFilterItem());
+				if (entry != null && !journal.hasChangedSince(entry, syncedVersion)) {
+					index++;
+					continue;
+				}
+				count = entry == null ? 0 : twb.getCountOf(entry);
 				if (count != filter.getQuantity()) {
 					filter.setQuantity(count);
 					if (sendToClients) {
@@ -84,6 +94,7 @@ public class TileWarehouseStockViewer extends TileControlled implements IOwnable
 				}
 				index++;
 			}
+			syncedVersion = journal.getVersion();
 		}
 	}
 
@@ -94,6 +105,7 @@ public class TileWarehouseStockViewer extends TileControlled implements IOwnable
 
 	@Override
 	protected void onControllerChanged(IControllerTile oldController, IControllerTile newController) {
+		syncedVersion = -1;
 		onWarehouseInventoryUpdated();
 	}
 
@@ -112,6 +112,7 @@ public class TileWarehouseStorage extends TileControlled implements IWarehouseSt
 		updateViewersForInventory();
 		if (removed > 0) {
 			markDirty();
+			onStoredQuantityChanged(filter);
 		}
 		return removed;
 	}
@@ -122,10 +123,18 @@ public class TileWarehouseStorage extends TileControlled implements IWarehouseSt
 		updateViewersForInventory();
 		if (inserted > 0) {
 			markDirty();
+			onStoredQuantityChanged(filter);
 		}
 		return inserted;
 	}
 
+	private void onStoredQuantityChanged(ItemStack filter) {
+		TileWarehouseBase twb = (TileWarehouseBase) getController();
+		if (twb != null) {
+			twb.onStoredQuantityChanged(this, filter);
+		}
+	}
+
 	@Override
 	public void readFromNBT(NBTTagCompound tag) {
 		super.readFromNBT(tag);
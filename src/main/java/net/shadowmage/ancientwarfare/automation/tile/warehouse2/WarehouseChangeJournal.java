@@ -0,0 +1,132 @@
+package net.shadowmage.ancientwarfare.automation.tile.warehouse2;
+
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.objects.Object2LongMap;
+import it.unimi.dsi.fastutil.objects.Object2LongOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
+import net.shadowmage.ancientwarfare.core.inventory.ItemQuantityMap.ItemHashEntry;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/*
+ * Records which items of a warehouse changed quantity, stamped with a monotonically increasing version.<br>
+ * Viewers remember the version they last synced and pull only the items changed since then.<br>
+ * Quantities are not journaled, viewers read the current quantity from the warehouse.<br>
+ * Items that are no longer stored are forgotten when the log is compacted, viewers synced before their removal are
+ * sent to a full resync instead.
+ */
+public class WarehouseChangeJournal {
+
+	private static final int MIN_COMPACT_SIZE = 256;
+
+	private long version = 0;
+	private long resetVersion = 0;
+
+	private final Object2LongOpenHashMap<ItemHashEntry> lastChanged = new Object2LongOpenHashMap<>();
+	private final ObjectOpenHashSet<ItemHashEntry> removed = new ObjectOpenHashSet<>();
+	private final List<ItemHashEntry> log = new ArrayList<>();
+	private final LongArrayList logVersions = new LongArrayList();
+
+	public long getVersion() {
+		return version;
+	}
+
+	/*
+	 * Viewers synced before this version have to do a full resync as the journal no longer knows what changed
+	 */
+	public long getResetVersion() {
+		return resetVersion;
+	}
+
+	public void recordChange(ItemHashEntry entry) {
+		removed.remove(entry);
+		record(entry);
+	}
+
+	/*
+	 * Records the change of an item whose stored quantity dropped to 0
+	 */
+	public void recordRemoval(ItemHashEntry entry) {
+		removed.add(entry);
+		record(entry);
+	}
+
+	private void record(ItemHashEntry entry) {
+		version++;
+		lastChanged.put(entry, version);
+		log.add(entry);
+		logVersions.add(version);
+		if (log.size() > Math.max(MIN_COMPACT_SIZE, lastChanged.size() * 2)) {
+			compact();
+		}
+	}
+
+	public void recordChanges(Collection<ItemHashEntry> entries) {
+		for (ItemHashEntry entry : entries) {
+			recordChange(entry);
+		}
+	}
+
+	/*
+	 * Called when the whole item cache is rebuilt, forces all viewers to resync from scratch
+	 */
+	public void reset() {
+		version++;
+		resetVersion = version;
+		lastChanged.clear();
+		removed.clear();
+		log.clear();
+		logVersions.clear();
+	}
+
+	public boolean hasChangedSince(ItemHashEntry entry, long since) {
+		return since < resetVersion || lastChanged.getLong(entry) > since;
+	}
+
+	/*
+	 * Adds each item changed after the given version exactly once to the output, in order of their last change.<br>
+	 * Callers must check {@link #getResetVersion()} first, changes from before the last reset are not returned.
+	 */
+	public void getChangesSince(long since, Collection<ItemHashEntry> out) {
+		for (int i = firstIndexAfter(since); i < log.size(); i++) {
+			ItemHashEntry entry = log.get(i);
+			if (lastChanged.getLong(entry) == logVersions.getLong(i)) {//only the latest log line of an item is reported
+				out.add(entry);
+			}
+		}
+	}
+
+	private int firstIndexAfter(long since) {
+		int low = 0;
+		int high = logVersions.size();
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (logVersions.getLong(mid) <= since) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	/*
+	 * Drops superseded log lines, keeping only the latest change of each item, and forgets removed items
+	 */
+	private void compact() {
+		for (ItemHashEntry entry : removed) {
+			resetVersion = Math.max(resetVersion, lastChanged.removeLong(entry));
+		}
+		removed.clear();
+		List<Object2LongMap.Entry<ItemHashEntry>> latest = new ArrayList<>(lastChanged.object2LongEntrySet());
+		latest.sort((a, b) -> Long.compare(a.getLongValue(), b.getLongValue()));
+		log.clear();
+		logVersions.clear();
+		for (Object2LongMap.Entry<ItemHashEntry> entry : latest) {
+			log.add(entry.getKey());
+			logVersions.add(entry.getLongValue());
+		}
+	}
+}
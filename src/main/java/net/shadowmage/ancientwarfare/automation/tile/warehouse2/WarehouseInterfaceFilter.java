@@ -39,7 +39,7 @@ public final class WarehouseInterfaceFilter implements Predicate<ItemStack>, INB
 
 	@Override
 	public int hashCode() {
-		int result = !getFilterItem().isEmpty() ? new ItemQuantityMap.ItemHashEntry(getFilterItem()).hashCode() : 0;
+		int result = !getFilterItem().isEmpty() ? ItemQuantityMap.ItemHashEntry.of(getFilterItem()).hashCode() : 0;
 		return 31 * result + quantity;
 	}
 
@@ -26,7 +26,7 @@ public class WarehouseStorageFilter implements INBTSerializable<NBTTagCompound>
 
 	public void setFilterItem(ItemStack itemStack) {
 		item = itemStack;
-		hashKey = item.isEmpty() ? null : new ItemHashEntry(item);
+		hashKey = item.isEmpty() ? null : ItemHashEntry.of(item);
 	}
 
 	@Override
@@ -1,9 +1,13 @@
 package net.shadowmage.ancientwarfare.automation.tile.warehouse2;
 
 import com.google.common.collect.Lists;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
 import net.minecraft.item.ItemStack;
+import net.shadowmage.ancientwarfare.core.inventory.ItemQuantityMap;
 import net.shadowmage.ancientwarfare.core.inventory.ItemQuantityMap.ItemHashEntry;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -16,12 +20,75 @@ public class WarehouseStorageMap {
 	Set<IWarehouseStorageTile> filteredStorage = new HashSet<>();
 	Map<ItemHashEntry, Set<IWarehouseStorageTile>> storageMap = new HashMap<>();
 
+	/*
+	 * reverse index of which storage tiles hold an item
+	 */
+	private final Map<ItemHashEntry, Set<IWarehouseStorageTile>> itemLocations = new HashMap<>();
+	private final Set<IWarehouseStorageTile> tilesWithSpace = new HashSet<>();
+
 	public final void addStorageTile(IWarehouseStorageTile tile) {
 		addTileFilters(tile, tile.getFilters());
+		ItemQuantityMap items = new ItemQuantityMap();
+		tile.addItems(items);
+		for (Object2IntMap.Entry<ItemHashEntry> entry : items.entrySet()) {
+			setHoldsItem(tile, entry.getKey(), entry.getIntValue() > 0);
+		}
+		updateFreeSpace(tile, ItemStack.EMPTY);
 	}
 
 	public final void removeStorageTile(IWarehouseStorageTile tile) {
 		removeTileFilters(tile, tile.getFilters());
+		ItemQuantityMap items = new ItemQuantityMap();
+		tile.addItems(items);
+		for (ItemHashEntry entry : items.keySet()) {
+			setHoldsItem(tile, entry, false);
+		}
+		tilesWithSpace.remove(tile);
+	}
+
+	/*
+	 * Keeps the location and free capacity indexes current, must be called whenever a storage tile's contents change
+	 */
+	public final void onStoredQuantityChanged(IWarehouseStorageTile tile, ItemStack item) {
+		if (!filteredStorage.contains(tile) && !unfilteredStorage.contains(tile)) {
+			return;
+		}
+		setHoldsItem(tile, ItemHashEntry.of(item), tile.getQuantityStored(item) > 0);
+		updateFreeSpace(tile, item);
+	}
+
+	private void setHoldsItem(IWarehouseStorageTile tile, ItemHashEntry entry, boolean holds) {
+		if (holds) {
+			itemLocations.computeIfAbsent(entry, k -> new HashSet<>()).add(tile);
+			return;
+		}
+		Set<IWarehouseStorageTile> locations = itemLocations.get(entry);
+		if (locations != null) {
+			locations.remove(tile);
+			if (locations.isEmpty()) {
+				itemLocations.remove(entry);
+			}
+		}
+	}
+
+	private void updateFreeSpace(IWarehouseStorageTile tile, ItemStack item) {
+		if (tile.getAvailableSpaceFor(item) > 0) {
+			tilesWithSpace.add(tile);
+		} else {
+			tilesWithSpace.remove(tile);
+		}
+	}
+
+	/*
+	 * @return the storage tiles that currently hold the item, for extraction
+	 */
+	public final List<IWarehouseStorageTile> getLocations(ItemStack item) {
+		ItemHashEntry key = ItemHashEntry.getIfPresent(item);
+		Set<IWarehouseStorageTile> locations = key == null ? null : itemLocations.get(key);
+		if (locations == null) {
+			return Collections.emptyList();
+		}
+		return new ArrayList<>(locations);
 	}
 
 	public final void updateTileFilters(IWarehouseStorageTile tile, List<WarehouseStorageFilter> oldFilters, List<WarehouseStorageFilter> newFilters) {
@@ -30,7 +97,7 @@ public class WarehouseStorageMap {
 	}
 
 	public final Set<IWarehouseStorageTile> getFilterSetFor(ItemStack filter) {
-		return getOrCreateStorageSet(new ItemHashEntry(filter));
+		return getOrCreateStorageSet(ItemHashEntry.of(filter));
 	}
 
 	public final Set<IWarehouseStorageTile> getUnFilteredSet() {
@@ -46,16 +113,37 @@ public class WarehouseStorageMap {
 		return out;
 	}
 
+	/*
+	 * @return the storage tiles with free space that may accept the item, tiles filtered for the item first
+	 */
 	public final List<IWarehouseStorageTile> getDestinations(ItemStack filter) {
 		List<IWarehouseStorageTile> out = Lists.newArrayList();
-		ItemHashEntry key = new ItemHashEntry(filter);
-		Set<IWarehouseStorageTile> set = getOrCreateStorageSet(key);
-		out.addAll(set);
-		out.addAll(unfilteredStorage);
+		ItemHashEntry key = ItemHashEntry.getIfPresent(filter);
+		Set<IWarehouseStorageTile> set = key == null ? null : storageMap.get(key);
+		if (set != null) {
+			addTilesWithSpace(set, out);
+		}
+		addTilesWithSpace(unfilteredStorage, out);
 
 		return out;
 	}
 
+	private void addTilesWithSpace(Set<IWarehouseStorageTile> tiles, List<IWarehouseStorageTile> out) {
+		if (tiles.size() <= tilesWithSpace.size()) {
+			for (IWarehouseStorageTile tile : tiles) {
+				if (tilesWithSpace.contains(tile)) {
+					out.add(tile);
+				}
+			}
+		} else {
+			for (IWarehouseStorageTile tile : tilesWithSpace) {
+				if (tiles.contains(tile)) {
+					out.add(tile);
+				}
+			}
+		}
+	}
+
 	private Set<IWarehouseStorageTile> getOrCreateStorageSet(ItemHashEntry key) {
 		Set<IWarehouseStorageTile> set = storageMap.computeIfAbsent(key, k -> new HashSet<>());
 		return set;
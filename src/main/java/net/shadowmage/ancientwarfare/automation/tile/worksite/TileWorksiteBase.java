@@ -9,7 +9,6 @@ import net.minecraft.nbt.NBTTagIntArray;
 import net.minecraft.nbt.NBTTagList;
 import net.minecraft.scoreboard.Team;
 import net.minecraft.util.EnumFacing;
-import net.minecraft.util.ITickable;
 import net.minecraftforge.fml.common.Optional;
 import net.shadowmage.ancientwarfare.automation.config.AWAutomationStatics;
 import net.shadowmage.ancientwarfare.automation.item.ItemWorksiteUpgrade;
@@ -22,6 +21,7 @@ import net.shadowmage.ancientwarfare.core.interfaces.IWorker;
 import net.shadowmage.ancientwarfare.core.owner.IOwnable;
 import net.shadowmage.ancientwarfare.core.owner.Owner;
 import net.shadowmage.ancientwarfare.core.tile.TileUpdatable;
+import net.shadowmage.ancientwarfare.core.tile.WorksiteRegistry;
 import net.shadowmage.ancientwarfare.core.upgrade.WorksiteUpgrade;
 import net.shadowmage.ancientwarfare.core.util.BlockTools;
 import net.shadowmage.ancientwarfare.core.util.InventoryTools;
@@ -34,7 +34,7 @@ import java.util.Set;
 @Optional.Interface(iface = "cofh.redstoneflux.api.IEnergyProvider", modid = "redstoneflux", striprefs = true)
 @Optional.Interface(iface = "cofh.redstoneflux.api.IEnergyReceiver", modid = "redstoneflux", striprefs = true)
 public abstract class TileWorksiteBase extends TileUpdatable
-		implements ITickable, IWorkSite, IInteractableTile, IOwnable, IRotatableTile, IEnergyProvider, IEnergyReceiver {
+		implements IWorkSite, IInteractableTile, IOwnable, IRotatableTile, IEnergyProvider, IEnergyReceiver {
 	private static final String UPGRADES_TAG = "upgrades";
 	private static final String ORIENTATION_TAG = "orientation";
 
@@ -48,7 +48,9 @@ public abstract class TileWorksiteBase extends TileUpdatable
 
 	private final TorqueCell torqueCell;
 
-	private int workRetryDelay = 20;
+	private static final int WORK_RETRY_DELAY = 20;
+
+	private int workRetryDelay = WORK_RETRY_DELAY;
 
 	public TileWorksiteBase() {
 		torqueCell = new TorqueCell(32, 0, AWCoreStatics.energyPerWorkUnit * 3, 1);
@@ -140,24 +142,37 @@ public abstract class TileWorksiteBase extends TileUpdatable
 
 	protected abstract void updateWorksite();
 
-	@Override
-	public final void update() {
-		if (!hasWorld() || world.isRemote || world.getStrongPower(pos) != 0) {
-			return;
+	/*
+	 * Worksites that still have internal work to do in {@link #updateWorksite()} (e.g. queued scans) override this to stay awake
+	 */
+	protected boolean hasPendingUpdates() {
+		return false;
+	}
+
+	/*
+	 * Called by the {@link WorksiteTickScheduler} every tick while the worksite is awake
+	 *
+	 * @return how many ticks the worksite may sleep before it has to be ticked again, 0 to stay awake
+	 */
+	final int tickWorksite() {
+		if (world.getStrongPower(pos) != 0) {
+			return AWAutomationStatics.worksiteIdleWakeTicks;//the block wakes the worksite up when the redstone signal changes
 		}
+		boolean attempted = false;
+		boolean worked = false;
 		if (workRetryDelay > 0) {
 			workRetryDelay--;
 		} else {
 			world.profiler.startSection("Check For Work");
-			double ePerUse = IWorkSite.WorksiteImplementation.getEnergyPerActivation(efficiencyBonusFactor);
-			boolean hasWork = getTorqueStored(null) >= ePerUse && hasWorksiteWork();
-			if (hasWork) {
+			if (canProcessWork()) {
+				attempted = true;
 				world.profiler.endStartSection("Process Work");
 				if (processWork()) {
-					torqueCell.setEnergy(torqueCell.getEnergy() - ePerUse);
+					torqueCell.setEnergy(torqueCell.getEnergy() - getEnergyPerActivation());
 					markDirty();
+					worked = true;
 				} else {
-					workRetryDelay = 20;
+					workRetryDelay = WORK_RETRY_DELAY;
 				}
 			}
 			world.profiler.endSection();
@@ -165,6 +180,65 @@ public abstract class TileWorksiteBase extends TileUpdatable
 		world.profiler.startSection("WorksiteBaseUpdate");
 		updateWorksite();
 		world.profiler.endSection();
+		if (worked || hasPendingUpdates() || (!attempted && canProcessWork())) {
+			return 0;
+		}
+		return Math.max(1, AWAutomationStatics.worksiteIdleWakeTicks);
+	}
+
+	private boolean canProcessWork() {
+		return getTorqueStored(null) >= getEnergyPerActivation() && hasWorksiteWork();
+	}
+
+	private double getEnergyPerActivation() {
+		return IWorkSite.WorksiteImplementation.getEnergyPerActivation(efficiencyBonusFactor);
+	}
+
+	/*
+	 * Wakes the worksite up if it is sleeping, to be called whenever something changed that may give it work
+	 */
+	public final void wakeUp() {
+		if (hasWorld() && !world.isRemote) {
+			WorksiteTickScheduler.INSTANCE.wakeUp(this);
+		}
+	}
+
+	final void onWokenUp() {
+		workRetryDelay = 0;//something changed, so retry right away
+	}
+
+	@Override
+	public void onLoad() {
+		super.onLoad();
+		if (!world.isRemote) {
+			WorksiteTickScheduler.INSTANCE.add(this);
+			WorksiteRegistry.INSTANCE.add(this);
+		}
+	}
+
+	@Override
+	public void invalidate() {
+		super.invalidate();
+		removeFromSchedulers();
+	}
+
+	@Override
+	public void onChunkUnload() {
+		super.onChunkUnload();
+		removeFromSchedulers();
+	}
+
+	private void removeFromSchedulers() {
+		if (hasWorld() && !world.isRemote) {
+			WorksiteTickScheduler.INSTANCE.remove(this);
+			WorksiteRegistry.INSTANCE.remove(this);
+		}
+	}
+
+	@Override
+	public void markDirty() {
+		super.markDirty();
+		wakeUp();
 	}
 
 	private void updateEfficiency() {
@@ -241,7 +315,13 @@ public abstract class TileWorksiteBase extends TileUpdatable
 
 	@Override
 	public final double addTorque(@Nullable EnumFacing from, double energy) {
-		return torqueCell.addEnergy(energy);
+		double ePerUse = getEnergyPerActivation();
+		boolean couldWork = torqueCell.getEnergy() >= ePerUse;
+		double added = torqueCell.addEnergy(energy);
+		if (!couldWork && torqueCell.getEnergy() >= ePerUse) {
+			wakeUp();
+		}
+		return added;
 	}
 
 	@Override
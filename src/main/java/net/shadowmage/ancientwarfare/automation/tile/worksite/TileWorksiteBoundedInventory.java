@@ -37,7 +37,12 @@ public abstract class TileWorksiteBoundedInventory extends TileWorksiteBounded {
 
 	public TileWorksiteBoundedInventory() {
 		initSideMappings();
-		mainInventory = new ItemStackHandler(MAIN_INVENTORY_SIZE);
+		mainInventory = new ItemStackHandler(MAIN_INVENTORY_SIZE) {
+			@Override
+			protected void onContentsChanged(int slot) {
+				markDirty();
+			}
+		};
 		setSideInventory(RelativeSide.TOP, mainInventory, RelativeSide.BOTTOM);
 	}
 
@@ -14,6 +14,7 @@ import net.minecraft.util.NonNullList;
 import net.minecraft.util.math.BlockPos;
 import net.minecraftforge.common.IPlantable;
 import net.minecraftforge.items.ItemStackHandler;
+import net.shadowmage.ancientwarfare.automation.config.AWAutomationStatics;
 import net.shadowmage.ancientwarfare.core.block.BlockRotationHandler.RelativeSide;
 import net.shadowmage.ancientwarfare.core.entity.AWFakePlayer;
 import net.shadowmage.ancientwarfare.core.util.BlockTools;
@@ -23,18 +24,26 @@ import net.shadowmage.ancientwarfare.core.util.InventoryTools;
 import javax.annotation.Nonnull;
 import java.util.Collection;
 import java.util.Iterator;
-import java.util.LinkedList;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.Queue;
+import java.util.Set;
 
 public abstract class TileWorksiteFarm extends TileWorksiteBoundedInventory {
 	private static final int PLANTABLE_INVENTORY_SIZE = 3;
 	private static final int SIZE = 16;
 	public static final int DEFAULT_MISC_INVENTORY_SIZE = 3;
 	private byte[] targetMap = new byte[SIZE * SIZE];
-	private final Queue<BlockPos> blocksToUpdate = new LinkedList<>();
+	private final Set<BlockPos> blocksToUpdate = new LinkedHashSet<>();
+	/*
+	 * bounds the farm is registered with in the scan scheduler, null while not registered
+	 */
+	private BlockPos scanBoundsMin;
+	private BlockPos scanBoundsMax;
+	private boolean fullScanNeeded = true;
+	private long nextFullScanTime;
+	private long nextPickupTime;
 	public final ItemStackHandler plantableInventory;
 	public final ItemStackHandler miscInventory;
 	protected int plantableCount;
@@ -53,6 +62,7 @@ public abstract class TileWorksiteFarm extends TileWorksiteBoundedInventory {
 			@Override
 			protected void onContentsChanged(int slot) {
 				shouldCountResources = true;
+				markDirty();
 			}
 
 			@Nonnull
@@ -65,6 +75,7 @@ public abstract class TileWorksiteFarm extends TileWorksiteBoundedInventory {
 			@Override
 			protected void onContentsChanged(int slot) {
 				shouldCountResources = true;
+				markDirty();
 			}
 
 			@Nonnull
@@ -92,17 +103,96 @@ public abstract class TileWorksiteFarm extends TileWorksiteBoundedInventory {
 	@Override
 	protected final void updateWorksite() {
 		world.profiler.startSection("Incremental Scan");
-		if (blocksToUpdate.isEmpty() && hasWorkBounds()) {
-			fillBlocksToProcess(blocksToUpdate);
-		}
-		if (!blocksToUpdate.isEmpty()) {
-			BlockPos pos = blocksToUpdate.poll();
-			scanBlockPosition(pos);
+		if (hasWorkBounds()) {
+			if (!getWorkBoundsMin().equals(scanBoundsMin) || !getWorkBoundsMax().equals(scanBoundsMax)) {
+				scanBoundsMin = getWorkBoundsMin();
+				scanBoundsMax = getWorkBoundsMax();
+				WorksiteScanScheduler.INSTANCE.register(this);
+				fullScanNeeded = true;
+			}
+			if (world.getTotalWorldTime() >= nextFullScanTime) {//fallback for changes that are not notified to the scan scheduler
+				fullScanNeeded = true;
+			}
+			if (fullScanNeeded) {
+				fullScanNeeded = false;
+				nextFullScanTime = world.getTotalWorldTime() + AWAutomationStatics.farmFullRescanTicks;
+				fillBlocksToProcess(blocksToUpdate);
+			}
+			scanQueuedBlocks();
 		}
 		world.profiler.endSection();
 		updateBlockWorksite();
 	}
 
+	private void scanQueuedBlocks() {
+		if (blocksToUpdate.isEmpty()) {
+			return;
+		}
+		int budget = WorksiteScanScheduler.INSTANCE.takeScanBudget(world, Math.min(blocksToUpdate.size(), Math.max(1, AWAutomationStatics.farmScanBlocksPerTick)));
+		for (int i = 0; i < budget && !blocksToUpdate.isEmpty(); i++) {
+			BlockPos pos = blocksToUpdate.iterator().next();
+			blocksToUpdate.remove(pos);
+			scanBlockPosition(pos);
+		}
+	}
+
+	/*
+	 * Called by the scan scheduler for changes in the chunks covered by the work bounds, queues the changed target column for a rescan
+	 */
+	void onBlockChanged(BlockPos changed) {
+		if (hasWorkBounds() && changed.getY() >= getWorkBoundsMin().getY() - 1 && isInBounds(changed) && isTarget(changed)) {
+			blocksToUpdate.add(new BlockPos(changed.getX(), getWorkBoundsMin().getY(), changed.getZ()));
+			wakeUp();
+		}
+	}
+
+	/*
+	 * Called by the scan scheduler for chunk sections changed as a whole, queues the target columns of the section for a rescan
+	 */
+	void onSectionChanged(int sectionX, int sectionY, int sectionZ) {
+		if (!hasWorkBounds() || (sectionY << 4) + 15 < getWorkBoundsMin().getY() - 1) {
+			return;
+		}
+		BlockPos min = getWorkBoundsMin();
+		BlockPos max = getWorkBoundsMax();
+		boolean queued = false;
+		for (int x = Math.max(min.getX(), sectionX << 4); x <= Math.min(max.getX(), (sectionX << 4) + 15); x++) {
+			for (int z = Math.max(min.getZ(), sectionZ << 4); z <= Math.min(max.getZ(), (sectionZ << 4) + 15); z++) {
+				if (isTarget(x, z)) {
+					queued |= blocksToUpdate.add(new BlockPos(x, min.getY(), z));
+				}
+			}
+		}
+		if (queued) {
+			wakeUp();
+		}
+	}
+
+	@Override
+	protected boolean hasPendingUpdates() {
+		return !blocksToUpdate.isEmpty() || shouldCountResources;
+	}
+
+	@Override
+	public void invalidate() {
+		super.invalidate();
+		unregisterFromScanScheduler();
+	}
+
+	@Override
+	public void onChunkUnload() {
+		super.onChunkUnload();
+		unregisterFromScanScheduler();
+	}
+
+	private void unregisterFromScanScheduler() {
+		if (hasWorld() && !world.isRemote && scanBoundsMin != null) {
+			WorksiteScanScheduler.INSTANCE.unregister(this);
+			scanBoundsMin = null;
+			scanBoundsMax = null;
+		}
+	}
+
 	@Override
 	public void onBlockBroken() {
 		super.onBlockBroken();
@@ -268,6 +358,8 @@ public abstract class TileWorksiteFarm extends TileWorksiteBoundedInventory {
 		boolean change = !Objects.deepEquals(targetMap, targets);
 		targetMap = targets;
 		if (change) {
+			fullScanNeeded = true;
+			wakeUp();
 			onTargetsAdjusted();
 			markDirty();
 		}
@@ -275,8 +367,9 @@ public abstract class TileWorksiteFarm extends TileWorksiteBoundedInventory {
 
 	private void updateBlockWorksite() {
 		world.profiler.startSection("Items Pickup");
-		if (world.getWorldTime() % 20 == 0) {
+		if (world.getTotalWorldTime() >= nextPickupTime) {//time based as the farm is not ticked while sleeping
 			pickupItems();
+			nextPickupTime = world.getTotalWorldTime() + 20;
 		}
 		world.profiler.endStartSection("Count Resources");
 		if (shouldCountResources) {
@@ -34,7 +34,8 @@ import java.util.List;
 public class WorkSiteAnimalFarm extends TileWorksiteBoundedInventory {
 	private static final int FOOD_INVENTORY_SIZE = 3;
 	private static final int TOOL_INVENTORY_SIZE = 3;
-	private int workerRescanDelay;
+	private long nextRescanTime;
+	private long nextPickupTime;
 	private boolean shouldCountResources;
 
 	public int maxPigCount = 6;
@@ -115,6 +116,11 @@ public class WorkSiteAnimalFarm extends TileWorksiteBoundedInventory {
 		return !entitiesToCull.isEmpty() || (carrotCount > 0 && !pigsToBreed.isEmpty()) || (seedCount > 0 && !chickensToBreed.isEmpty()) || (wheatCount > 0 && (!cowsToBreed.isEmpty() || !sheepToBreed.isEmpty())) || (bucketCount > 0 && cowsToMilk > 0) || (shearsSlot >= 0 && !sheepToShear.isEmpty());
 	}
 
+	@Override
+	protected boolean hasPendingUpdates() {
+		return shouldCountResources;
+	}
+
 	@Override
 	protected void updateWorksite() {
 		world.profiler.startSection("Count Resources");
@@ -123,13 +129,14 @@ public class WorkSiteAnimalFarm extends TileWorksiteBoundedInventory {
 			this.shouldCountResources = false;
 		}
 		world.profiler.endStartSection("Animal Rescan");
-		if (workerRescanDelay-- <= 0) {
+		if (world.getTotalWorldTime() >= nextRescanTime) {//time based as the farm is not ticked while sleeping
 			rescan();
-			workerRescanDelay = 200;
+			nextRescanTime = world.getTotalWorldTime() + 200;
 		}
 		world.profiler.endStartSection("ItemPickup");
-		if (world.getWorldTime() % 128 == 0) {
+		if (world.getTotalWorldTime() >= nextPickupTime) {
 			pickupDrops();
+			nextPickupTime = world.getTotalWorldTime() + 128;
 		}
 		world.profiler.endSection();
 	}
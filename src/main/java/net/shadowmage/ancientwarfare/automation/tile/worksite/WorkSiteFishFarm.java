@@ -23,7 +23,7 @@ public class WorkSiteFishFarm extends TileWorksiteBoundedInventory {
 	private boolean harvestInk = true;
 
 	private int waterBlockCount = 0;
-	private int waterRescanDelay = 0;
+	private long nextWaterRescanTime;
 
 	public WorkSiteFishFarm() {
 		super();
@@ -167,9 +167,9 @@ public class WorkSiteFishFarm extends TileWorksiteBoundedInventory {
 	@Override
 	protected void updateWorksite() {
 		world.profiler.startSection("WaterCount");
-		if (waterRescanDelay-- <= 0) {
+		if (world.getTotalWorldTime() >= nextWaterRescanTime) {//time based as the farm is not ticked while sleeping
 			countWater();
-			waterRescanDelay = 200;
+			nextWaterRescanTime = world.getTotalWorldTime() + 200;
 		}
 		world.profiler.endSection();
 	}
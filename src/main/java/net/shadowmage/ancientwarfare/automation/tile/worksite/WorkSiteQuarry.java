@@ -67,6 +67,12 @@ public final class WorkSiteQuarry extends TileWorksiteBoundedInventory {
 		return getUpgrades().contains(WorksiteUpgrade.QUARRY_LARGE) ? 64 : getUpgrades().contains(WorksiteUpgrade.QUARRY_MEDIUM) ? 32 : 16;
 	}
 
+	@Override
+	protected boolean hasPendingUpdates() {
+		//stay awake while the incremental scan is still looking for the next harvestable block
+		return !hasDoneInit || (!finished && !canHarvest(validate));
+	}
+
 	@Override
 	protected void updateWorksite() {
 		if (!hasDoneInit) {
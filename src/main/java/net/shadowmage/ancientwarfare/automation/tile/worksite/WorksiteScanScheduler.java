@@ -0,0 +1,148 @@
+package net.shadowmage.ancientwarfare.automation.tile.worksite;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.World;
+import net.minecraftforge.event.world.WorldEvent;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent;
+import net.shadowmage.ancientwarfare.automation.config.AWAutomationStatics;
+import net.shadowmage.ancientwarfare.core.util.BlockChangeTracker;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/*
+ * Shares the per tick block scan budget between all farms of a world and routes block changes to the farms whose
+ * work bounds contain the changed block, so that farms only rescan what actually changed.
+ */
+public final class WorksiteScanScheduler implements BlockChangeTracker.IBlockChangeListener {
+
+	public static final WorksiteScanScheduler INSTANCE = new WorksiteScanScheduler();
+
+	private final Map<World, WorldScanData> worldData = new HashMap<>();
+
+	private WorksiteScanScheduler() {
+	}
+
+	/*
+	 * (Re)registers the farm for block changes in the chunks covered by its current work bounds
+	 */
+	void register(TileWorksiteFarm farm) {
+		WorldScanData data = getData(farm.getWorld());
+		data.remove(farm);
+		BlockPos min = farm.getWorkBoundsMin();
+		BlockPos max = farm.getWorkBoundsMax();
+		int minX = min.getX() >> 4;
+		int minZ = min.getZ() >> 4;
+		int maxX = max.getX() >> 4;
+		int maxZ = max.getZ() >> 4;
+		long[] chunks = new long[(maxX - minX + 1) * (maxZ - minZ + 1)];
+		int index = 0;
+		for (int x = minX; x <= maxX; x++) {
+			for (int z = minZ; z <= maxZ; z++) {
+				long chunk = ChunkPos.asLong(x, z);
+				chunks[index++] = chunk;
+				data.farmsByChunk.computeIfAbsent(chunk, k -> new HashSet<>()).add(farm);
+			}
+		}
+		data.chunksByFarm.put(farm, chunks);
+	}
+
+	void unregister(TileWorksiteFarm farm) {
+		WorldScanData data = worldData.get(farm.getWorld());
+		if (data != null) {
+			data.remove(farm);
+		}
+	}
+
+	/*
+	 * @return how many of the requested block scans the farm may do this tick, taken from the budget shared by the world<br>
+	 * Each farm is granted at most an even share of what is left between the farms that still have to ask this tick, going by
+	 * how many farms asked last tick, so farms ticking first can not starve the others. Budget left over by farms that need
+	 * less than their share goes to the farms asking after them.
+	 */
+	int takeScanBudget(World world, int requested) {
+		WorldScanData data = getData(world);
+		data.requestsThisTick++;
+		int farmsLeft = Math.max(1, data.requestsLastTick - data.requestsThisTick + 1);
+		int share = Math.max(1, data.budgetRemaining / farmsLeft);
+		int granted = Math.min(requested, Math.min(share, data.budgetRemaining));
+		data.budgetRemaining -= granted;
+		return granted;
+	}
+
+	@Override
+	public void onBlockChanged(World world, BlockPos pos, IBlockState oldState, IBlockState newState) {
+		WorldScanData data = worldData.get(world);
+		if (data == null) {
+			return;
+		}
+		Set<TileWorksiteFarm> farms = data.farmsByChunk.get(ChunkPos.asLong(pos.getX() >> 4, pos.getZ() >> 4));
+		if (farms != null) {
+			for (TileWorksiteFarm farm : farms) {
+				farm.onBlockChanged(pos);
+			}
+		}
+	}
+
+	@Override
+	public void onSectionChanged(World world, int sectionX, int sectionY, int sectionZ) {
+		WorldScanData data = worldData.get(world);
+		if (data == null) {
+			return;
+		}
+		Set<TileWorksiteFarm> farms = data.farmsByChunk.get(ChunkPos.asLong(sectionX, sectionZ));
+		if (farms != null) {
+			for (TileWorksiteFarm farm : farms) {
+				farm.onSectionChanged(sectionX, sectionY, sectionZ);
+			}
+		}
+	}
+
+	@SubscribeEvent
+	public void onWorldTick(TickEvent.WorldTickEvent evt) {
+		if (evt.phase == TickEvent.Phase.START) {
+			WorldScanData data = worldData.get(evt.world);
+			if (data != null) {
+				data.budgetRemaining = AWAutomationStatics.farmScanBlocksPerTickGlobal;
+				data.requestsLastTick = data.requestsThisTick;
+				data.requestsThisTick = 0;
+			}
+		}
+	}
+
+	@SubscribeEvent
+	public void onWorldUnload(WorldEvent.Unload evt) {
+		worldData.remove(evt.getWorld());
+	}
+
+	private WorldScanData getData(World world) {
+		return worldData.computeIfAbsent(world, w -> new WorldScanData());
+	}
+
+	private static final class WorldScanData {
+		private final Long2ObjectOpenHashMap<Set<TileWorksiteFarm>> farmsByChunk = new Long2ObjectOpenHashMap<>();
+		private final Map<TileWorksiteFarm, long[]> chunksByFarm = new HashMap<>();
+		private int budgetRemaining = AWAutomationStatics.farmScanBlocksPerTickGlobal;
+		private int requestsThisTick = 0;
+		private int requestsLastTick = 0;
+
+		private void remove(TileWorksiteFarm farm) {
+			long[] chunks = chunksByFarm.remove(farm);
+			if (chunks == null) {
+				return;
+			}
+			for (long chunk : chunks) {
+				Set<TileWorksiteFarm> farms = farmsByChunk.get(chunk);
+				if (farms != null && farms.remove(farm) && farms.isEmpty()) {
+					farmsByChunk.remove(chunk);
+				}
+			}
+		}
+	}
+}
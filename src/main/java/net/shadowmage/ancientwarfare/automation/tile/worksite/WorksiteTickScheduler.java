@@ -0,0 +1,111 @@
+package net.shadowmage.ancientwarfare.automation.tile.worksite;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2LongOpenHashMap;
+import net.minecraft.world.World;
+import net.minecraftforge.event.world.WorldEvent;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/*
+ * Ticks the worksites of all server worlds at the end of the world tick instead of having each of them be an ITickable.<br>
+ * Worksites without anything to do are put to sleep and skipped until they are woken up by an event (inventory change,
+ * block change in their work bounds, torque arrival, redstone change) or their fallback wake up tick is reached.
+ */
+public final class WorksiteTickScheduler {
+
+	public static final WorksiteTickScheduler INSTANCE = new WorksiteTickScheduler();
+
+	private final Map<World, WorldTickData> worldData = new HashMap<>();
+
+	private WorksiteTickScheduler() {
+	}
+
+	void add(TileWorksiteBase worksite) {
+		WorldTickData data = worldData.computeIfAbsent(worksite.getWorld(), w -> new WorldTickData());
+		data.sleeping.removeLong(worksite);
+		data.awake.add(worksite);
+	}
+
+	void remove(TileWorksiteBase worksite) {
+		WorldTickData data = worldData.get(worksite.getWorld());
+		if (data != null) {
+			data.awake.remove(worksite);
+			data.sleeping.removeLong(worksite);
+		}
+	}
+
+	void wakeUp(TileWorksiteBase worksite) {
+		WorldTickData data = worldData.get(worksite.getWorld());
+		if (data != null && data.sleeping.containsKey(worksite)) {
+			data.sleeping.removeLong(worksite);
+			data.awake.add(worksite);
+			worksite.onWokenUp();
+		}
+	}
+
+	@SubscribeEvent
+	public void onWorldTick(TickEvent.WorldTickEvent evt) {
+		if (evt.phase != TickEvent.Phase.END) {
+			return;
+		}
+		WorldTickData data = worldData.get(evt.world);
+		if (data != null) {
+			evt.world.profiler.startSection("AWWorksites");
+			data.tick();
+			evt.world.profiler.endSection();
+		}
+	}
+
+	@SubscribeEvent
+	public void onWorldUnload(WorldEvent.Unload evt) {
+		worldData.remove(evt.getWorld());
+	}
+
+	private static final class WorldTickData {
+		private final Set<TileWorksiteBase> awake = new LinkedHashSet<>();
+		private final Object2LongOpenHashMap<TileWorksiteBase> sleeping = new Object2LongOpenHashMap<>();
+		/*
+		 * sleeping worksites by the tick they are woken up at, entries of worksites that were woken up early are skipped
+		 */
+		private final Long2ObjectOpenHashMap<List<TileWorksiteBase>> wakeUps = new Long2ObjectOpenHashMap<>();
+		private final List<TileWorksiteBase> ticking = new ArrayList<>();
+		private long tick;
+
+		private void tick() {
+			tick++;
+			List<TileWorksiteBase> due = wakeUps.remove(tick);
+			if (due != null) {
+				for (TileWorksiteBase worksite : due) {
+					if (sleeping.containsKey(worksite) && sleeping.getLong(worksite) == tick) {
+						sleeping.removeLong(worksite);
+						awake.add(worksite);
+						worksite.onWokenUp();
+					}
+				}
+			}
+
+			ticking.addAll(awake);//worksites may wake up others while being ticked
+			for (TileWorksiteBase worksite : ticking) {
+				if (worksite.isInvalid()) {
+					awake.remove(worksite);
+					continue;
+				}
+				int sleepTicks = worksite.tickWorksite();
+				if (sleepTicks > 0 && awake.remove(worksite)) {
+					long wakeTick = tick + sleepTicks;
+					sleeping.put(worksite, wakeTick);
+					wakeUps.computeIfAbsent(wakeTick, k -> new ArrayList<>()).add(worksite);
+				}
+			}
+			ticking.clear();
+		}
+	}
+}
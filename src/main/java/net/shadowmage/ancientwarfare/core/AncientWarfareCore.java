@@ -39,6 +39,9 @@ import net.shadowmage.ancientwarfare.core.proxy.CommonProxyBase;
 import net.shadowmage.ancientwarfare.core.registry.RegistryLoader;
 import net.shadowmage.ancientwarfare.core.research.ResearchGoal;
 import net.shadowmage.ancientwarfare.core.research.ResearchTracker;
+import net.shadowmage.ancientwarfare.core.tile.WorksiteRegistry;
+import net.shadowmage.ancientwarfare.core.util.BlockChangeTracker;
+import net.shadowmage.ancientwarfare.core.util.EntityIndex;
 import net.shadowmage.ancientwarfare.npc.datafixes.FactionEntityFixer;
 import net.shadowmage.ancientwarfare.npc.datafixes.FactionSpawnerItemFixer;
 
@@ -73,6 +76,9 @@ public class AncientWarfareCore {
 		NetworkHandler.INSTANCE.registerNetwork();//register network handler, server side
 
 		MinecraftForge.EVENT_BUS.register(ResearchTracker.INSTANCE);
+		MinecraftForge.EVENT_BUS.register(BlockChangeTracker.INSTANCE);
+		MinecraftForge.EVENT_BUS.register(EntityIndex.INSTANCE);
+		MinecraftForge.EVENT_BUS.register(WorksiteRegistry.INSTANCE);
 		MinecraftForge.EVENT_BUS.register(this);
 		MinecraftForge.EVENT_BUS.register(this);
 
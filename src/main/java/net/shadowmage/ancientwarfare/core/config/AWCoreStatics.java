@@ -39,6 +39,7 @@ public class AWCoreStatics extends ModConfiguration {
 	public static boolean fireBlockBreakEvents = true;
 	public static boolean includeResearchInChests = true;
 	public static double energyPerWorkUnit = 50D;
+	public static int entitySyncInterval = 1;
 
 	public AWCoreStatics(String modid) {
 		super(modid);
@@ -55,6 +56,10 @@ public class AWCoreStatics extends ModConfiguration {
 		 * server options
          */
 		fireBlockBreakEvents = config.getBoolean("fire_block_break_events", serverOptions, fireBlockBreakEvents, "Fire Block Break Events If set to false, block-break-events will not be posted for _any_ operations\n" + "effectively negating any block-protection mods/mechanims in place on the server.\n" + "If left at true, block-break events will be posted for any automation or vehicles\n" + "which are changing blocks in the world.  Most will use a reference to their owners-name\n" + "for permissions systems.");
+		entitySyncInterval = config.get(serverOptions, "entity_sync_interval", entitySyncInterval, "Entity Sync Interval\nDefault = 1\n" + "How many ticks changed gate and npc values (health, owner, target...) are collected before they are sent to clients.\n" + "Higher values lower the number of packets sent at the cost of slower client updates.").getInt();
+		if (entitySyncInterval < 1) {
+			entitySyncInterval = 1;
+		}
 		includeResearchInChests = config.getBoolean("include_research_in_chests", serverOptions, includeResearchInChests, "Include Research In Dungeon Loot Chests\n" + "If set to true, Research Note items will be added to dungeon-chest loot tables.\n" + "If set to false, no research will be added.\n" + "This is the global setting.  Individual research may be toggled in the Research\n" + "section of the config file.");
 		energyPerWorkUnit = config.get(serverOptions, "energy_per_work_unit", energyPerWorkUnit, "Energy Per Work Unit\nDefault = 50\n" + "How much Torque energy is generated per worker work tick.\n" + "This is the base number and is further adjusted per worker by worker effectiveness.\n" + "Setting to 0 or below effectively disables  workers.").getDouble();
 
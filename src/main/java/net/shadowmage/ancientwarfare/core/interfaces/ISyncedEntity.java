@@ -0,0 +1,13 @@
+package net.shadowmage.ancientwarfare.core.interfaces;
+
+import net.shadowmage.ancientwarfare.core.network.EntitySyncData;
+
+/*
+ * entity with fields that are kept in sync with the tracking clients,
+ * the entity should call update on its sync data every server tick
+ */
+public interface ISyncedEntity {
+
+	public EntitySyncData getSyncData();
+
+}
@@ -1,5 +1,9 @@
 package net.shadowmage.ancientwarfare.core.inventory;
 
+import com.google.common.collect.MapMaker;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.nbt.NBTTagList;
@@ -8,24 +12,20 @@ import net.minecraftforge.common.util.Constants;
 import net.shadowmage.ancientwarfare.core.AncientWarfareCore;
 
 import javax.annotation.Nonnull;
-import java.util.HashMap;
-import java.util.Map;
+import javax.annotation.Nullable;
 import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
 
 public class ItemQuantityMap {
 
-	private final Map<ItemHashEntry, Integer> map = new HashMap<>();
+	private final Object2IntOpenHashMap<ItemHashEntry> map = new Object2IntOpenHashMap<>();
 
 	/*
 	 * is not a PUT operation -- merges quantities (values) instead of overwriting
 	 */
 	public void addAll(ItemQuantityMap incoming) {
-		for (ItemHashEntry entry : incoming.map.keySet()) {
-			if (map.containsKey(entry)) {
-				map.put(entry, map.get(entry) + incoming.getCount(entry));
-			} else {
-				map.put(entry, incoming.map.get(entry));
-			}
+		for (Object2IntMap.Entry<ItemHashEntry> entry : incoming.map.object2IntEntrySet()) {
+			map.addTo(entry.getKey(), entry.getIntValue());
 		}
 	}
 
@@ -33,61 +33,54 @@ public class ItemQuantityMap {
 	 * removes given counts of items from this map, if the resulting count is 0 removes that entry as well.
 	 */
 	public void removeAll(ItemQuantityMap toRemove) {
-		for (ItemHashEntry entry : toRemove.map.keySet()) {
-			int currentCount = map.get(entry);
-			int countToRemove = toRemove.map.get(entry);
-
-			if (countToRemove >= currentCount) {
-				remove(entry);
-			} else {
-				map.put(entry, currentCount - countToRemove);
-			}
+		for (Object2IntMap.Entry<ItemHashEntry> entry : toRemove.map.object2IntEntrySet()) {
+			decreaseCount(entry.getKey(), entry.getIntValue());
 		}
 	}
 
 	public int getCount(ItemHashEntry entry) {
-		if (map.containsKey(entry)) {
-			return map.get(entry);
-		}
-		return 0;
+		return map.getInt(entry);
 	}
 
 	public int getCount(ItemStack item) {
-		return getCount(new ItemHashEntry(item));
+		ItemHashEntry entry = ItemHashEntry.getIfPresent(item);
+		return entry == null ? 0 : getCount(entry);
 	}
 
 	public void addCount(ItemStack item, int count) {
-		addCount(new ItemHashEntry(item), count);
+		addCount(ItemHashEntry.of(item), count);
 	}
 
-	private void addCount(ItemHashEntry entry, int count) {
-		if (!map.containsKey(entry)) {
-			map.put(entry, count);
-		} else
-			map.put(entry, map.get(entry) + count);
+	public void addCount(ItemHashEntry entry, int count) {
+		map.addTo(entry, count);
 	}
 
 	public void decreaseCount(ItemStack item, int count) {
-		decreaseCount(new ItemHashEntry(item), count);
+		ItemHashEntry entry = ItemHashEntry.getIfPresent(item);
+		if (entry != null) {
+			decreaseCount(entry, count);
+		}
 	}
 
-	private void decreaseCount(ItemHashEntry entry, int count) {
-		if (map.containsKey(entry)) {
-			int itemCount = map.get(entry) - count;
-			if (itemCount <= 0) {
-				map.remove(entry);
-			} else {
-				map.put(entry, itemCount);
-			}
+	public void decreaseCount(ItemHashEntry entry, int count) {
+		int itemCount = map.getInt(entry);
+		if (itemCount == 0) {
+			return;
+		}
+		itemCount -= count;
+		if (itemCount <= 0) {
+			map.removeInt(entry);
+		} else {
+			map.put(entry, itemCount);
 		}
 	}
 
 	public void remove(ItemHashEntry entry) {
-		map.remove(entry);
+		map.removeInt(entry);
 	}
 
 	public void put(ItemStack item, int count) {
-		put(new ItemHashEntry(item), count);
+		put(ItemHashEntry.of(item), count);
 	}
 
 	public void put(ItemHashEntry wrap, int count) {
@@ -102,12 +95,17 @@ public class ItemQuantityMap {
 		return map.keySet();
 	}
 
+	public Set<Object2IntMap.Entry<ItemHashEntry>> entrySet() {
+		return map.object2IntEntrySet();
+	}
+
 	public boolean contains(ItemHashEntry entry) {
 		return map.containsKey(entry);
 	}
 
 	public boolean contains(ItemStack item) {
-		return contains(new ItemHashEntry(item));
+		ItemHashEntry entry = ItemHashEntry.getIfPresent(item);
+		return entry != null && contains(entry);
 	}
 
 	/*
@@ -118,8 +116,8 @@ public class ItemQuantityMap {
 		NonNullList<ItemStack> items = NonNullList.create();
 		@Nonnull ItemStack outStack;
 		int qty;
-		for (Map.Entry<ItemHashEntry, Integer> entry : map.entrySet()) {
-			qty = entry.getValue();
+		for (Object2IntMap.Entry<ItemHashEntry> entry : map.object2IntEntrySet()) {
+			qty = entry.getIntValue();
 			while (qty > 0) {
 				outStack = entry.getKey().getItemStack().copy();
 				outStack.setCount(qty > outStack.getMaxStackSize() ? outStack.getMaxStackSize() : qty);
@@ -140,11 +138,12 @@ public class ItemQuantityMap {
 
 	public void putEntryFromNBT(NBTTagCompound entryTag) {
 		NBTTagCompound itemTag = entryTag.getCompoundTag("item");
-		ItemHashEntry entry = ItemHashEntry.readFromNBT(itemTag);
-		if (!entry.getItemStack().isEmpty()) {
+		ItemStack stack = new ItemStack(itemTag);
+		if (!stack.isEmpty()) {
+			ItemHashEntry entry = ItemHashEntry.of(stack);
 			int qty = entryTag.getInteger("quantity");
 			if (qty == 0) { // when deserializing from NBT just remove all entries with 0
-				map.remove(entry);
+				map.removeInt(entry);
 			} else {
 				map.put(entry, qty);
 			}
@@ -170,60 +169,115 @@ public class ItemQuantityMap {
 	}
 
 	public int getTotalItemCount() {
-		return map.values().stream().mapToInt(i -> i).sum();
+		int total = 0;
+		for (Object2IntMap.Entry<ItemHashEntry> entry : map.object2IntEntrySet()) {
+			total += entry.getIntValue();
+		}
+		return total;
 	}
 
 	/*
-	 * Lightweight wrapper for an item stack as a hashable object suitable for use as keys in maps.<br>
-	 * Uses item, item damage, and nbt-tag for hash-code.<br>
+	 * Canonical, interned key for an item stack suitable for use as keys in maps.<br>
+	 * Uses item, item damage, nbt-tag and forge capabilities for equivalence, the hash is computed once on interning.<br>
+	 * There is only ever one live instance per distinct item so equality is identity.<br>
 	 * Ignores quantity.<br>
 	 * Immutable.
 	 *
 	 * @author Shadowmage
 	 */
 	public static final class ItemHashEntry {
-		private final NBTTagCompound itemTag;
-		private ItemStack cacheStack = ItemStack.EMPTY;
+		/*
+		 * weak values so that keys for items no longer referenced by any map are dropped with their entry
+		 */
+		private static final ConcurrentMap<ItemKey, ItemHashEntry> INTERNED = new MapMaker().weakValues().makeMap();
+
+		private final ItemStack stack;
+		private final int hash;
+
+		private ItemHashEntry(ItemStack stack, int hash) {
+			this.stack = stack;
+			this.hash = hash;
+		}
 
 		/*
 		 * @param item MUST NOT BE NULL
+		 * @return the canonical key for the item, creating it if this is the first time the item is seen
 		 */
-		public ItemHashEntry(ItemStack item) {
+		public static ItemHashEntry of(ItemStack item) {
+			ItemHashEntry entry = INTERNED.get(new ItemKey(item));
+			if (entry != null) {
+				return entry;
+			}
 			ItemStack copy = item.copy();
 			copy.setCount(1);
-			itemTag = copy.writeToNBT(new NBTTagCompound());
+			ItemKey key = new ItemKey(copy);
+			entry = new ItemHashEntry(copy, key.hash);
+			ItemHashEntry existing = INTERNED.putIfAbsent(key, entry);
+			return existing != null ? existing : entry;
+		}
+
+		/*
+		 * Lookup only variant of {@link #of(ItemStack)} for read paths, does not allocate a canonical key for unknown items
+		 */
+		@Nullable
+		public static ItemHashEntry getIfPresent(ItemStack item) {
+			return INTERNED.get(new ItemKey(item));
 		}
 
 		@Override
 		public int hashCode() {
-			return itemTag.hashCode();
+			return hash;
 		}
 
 		@Override
 		public boolean equals(Object obj) {
-			if (obj == this) {
-				return true;
-			}
-			//noinspection SimplifiableIfStatement
-			if (!(obj instanceof ItemHashEntry)) {
-				return false;
-			}
-			return itemTag.equals(((ItemHashEntry) obj).itemTag);
+			return obj == this;
 		}
 
+		/*
+		 * @return the canonical stack of size 1, MUST NOT BE MODIFIED - copy it before handing it out
+		 */
 		public ItemStack getItemStack() {
-			if (cacheStack.isEmpty()) {
-				cacheStack = new ItemStack(itemTag);
-			}
-			return cacheStack;
+			return stack;
 		}
 
 		private NBTTagCompound writeToNBT() {
-			return itemTag.copy();
+			return stack.writeToNBT(new NBTTagCompound());
+		}
+	}
+
+	/*
+	 * Equivalence view over a stack used to look up the interned entry without serializing the stack to NBT
+	 */
+	private static final class ItemKey {
+		private final ItemStack stack;
+		private final Item item;
+		private final int meta;
+		private final int hash;
+
+		private ItemKey(ItemStack stack) {
+			this.stack = stack;
+			item = stack.getItem();
+			meta = stack.getItemDamage();
+			NBTTagCompound tag = stack.getTagCompound();
+			hash = 31 * (31 * System.identityHashCode(item) + meta) + (tag == null ? 0 : tag.hashCode());
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
 		}
 
-		private static ItemHashEntry readFromNBT(NBTTagCompound tag) {
-			return new ItemHashEntry(new ItemStack(tag));
+		@Override
+		public boolean equals(Object obj) {
+			if (obj == this) {
+				return true;
+			}
+			if (!(obj instanceof ItemKey)) {
+				return false;
+			}
+			ItemKey other = (ItemKey) obj;
+			return hash == other.hash && item == other.item && meta == other.meta && ItemStack.areItemStackTagsEqual(stack, other.stack);
 		}
 	}
 }
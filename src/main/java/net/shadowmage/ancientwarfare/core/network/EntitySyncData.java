@@ -0,0 +1,268 @@
+package net.shadowmage.ancientwarfare.core.network;
+
+import io.netty.buffer.ByteBuf;
+import net.minecraft.entity.Entity;
+import net.minecraft.util.math.BlockPos;
+import net.minecraftforge.fml.common.network.ByteBufUtils;
+import net.shadowmage.ancientwarfare.core.config.AWCoreStatics;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/*
+ * Typed fields of an entity that are kept in sync with the clients tracking it.<br>
+ * An entity declares its fields once on construction (so in the same order on both sides). Setting a field on the server
+ * marks it dirty if the value changed, and {@link #update(Entity)} sends the dirty fields in one binary packet every
+ * entitySyncInterval ticks. Clients set the values and call the change listener of each field.<br>
+ * Values that are needed when a client starts tracking the entity still have to be sent with the spawn data.
+ */
+public final class EntitySyncData {
+
+	private static final int MAX_FIELDS = 64;
+
+	private final List<SyncedField> fields = new ArrayList<>();
+	private long dirtyFields = 0;
+
+	public IntField addInt(int value, @Nullable IntChangeListener listener) {
+		return add(new IntField(this, fields.size(), value, listener));
+	}
+
+	public FloatField addFloat(float value, @Nullable FloatChangeListener listener) {
+		return add(new FloatField(this, fields.size(), value, listener));
+	}
+
+	public <E extends Enum<E>> ObjectField<E> addEnum(Class<E> type, E value, @Nullable ChangeListener<E> listener) {
+		E[] values = type.getEnumConstants();
+		return add(new ObjectField<>(this, fields.size(), value, listener, (data, v) -> ByteBufUtils.writeVarInt(data, v.ordinal(), 5),
+				data -> values[ByteBufUtils.readVarInt(data, 5)]));
+	}
+
+	public ObjectField<BlockPos> addBlockPos(BlockPos value, @Nullable ChangeListener<BlockPos> listener) {
+		return add(new ObjectField<>(this, fields.size(), value, listener, (data, v) -> data.writeLong(v.toLong()), data -> BlockPos.fromLong(data.readLong())));
+	}
+
+	public ObjectField<UUID> addUUID(UUID value, @Nullable ChangeListener<UUID> listener) {
+		return add(new ObjectField<>(this, fields.size(), value, listener, (data, v) -> {
+			data.writeLong(v.getMostSignificantBits());
+			data.writeLong(v.getLeastSignificantBits());
+		}, data -> new UUID(data.readLong(), data.readLong())));
+	}
+
+	public ObjectField<String> addString(String value, @Nullable ChangeListener<String> listener) {
+		return add(new ObjectField<>(this, fields.size(), value, listener, ByteBufUtils::writeUTF8String, ByteBufUtils::readUTF8String));
+	}
+
+	/*
+	 * Field of a type that knows how to write itself to a buffer, e.g. an Owner
+	 */
+	public <T> ObjectField<T> addObject(T value, @Nullable ChangeListener<T> listener, BiConsumer<ByteBuf, T> writer, Function<ByteBuf, T> reader) {
+		return add(new ObjectField<>(this, fields.size(), value, listener, writer, reader));
+	}
+
+	private <F extends SyncedField> F add(F field) {
+		if (fields.size() >= MAX_FIELDS) {
+			throw new IllegalStateException("Entities can not sync more than " + MAX_FIELDS + " fields");
+		}
+		fields.add(field);
+		return field;
+	}
+
+	/*
+	 * To be called every server tick of the entity, sends the fields changed since the last sync to the tracking clients
+	 */
+	public void update(Entity entity) {
+		if (dirtyFields != 0 && !entity.world.isRemote && entity.ticksExisted % AWCoreStatics.entitySyncInterval == 0) {
+			NetworkHandler.sendToAllTracking(entity, new PacketEntitySync(entity, this));
+			dirtyFields = 0;
+		}
+	}
+
+	long getDirtyFields() {
+		return dirtyFields;
+	}
+
+	void write(ByteBuf data, long mask) {
+		writeVarLong(data, mask);
+		for (int i = 0; i < fields.size(); i++) {
+			if ((mask & 1L << i) != 0) {
+				fields.get(i).write(data);
+			}
+		}
+	}
+
+	void read(ByteBuf data) {
+		long mask = readVarLong(data);
+		for (int i = 0; i < fields.size(); i++) {
+			if ((mask & 1L << i) != 0) {
+				fields.get(i).read(data);
+			}
+		}
+	}
+
+	private static void writeVarLong(ByteBuf data, long value) {
+		while ((value & ~0x7FL) != 0) {
+			data.writeByte((int) (value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		data.writeByte((int) value);
+	}
+
+	private static long readVarLong(ByteBuf data) {
+		long value = 0;
+		int shift = 0;
+		byte b;
+		do {
+			b = data.readByte();
+			value |= (long) (b & 0x7F) << shift;
+			shift += 7;
+		} while ((b & 0x80) != 0);
+		return value;
+	}
+
+	public interface IntChangeListener {
+		void onChanged(int oldValue, int newValue);
+	}
+
+	public interface FloatChangeListener {
+		void onChanged(float oldValue, float newValue);
+	}
+
+	public interface ChangeListener<T> {
+		void onChanged(T oldValue, T newValue);
+	}
+
+	public abstract static class SyncedField {
+		private final EntitySyncData owner;
+		private final int index;
+
+		private SyncedField(EntitySyncData owner, int index) {
+			this.owner = owner;
+			this.index = index;
+		}
+
+		protected final void markDirty() {
+			owner.dirtyFields |= 1L << index;
+		}
+
+		protected abstract void write(ByteBuf data);
+
+		protected abstract void read(ByteBuf data);
+	}
+
+	public static final class IntField extends SyncedField {
+		private final IntChangeListener listener;
+		private int value;
+
+		private IntField(EntitySyncData owner, int index, int value, @Nullable IntChangeListener listener) {
+			super(owner, index);
+			this.value = value;
+			this.listener = listener;
+		}
+
+		public int get() {
+			return value;
+		}
+
+		public void set(int value) {
+			if (this.value != value) {
+				this.value = value;
+				markDirty();
+			}
+		}
+
+		@Override
+		protected void write(ByteBuf data) {
+			data.writeInt(value);
+		}
+
+		@Override
+		protected void read(ByteBuf data) {
+			int oldValue = value;
+			value = data.readInt();
+			if (listener != null) {
+				listener.onChanged(oldValue, value);
+			}
+		}
+	}
+
+	public static final class FloatField extends SyncedField {
+		private final FloatChangeListener listener;
+		private float value;
+
+		private FloatField(EntitySyncData owner, int index, float value, @Nullable FloatChangeListener listener) {
+			super(owner, index);
+			this.value = value;
+			this.listener = listener;
+		}
+
+		public float get() {
+			return value;
+		}
+
+		public void set(float value) {
+			if (this.value != value) {
+				this.value = value;
+				markDirty();
+			}
+		}
+
+		@Override
+		protected void write(ByteBuf data) {
+			data.writeFloat(value);
+		}
+
+		@Override
+		protected void read(ByteBuf data) {
+			float oldValue = value;
+			value = data.readFloat();
+			if (listener != null) {
+				listener.onChanged(oldValue, value);
+			}
+		}
+	}
+
+	public static final class ObjectField<T> extends SyncedField {
+		private final ChangeListener<T> listener;
+		private final BiConsumer<ByteBuf, T> writer;
+		private final Function<ByteBuf, T> reader;
+		private T value;
+
+		private ObjectField(EntitySyncData owner, int index, T value, @Nullable ChangeListener<T> listener, BiConsumer<ByteBuf, T> writer, Function<ByteBuf, T> reader) {
+			super(owner, index);
+			this.value = value;
+			this.listener = listener;
+			this.writer = writer;
+			this.reader = reader;
+		}
+
+		public T get() {
+			return value;
+		}
+
+		public void set(T value) {
+			if (!Objects.equals(this.value, value)) {
+				this.value = value;
+				markDirty();
+			}
+		}
+
+		@Override
+		protected void write(ByteBuf data) {
+			writer.accept(data, value);
+		}
+
+		@Override
+		protected void read(ByteBuf data) {
+			T oldValue = value;
+			value = reader.apply(data);
+			if (listener != null) {
+				listener.onChanged(oldValue, value);
+			}
+		}
+	}
+}
@@ -6,17 +6,24 @@ import net.minecraft.entity.player.EntityPlayerMP;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.World;
 import net.minecraft.world.WorldServer;
+import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.fml.common.FMLCommonHandler;
 import net.minecraftforge.fml.common.Loader;
 import net.minecraftforge.fml.common.network.FMLEventChannel;
 import net.minecraftforge.fml.common.network.IGuiHandler;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent;
 import net.minecraftforge.fml.common.network.NetworkRegistry;
-import net.minecraftforge.fml.common.network.NetworkRegistry.TargetPoint;
 import net.minecraftforge.fml.common.network.internal.FMLNetworkHandler;
 import net.shadowmage.ancientwarfare.core.AncientWarfareCore;
 import net.shadowmage.ancientwarfare.core.compat.jei.PacketTransferRecipe;
 import net.shadowmage.ancientwarfare.core.container.ContainerBase;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 public final class NetworkHandler implements IGuiHandler {
 
@@ -52,6 +59,9 @@ public final class NetworkHandler implements IGuiHandler {
 	public static final int PACKET_VEHICLE_MOVE = 24;
 
 	public static final int PACKET_JEI_TRANSFER_RECIPE = 25;
+	public static final int PACKET_BATCH = 26;
+	public static final int PACKET_ENTITY_SYNC = 27;
+	public static final int PACKET_TORQUE_ANIMATION = 28;
 
 	public static final int GUI_CRAFTING = 0;
 	public static final int GUI_SCANNER = 1;
@@ -112,7 +122,15 @@ public final class NetworkHandler implements IGuiHandler {
 
 	public static final int GUI_TOWN_BUILDER = 54;
 
+	/*
+	 * packets up to this size sent to players on the server thread are held back and sent together at the end of the tick,
+	 * larger packets are sent right away after the packets held back for the player
+	 */
+	private static final int MAX_BATCHED_PACKET_SIZE = 1024;
+	private static final int MAX_BATCH_SIZE = 32768;
+
 	private FMLEventChannel channel;
+	private final Map<EntityPlayerMP, List<byte[]>> queuedPackets = new LinkedHashMap<>();
 
 	private HashMap<Integer, Class<? extends ContainerBase>> containerClasses = new HashMap<>();
 	private HashMap<Integer, Class<?>> guiClasses = new HashMap<>();
@@ -120,17 +138,20 @@ public final class NetworkHandler implements IGuiHandler {
 	public final void registerNetwork() {
 		channel = NetworkRegistry.INSTANCE.newEventDrivenChannel(CHANNELNAME);
 		channel.register(new PacketHandlerServer());
-		PacketBase.registerPacketType(PACKET_GUI, PacketGui.class);
-		PacketBase.registerPacketType(PACKET_ITEM_KEY_INTERFACE, PacketItemInteraction.class);
-		PacketBase.registerPacketType(PACKET_ENTITY, PacketEntity.class);
-		PacketBase.registerPacketType(PACKET_RESEARCH_INIT, PacketResearchInit.class);
-		PacketBase.registerPacketType(PACKET_RESEARCH_ADD, PacketResearchUpdate.class);
-		PacketBase.registerPacketType(PACKET_RESEARCH_START, PacketResearchStart.class);
-		PacketBase.registerPacketType(PACKET_BLOCK_EVENT, PacketBlockEvent.class);
+		MinecraftForge.EVENT_BUS.register(this);
+		PacketBase.registerPacketType(PACKET_BATCH, PacketBatch::new);
+		PacketBase.registerPacketType(PACKET_GUI, PacketGui::new);
+		PacketBase.registerPacketType(PACKET_ITEM_KEY_INTERFACE, PacketItemInteraction::new);
+		PacketBase.registerPacketType(PACKET_ENTITY, PacketEntity::new);
+		PacketBase.registerPacketType(PACKET_ENTITY_SYNC, PacketEntitySync::new);
+		PacketBase.registerPacketType(PACKET_RESEARCH_INIT, PacketResearchInit::new);
+		PacketBase.registerPacketType(PACKET_RESEARCH_ADD, PacketResearchUpdate::new);
+		PacketBase.registerPacketType(PACKET_RESEARCH_START, PacketResearchStart::new);
+		PacketBase.registerPacketType(PACKET_BLOCK_EVENT, PacketBlockEvent::new);
 		NetworkRegistry.INSTANCE.registerGuiHandler(AncientWarfareCore.instance, this);
 
 		if (Loader.isModLoaded("jei")) {
-			PacketBase.registerPacketType(PACKET_JEI_TRANSFER_RECIPE, PacketTransferRecipe.class);
+			PacketBase.registerPacketType(PACKET_JEI_TRANSFER_RECIPE, PacketTransferRecipe::new);
 		}
 	}
 
@@ -139,20 +160,80 @@ public final class NetworkHandler implements IGuiHandler {
 	}
 
 	public static void sendToPlayer(EntityPlayerMP player, PacketBase pkt) {
-		INSTANCE.channel.sendTo(pkt.getFMLPacket(), player);
+		INSTANCE.send(player, pkt.encode());
 	}
 
 	public static void sendToAllPlayers(PacketBase pkt) {
-		INSTANCE.channel.sendToAll(pkt.getFMLPacket());
+		byte[] packet = pkt.encode();
+		for (EntityPlayerMP player : FMLCommonHandler.instance().getMinecraftServerInstance().getPlayerList().getPlayers()) {
+			INSTANCE.send(player, packet);
+		}
 	}
 
 	public static void sendToAllTracking(Entity e, PacketBase pkt) {
 		WorldServer server = (WorldServer) e.world;
-		server.getEntityTracker().sendToTracking(e, pkt.getFMLPacket());
+		byte[] packet = pkt.encode();
+		for (EntityPlayer player : server.getEntityTracker().getTrackingPlayers(e)) {
+			INSTANCE.send((EntityPlayerMP) player, packet);
+		}
 	}
 
 	public static void sendToAllNear(World world, int x, int y, int z, double range, PacketBase pkt) {
-		INSTANCE.channel.sendToAllAround(pkt.getFMLPacket(), new TargetPoint(world.provider.getDimension(), x, y, z, range));
+		byte[] packet = pkt.encode();
+		for (EntityPlayer player : world.playerEntities) {
+			if (player.getDistanceSq(x, y, z) < range * range) {
+				INSTANCE.send((EntityPlayerMP) player, packet);
+			}
+		}
+	}
+
+	private void send(EntityPlayerMP player, byte[] packet) {
+		if (!FMLCommonHandler.instance().getMinecraftServerInstance().isCallingFromMinecraftThread()) {
+			channel.sendTo(PacketBase.toFMLPacket(packet), player);
+			return;
+		}
+		if (packet.length > MAX_BATCHED_PACKET_SIZE) {
+			List<byte[]> queued = queuedPackets.remove(player);
+			if (queued != null) {
+				sendQueued(player, queued);
+			}
+			channel.sendTo(PacketBase.toFMLPacket(packet), player);
+			return;
+		}
+		queuedPackets.computeIfAbsent(player, p -> new ArrayList<>()).add(packet);
+	}
+
+	@SubscribeEvent
+	public void onServerTick(TickEvent.ServerTickEvent evt) {
+		if (evt.phase != TickEvent.Phase.END || queuedPackets.isEmpty()) {
+			return;
+		}
+		for (Map.Entry<EntityPlayerMP, List<byte[]>> entry : queuedPackets.entrySet()) {
+			sendQueued(entry.getKey(), entry.getValue());
+		}
+		queuedPackets.clear();
+	}
+
+	private void sendQueued(EntityPlayerMP player, List<byte[]> packets) {
+		if (player.hasDisconnected()) {
+			return;
+		}
+		if (packets.size() == 1) {
+			channel.sendTo(PacketBase.toFMLPacket(packets.get(0)), player);
+			return;
+		}
+		PacketBatch batch = new PacketBatch();
+		int batchSize = 0;
+		for (byte[] packet : packets) {
+			if (batchSize + packet.length > MAX_BATCH_SIZE && !batch.isEmpty()) {
+				channel.sendTo(batch.getFMLPacket(), player);
+				batch = new PacketBatch();
+				batchSize = 0;
+			}
+			batch.addPacket(packet);
+			batchSize += packet.length;
+		}
+		channel.sendTo(batch.getFMLPacket(), player);
 	}
 
     /*
@@ -164,9 +245,13 @@ public final class NetworkHandler implements IGuiHandler {
 
 	public static void sendToAllTrackingChunk(World world, int cx, int cz, PacketBase pkt) {
 		WorldServer server = (WorldServer) world;
+		byte[] packet = null;
 		for (EntityPlayer p : server.playerEntities) {
 			if (server.getPlayerChunkMap().isPlayerWatchingChunk((EntityPlayerMP) p, cx, cz)) {
-				sendToPlayer((EntityPlayerMP) p, pkt);
+				if (packet == null) {
+					packet = pkt.encode();
+				}
+				INSTANCE.send((EntityPlayerMP) p, packet);
 			}
 		}
 	}
@@ -1,40 +1,66 @@
 package net.shadowmage.ancientwarfare.core.network;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.ByteBufOutputStream;
 import io.netty.buffer.Unpooled;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
 import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.nbt.CompressedStreamTools;
+import net.minecraft.nbt.NBTSizeTracker;
+import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.network.PacketBuffer;
 import net.minecraftforge.fml.common.network.internal.FMLProxyPacket;
+import net.shadowmage.ancientwarfare.core.config.AWLog;
 
 import java.io.IOException;
-import java.util.HashMap;
+import java.util.function.Supplier;
 
 public abstract class PacketBase {
 
-	private static HashMap<Integer, Class<? extends PacketBase>> packetTypes = new HashMap<>();
-	private static HashMap<Class<? extends PacketBase>, Integer> packetIDs = new HashMap<>();
+	/*
+	 * NBT payloads up to this size are written raw, compressing them costs more time than the bytes saved are worth
+	 */
+	private static final int NBT_COMPRESSION_THRESHOLD = 256;
+	private static final long NBT_SIZE_LIMIT = 2097152L;
+	/*
+	 * encode buffers that grew past this size (for a large structure or research packet) are not kept for the next packet
+	 */
+	private static final int MAX_RETAINED_BUFFER_SIZE = 65536;
+
+	@SuppressWarnings("unchecked")
+	private static final Supplier<? extends PacketBase>[] packetFactories = new Supplier[256];
+	private static final Object2IntOpenHashMap<Class<? extends PacketBase>> packetIDs = new Object2IntOpenHashMap<>();
+	private static final ThreadLocal<PacketBuffer> encodeBuffer = ThreadLocal.withInitial(PacketBase::newEncodeBuffer);
+
+	static {
+		packetIDs.defaultReturnValue(-1);
+	}
 
-	public static void registerPacketType(int typeNum, Class<? extends PacketBase> packetClz) {
-		packetTypes.put(typeNum, packetClz);
-		packetIDs.put(packetClz, typeNum);
+	public static void registerPacketType(int typeNum, Supplier<? extends PacketBase> factory) {
+		packetFactories[typeNum] = factory;
+		packetIDs.put(factory.get().getClass(), typeNum);
 	}
 
 	public PacketBase() {
 	}
 
 	protected void writeHeaderToStream(ByteBuf data) {
-		data.writeByte(packetIDs.get(this.getClass()));
+		int typeNum = packetIDs.getInt(this.getClass());
+		if (typeNum < 0) {
+			throw new IllegalStateException("Packet type is not registered: " + this.getClass().getName());
+		}
+		data.writeByte(typeNum);
 	}
 
 	protected static PacketBase readHeaderFromStream(ByteBuf data) {
-		int typeNum = data.readByte();
-		try {
-			return packetTypes.get(typeNum).newInstance();
+		int typeNum = data.readUnsignedByte();
+		Supplier<? extends PacketBase> factory = packetFactories[typeNum];
+		if (factory == null) {
+			AWLog.logError("Received unknown packet type: " + typeNum);
+			return null;
 		}
-		catch (Exception e) {
-			e.printStackTrace();
-		}
-		return null;
+		return factory.get();
 	}
 
 	protected abstract void writeToStream(ByteBuf data);
@@ -59,10 +85,52 @@ public abstract class PacketBase {
 	}
 
 	public final FMLProxyPacket getFMLPacket() {
-		PacketBuffer buf = new PacketBuffer(Unpooled.buffer());
+		return toFMLPacket(encode());
+	}
+
+	/*
+	 * Writes the packet into the reused buffer of the thread and copies out exactly the written bytes
+	 */
+	final byte[] encode() {
+		PacketBuffer buf = encodeBuffer.get();
+		buf.clear();
 		writeHeaderToStream(buf);
 		writeToStream(buf);
-		return new FMLProxyPacket(buf, NetworkHandler.CHANNELNAME);
+		byte[] bytes = new byte[buf.readableBytes()];
+		buf.readBytes(bytes);
+		if (buf.capacity() > MAX_RETAINED_BUFFER_SIZE) {
+			encodeBuffer.set(newEncodeBuffer());
+		}
+		return bytes;
+	}
+
+	static FMLProxyPacket toFMLPacket(byte[] bytes) {
+		return new FMLProxyPacket(new PacketBuffer(Unpooled.wrappedBuffer(bytes)), NetworkHandler.CHANNELNAME);
+	}
+
+	private static PacketBuffer newEncodeBuffer() {
+		return new PacketBuffer(Unpooled.buffer(256));
+	}
+
+	/*
+	 * Writes the tag with a leading flag, GZIP compressed if it is large enough for compression to pay off
+	 */
+	protected static void writeNBT(ByteBuf data, NBTTagCompound tag) throws IOException {
+		int start = data.writerIndex();
+		data.writeBoolean(false);
+		CompressedStreamTools.write(tag, new ByteBufOutputStream(data));
+		if (data.writerIndex() - start > NBT_COMPRESSION_THRESHOLD) {
+			data.writerIndex(start);
+			data.writeBoolean(true);
+			CompressedStreamTools.writeCompressed(tag, new ByteBufOutputStream(data));
+		}
+	}
+
+	protected static NBTTagCompound readNBT(ByteBuf data) throws IOException {
+		if (data.readBoolean()) {
+			return CompressedStreamTools.readCompressed(new ByteBufInputStream(data));
+		}
+		return CompressedStreamTools.read(new ByteBufInputStream(data), new NBTSizeTracker(NBT_SIZE_LIMIT));
 	}
 
 }
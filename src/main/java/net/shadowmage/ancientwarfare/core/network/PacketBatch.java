@@ -0,0 +1,59 @@
+package net.shadowmage.ancientwarfare.core.network;
+
+import io.netty.buffer.ByteBuf;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraftforge.fml.common.network.ByteBufUtils;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * Small packets sent to a player during a server tick, sent together at the end of the tick so that they share the
+ * overhead of one custom payload packet.<br>
+ * Each packet is length prefixed and read from its own slice, so a packet can never read into the next one.
+ */
+public class PacketBatch extends PacketBase {
+
+	private final List<byte[]> encodedPackets = new ArrayList<>();
+	private final List<PacketBase> packets = new ArrayList<>();
+
+	public PacketBatch() {
+	}
+
+	void addPacket(byte[] encodedPacket) {
+		encodedPackets.add(encodedPacket);
+	}
+
+	boolean isEmpty() {
+		return encodedPackets.isEmpty();
+	}
+
+	@Override
+	protected void writeToStream(ByteBuf data) {
+		ByteBufUtils.writeVarInt(data, encodedPackets.size(), 5);
+		for (byte[] packet : encodedPackets) {
+			ByteBufUtils.writeVarInt(data, packet.length, 5);
+			data.writeBytes(packet);
+		}
+	}
+
+	@Override
+	protected void readFromStream(ByteBuf data) throws IOException {
+		int count = ByteBufUtils.readVarInt(data, 5);
+		for (int i = 0; i < count; i++) {
+			int length = ByteBufUtils.readVarInt(data, 5);
+			PacketBase packet = readPacket(data.readSlice(length));
+			if (packet != null) {
+				packets.add(packet);
+			}
+		}
+	}
+
+	@Override
+	protected void execute(EntityPlayer player) {
+		for (PacketBase packet : packets) {
+			packet.execute(player);
+		}
+	}
+}
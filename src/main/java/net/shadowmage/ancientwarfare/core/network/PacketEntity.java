@@ -1,11 +1,8 @@
 package net.shadowmage.ancientwarfare.core.network;
 
 import io.netty.buffer.ByteBuf;
-import io.netty.buffer.ByteBufInputStream;
-import io.netty.buffer.ByteBufOutputStream;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.player.EntityPlayer;
-import net.minecraft.nbt.CompressedStreamTools;
 import net.minecraft.nbt.NBTTagCompound;
 import net.shadowmage.ancientwarfare.core.interfaces.IEntityPacketHandler;
 
@@ -27,9 +24,8 @@ public class PacketEntity extends PacketBase {
 	protected void writeToStream(ByteBuf data) {
 		data.writeInt(entityId);
 		if (packetData != null) {
-			ByteBufOutputStream bbos = new ByteBufOutputStream(data);
 			try {
-				CompressedStreamTools.writeCompressed(packetData, bbos);
+				writeNBT(data, packetData);
 			}
 			catch (IOException e) {
 				e.printStackTrace();
@@ -40,11 +36,13 @@ public class PacketEntity extends PacketBase {
 	@Override
 	protected void readFromStream(ByteBuf data) {
 		entityId = data.readInt();
-		try {
-			packetData = CompressedStreamTools.readCompressed(new ByteBufInputStream(data));
-		}
-		catch (IOException e) {
-			e.printStackTrace();
+		if (data.isReadable()) {
+			try {
+				packetData = readNBT(data);
+			}
+			catch (IOException e) {
+				e.printStackTrace();
+			}
 		}
 	}
 
@@ -0,0 +1,50 @@
+package net.shadowmage.ancientwarfare.core.network;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraftforge.fml.common.network.ByteBufUtils;
+import net.shadowmage.ancientwarfare.core.interfaces.ISyncedEntity;
+
+/*
+ * Changed sync fields of an entity, see {@link EntitySyncData}
+ */
+public class PacketEntitySync extends PacketBase {
+
+	private int entityId;
+	private EntitySyncData syncData;
+	private long dirtyFields;
+	private byte[] fieldData;
+
+	public PacketEntitySync() {
+	}
+
+	PacketEntitySync(Entity entity, EntitySyncData syncData) {
+		this.entityId = entity.getEntityId();
+		this.syncData = syncData;
+		this.dirtyFields = syncData.getDirtyFields();
+	}
+
+	@Override
+	protected void writeToStream(ByteBuf data) {
+		ByteBufUtils.writeVarInt(data, entityId, 5);
+		syncData.write(data, dirtyFields);
+	}
+
+	@Override
+	protected void readFromStream(ByteBuf data) {
+		entityId = ByteBufUtils.readVarInt(data, 5);
+		fieldData = new byte[data.readableBytes()];
+		data.readBytes(fieldData);
+	}
+
+	@Override
+	protected void execute(EntityPlayer player) {
+		Entity e = player.world.getEntityByID(entityId);
+		if (e instanceof ISyncedEntity) {
+			((ISyncedEntity) e).getSyncData().read(Unpooled.wrappedBuffer(fieldData));
+		}
+	}
+
+}
@@ -1,10 +1,7 @@
 package net.shadowmage.ancientwarfare.core.network;
 
 import io.netty.buffer.ByteBuf;
-import io.netty.buffer.ByteBufInputStream;
-import io.netty.buffer.ByteBufOutputStream;
 import net.minecraft.entity.player.EntityPlayer;
-import net.minecraft.nbt.CompressedStreamTools;
 import net.minecraft.nbt.NBTTagCompound;
 import net.shadowmage.ancientwarfare.core.config.AWLog;
 import net.shadowmage.ancientwarfare.core.container.ContainerBase;
@@ -42,9 +39,8 @@ public class PacketGui extends PacketBase {
 	@Override
 	protected void writeToStream(ByteBuf data) {
 		if (packetData != null) {
-			ByteBufOutputStream bbos = new ByteBufOutputStream(data);
 			try {
-				CompressedStreamTools.writeCompressed(packetData, bbos);
+				writeNBT(data, packetData);
 			}
 			catch (IOException e) {
 				e.printStackTrace();
@@ -54,11 +50,13 @@ public class PacketGui extends PacketBase {
 
 	@Override
 	protected void readFromStream(ByteBuf data) {
-		try {
-			packetData = CompressedStreamTools.readCompressed(new ByteBufInputStream(data));
-		}
-		catch (IOException e) {
-			e.printStackTrace();
+		if (data.isReadable()) {
+			try {
+				packetData = readNBT(data);
+			}
+			catch (IOException e) {
+				e.printStackTrace();
+			}
 		}
 	}
 
@@ -17,6 +17,9 @@ public class PacketHandlerServer {
 	@SubscribeEvent
 	public void onServerPacket(FMLNetworkEvent.ServerCustomPacketEvent evt) throws IOException {
 		PacketBase packet = PacketBase.readPacket(evt.getPacket().payload());
+		if (packet == null) {
+			return;
+		}
 		EntityPlayer player = ((NetHandlerPlayServer) evt.getHandler()).player;
 
 		((WorldServer) player.world).addScheduledTask(() -> packet.execute(player));
@@ -26,6 +29,9 @@ public class PacketHandlerServer {
 	@SideOnly(Side.CLIENT)
 	public void onClientPacket(FMLNetworkEvent.ClientCustomPacketEvent evt) throws IOException {
 		PacketBase packet = PacketBase.readPacket(evt.getPacket().payload());
+		if (packet == null) {
+			return;
+		}
 
 		Minecraft.getMinecraft().addScheduledTask(() -> packet.execute(AncientWarfareCore.proxy.getClientPlayer()));
 	}
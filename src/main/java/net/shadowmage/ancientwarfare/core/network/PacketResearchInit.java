@@ -1,9 +1,6 @@
 package net.shadowmage.ancientwarfare.core.network;
 
 import io.netty.buffer.ByteBuf;
-import io.netty.buffer.ByteBufInputStream;
-import io.netty.buffer.ByteBufOutputStream;
-import net.minecraft.nbt.CompressedStreamTools;
 import net.minecraft.nbt.NBTTagCompound;
 import net.shadowmage.ancientwarfare.core.research.ResearchData;
 import net.shadowmage.ancientwarfare.core.research.ResearchTracker;
@@ -25,9 +22,8 @@ public class PacketResearchInit extends PacketBase {
 
 	@Override
 	protected void writeToStream(ByteBuf data) {
-		ByteBufOutputStream bbos = new ByteBufOutputStream(data);
 		try {
-			CompressedStreamTools.writeCompressed(researchDataTag, bbos);
+			writeNBT(data, researchDataTag);
 		}
 		catch (IOException e) {
 			e.printStackTrace();
@@ -37,7 +33,7 @@ public class PacketResearchInit extends PacketBase {
 	@Override
 	protected void readFromStream(ByteBuf data) {
 		try {
-			researchDataTag = CompressedStreamTools.readCompressed(new ByteBufInputStream(data));
+			researchDataTag = readNBT(data);
 		}
 		catch (IOException e) {
 			e.printStackTrace();
@@ -100,4 +100,14 @@ public class Owner {
 		Team team = world.getScoreboard().getPlayersTeam(name);
 		return team != null && team.isSameTeam(world.getScoreboard().getPlayersTeam(playerName));
 	}
+
+	@Override
+	public boolean equals(Object object) {
+		return object instanceof Owner && uuid.equals(((Owner) object).uuid) && name.equals(((Owner) object).name);
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * uuid.hashCode() + name.hashCode();
+	}
 }
@@ -69,6 +69,24 @@ public class TileResearchStation extends TileOwned implements IWorkSite, ITorque
 		super();
 	}
 
+	@Override
+	public void onLoad() {
+		super.onLoad();
+		WorksiteRegistry.INSTANCE.add(this);
+	}
+
+	@Override
+	public void invalidate() {
+		super.invalidate();
+		WorksiteRegistry.INSTANCE.remove(this);
+	}
+
+	@Override
+	public void onChunkUnload() {
+		super.onChunkUnload();
+		WorksiteRegistry.INSTANCE.remove(this);
+	}
+
 	@Override
 	public void onBlockBroken() {
 		InventoryTools.dropItemsInWorld(world, bookInventory, pos);
@@ -0,0 +1,102 @@
+package net.shadowmage.ancientwarfare.core.tile;
+
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import net.minecraftforge.event.world.WorldEvent;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.shadowmage.ancientwarfare.core.interfaces.IWorkSite;
+import net.shadowmage.ancientwarfare.core.interfaces.IWorkSite.WorkType;
+import net.shadowmage.ancientwarfare.core.util.SpatialGrid;
+
+import javax.annotation.Nullable;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/*
+ * Per world index of the loaded work sites of the server by work type and position, so that idle workers can look up
+ * the closest site they may work at without iterating all tile entities in the chunks around them.<br>
+ * Work sites join on load and leave on invalidation or chunk unload.
+ */
+public final class WorksiteRegistry {
+
+	public static final WorksiteRegistry INSTANCE = new WorksiteRegistry();
+
+	private static final int CELL_SHIFT = 4;
+
+	private final Map<World, Map<WorkType, SpatialGrid<TileEntity>>> worldSites = new HashMap<>();
+
+	private WorksiteRegistry() {
+	}
+
+	public <T extends TileEntity & IWorkSite> void add(T site) {
+		if (site.getWorld().isRemote) {
+			return;
+		}
+		BlockPos pos = site.getPos();
+		worldSites.computeIfAbsent(site.getWorld(), w -> new EnumMap<>(WorkType.class))
+				.computeIfAbsent(site.getWorkType(), t -> new SpatialGrid<>(CELL_SHIFT))
+				.add(site, pos.getX(), pos.getZ(), pos.getX(), pos.getZ());
+	}
+
+	public <T extends TileEntity & IWorkSite> void remove(T site) {
+		if (!site.hasWorld() || site.getWorld().isRemote) {
+			return;
+		}
+		Map<WorkType, SpatialGrid<TileEntity>> sites = worldSites.get(site.getWorld());
+		if (sites != null) {
+			SpatialGrid<TileEntity> grid = sites.get(site.getWorkType());
+			if (grid != null) {
+				grid.remove(site);
+			}
+		}
+	}
+
+	/*
+	 * @return the closest work site of an accepted work type in the box of the given horizontal and vertical range around the position
+	 * that passes the filter (e.g. permission and hasWork checks), or null if there is none
+	 */
+	@Nullable
+	public TileEntity getClosestWorksite(World world, double x, double y, double z, int range, int verticalRange, Predicate<WorkType> workTypes, Predicate<IWorkSite> filter) {
+		Map<WorkType, SpatialGrid<TileEntity>> sites = worldSites.get(world);
+		if (sites == null) {
+			return null;
+		}
+		int minX = (int) Math.floor(x) - range;
+		int minZ = (int) Math.floor(z) - range;
+		int maxX = (int) Math.floor(x) + range;
+		int maxZ = (int) Math.floor(z) + range;
+		int minY = (int) Math.floor(y) - verticalRange;
+		int maxY = (int) Math.floor(y) + verticalRange;
+		ClosestSite closest = new ClosestSite();
+		for (Map.Entry<WorkType, SpatialGrid<TileEntity>> entry : sites.entrySet()) {
+			if (!workTypes.test(entry.getKey())) {
+				continue;
+			}
+			entry.getValue().anyIntersecting(minX, minZ, maxX, maxZ, te -> {
+				BlockPos pos = te.getPos();
+				if (!te.isInvalid() && pos.getY() >= minY && pos.getY() <= maxY && filter.test((IWorkSite) te)) {
+					double dist = pos.distanceSqToCenter(x, y + 0.5d, z);
+					if (closest.site == null || dist < closest.distance) {
+						closest.site = te;
+						closest.distance = dist;
+					}
+				}
+				return false;
+			});
+		}
+		return closest.site;
+	}
+
+	@SubscribeEvent
+	public void onWorldUnload(WorldEvent.Unload evt) {
+		worldSites.remove(evt.getWorld());
+	}
+
+	private static final class ClosestSite {
+		private TileEntity site;
+		private double distance;
+	}
+}
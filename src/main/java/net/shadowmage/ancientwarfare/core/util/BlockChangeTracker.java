@@ -0,0 +1,136 @@
+package net.shadowmage.ancientwarfare.core.util;
+
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.util.SoundCategory;
+import net.minecraft.util.SoundEvent;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.IWorldEventListener;
+import net.minecraft.world.World;
+import net.minecraftforge.event.world.WorldEvent;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * Forwards block state changes of server worlds to registered listeners.<br>
+ * Hooks into the vanilla world event listeners, so sees every change that notifies clients (flag 2), which includes
+ * player and mod block placement/removal, crop growth and tree growth. Code that writes blocks directly into chunk
+ * sections announces the changed sections instead.
+ */
+public final class BlockChangeTracker {
+
+	public static final BlockChangeTracker INSTANCE = new BlockChangeTracker();
+
+	private final List<IBlockChangeListener> listeners = new ArrayList<>();
+
+	private BlockChangeTracker() {
+	}
+
+	public void addListener(IBlockChangeListener listener) {
+		listeners.add(listener);
+	}
+
+	@SubscribeEvent
+	public void onWorldLoad(WorldEvent.Load evt) {
+		World world = evt.getWorld();
+		if (!world.isRemote) {
+			world.addEventListener(new WorldListener(world));
+		}
+	}
+
+	/*
+	 * Announces blocks of a chunk section that were changed without notifying the world listeners, listeners treat any
+	 * block of the section as changed
+	 */
+	public void notifySectionChanged(World world, int sectionX, int sectionY, int sectionZ) {
+		for (IBlockChangeListener listener : listeners) {
+			listener.onSectionChanged(world, sectionX, sectionY, sectionZ);
+		}
+	}
+
+	private void onBlockChanged(World world, BlockPos pos, IBlockState oldState, IBlockState newState) {
+		for (IBlockChangeListener listener : listeners) {
+			listener.onBlockChanged(world, pos, oldState, newState);
+		}
+	}
+
+	public interface IBlockChangeListener {
+		void onBlockChanged(World world, BlockPos pos, IBlockState oldState, IBlockState newState);
+
+		void onSectionChanged(World world, int sectionX, int sectionY, int sectionZ);
+	}
+
+	private final class WorldListener implements IWorldEventListener {
+		private final World world;
+
+		private WorldListener(World world) {
+			this.world = world;
+		}
+
+		@Override
+		public void notifyBlockUpdate(World worldIn, BlockPos pos, IBlockState oldState, IBlockState newState, int flags) {
+			if (oldState != newState) {
+				onBlockChanged(world, pos, oldState, newState);
+			}
+		}
+
+		@Override
+		public void notifyLightSet(BlockPos pos) {
+			//NOOP
+		}
+
+		@Override
+		public void markBlockRangeForRenderUpdate(int x1, int y1, int z1, int x2, int y2, int z2) {
+			//NOOP
+		}
+
+		@Override
+		public void playSoundToAllNearExcept(@Nullable EntityPlayer player, SoundEvent soundIn, SoundCategory category, double x, double y, double z, float volume, float pitch) {
+			//NOOP
+		}
+
+		@Override
+		public void playRecord(SoundEvent soundIn, BlockPos pos) {
+			//NOOP
+		}
+
+		@Override
+		public void spawnParticle(int particleID, boolean ignoreRange, double xCoord, double yCoord, double zCoord, double xSpeed, double ySpeed, double zSpeed, int... parameters) {
+			//NOOP
+		}
+
+		@Override
+		public void spawnParticle(int id, boolean ignoreRange, boolean minimiseParticleLevel, double x, double y, double z, double xSpeed, double ySpeed, double zSpeed, int... parameters) {
+			//NOOP
+		}
+
+		@Override
+		public void onEntityAdded(Entity entityIn) {
+			//NOOP
+		}
+
+		@Override
+		public void onEntityRemoved(Entity entityIn) {
+			//NOOP
+		}
+
+		@Override
+		public void broadcastSound(int soundID, BlockPos pos, int data) {
+			//NOOP
+		}
+
+		@Override
+		public void playEvent(EntityPlayer player, int type, BlockPos blockPosIn, int data) {
+			//NOOP
+		}
+
+		@Override
+		public void sendBlockBreakProgress(int breakerId, BlockPos pos, int progress) {
+			//NOOP
+		}
+	}
+}
@@ -0,0 +1,143 @@
+package net.shadowmage.ancientwarfare.core.util;
+
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.EntityLivingBase;
+import net.minecraft.util.EntitySelectors;
+import net.minecraft.util.math.AxisAlignedBB;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.world.World;
+import net.minecraftforge.event.entity.EntityJoinWorldEvent;
+import net.minecraftforge.event.world.WorldEvent;
+import net.minecraftforge.fml.common.eventhandler.EventPriority;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/*
+ * Per world spatial index of living entities (and other types registered by modules, e.g. vehicles) for the frequent
+ * proximity queries of NPC AI and tiles, so that they do not each walk the entity lists of all chunk sections in their area.<br>
+ * The index of a world is rebuilt on the first query of a tick, entities are bucketed by their bounding box expanded by
+ * MOVE_MARGIN so that queries later in the tick still find entities that moved since. Results are checked against the
+ * current bounding box of the entity, entities joining the world during the tick are added to the index as they join.<br>
+ * Without a filter spectators are skipped, the same as for the world queries.<br>
+ * Client worlds are not indexed, queries on them go to the world directly.
+ */
+public final class EntityIndex {
+
+	public static final EntityIndex INSTANCE = new EntityIndex();
+
+	private static final int CELL_SHIFT = 4;
+	private static final int MOVE_MARGIN = 2;
+
+	private final Map<World, WorldIndex> worldIndexes = new HashMap<>();
+	private final List<Class<? extends Entity>> indexedTypes = new ArrayList<>();
+	private final Map<Class<? extends Entity>, Boolean> indexedClasses = new ConcurrentHashMap<>();
+
+	private EntityIndex() {
+		indexedTypes.add(EntityLivingBase.class);
+	}
+
+	/*
+	 * Adds entities of the type (and subclasses) to the index, only indexed types can be queried
+	 */
+	public void addIndexedType(Class<? extends Entity> type) {
+		indexedTypes.add(type);
+		indexedClasses.clear();
+	}
+
+	/*
+	 * Adds the entities of the type whose bounding box intersects the given box and which pass the filter to the output list
+	 */
+	public <T extends Entity> List<T> getEntitiesWithinAABB(World world, Class<? extends T> type, AxisAlignedBB bb, @Nullable Predicate<? super T> filter, List<T> out) {
+		if (world.isRemote) {
+			for (T entity : world.getEntitiesWithinAABB(type, bb)) {
+				if (filter == null || filter.test(entity)) {
+					out.add(entity);
+				}
+			}
+			return out;
+		}
+		forEachWithinAABB(world, type, bb, filter, out::add);
+		return out;
+	}
+
+	public <T extends Entity> List<T> getEntitiesWithinAABB(World world, Class<? extends T> type, AxisAlignedBB bb, @Nullable Predicate<? super T> filter) {
+		return getEntitiesWithinAABB(world, type, bb, filter, new ArrayList<>());
+	}
+
+	public <T extends Entity> int countEntitiesWithinAABB(World world, Class<? extends T> type, AxisAlignedBB bb, @Nullable Predicate<? super T> filter) {
+		if (world.isRemote) {
+			return getEntitiesWithinAABB(world, type, bb, filter, new ArrayList<>()).size();
+		}
+		int[] count = new int[1];
+		forEachWithinAABB(world, type, bb, filter, e -> count[0]++);
+		return count[0];
+	}
+
+	private <T extends Entity> void forEachWithinAABB(World world, Class<? extends T> type, AxisAlignedBB bb, @Nullable Predicate<? super T> filter, Consumer<T> action) {
+		getIndex(world).grid.anyIntersecting(MathHelper.floor(bb.minX), MathHelper.floor(bb.minZ), MathHelper.floor(bb.maxX), MathHelper.floor(bb.maxZ), entity -> {
+			if (type.isInstance(entity) && !entity.isDead && entity.getEntityBoundingBox().intersects(bb)) {
+				T typed = type.cast(entity);
+				if (filter == null ? EntitySelectors.NOT_SPECTATING.apply(entity) : filter.test(typed)) {
+					action.accept(typed);
+				}
+			}
+			return false;
+		});
+	}
+
+	@SubscribeEvent(priority = EventPriority.LOWEST)
+	public void onEntityJoinWorld(EntityJoinWorldEvent evt) {
+		World world = evt.getWorld();
+		WorldIndex index = worldIndexes.get(world);
+		if (index != null && index.builtAt == world.getTotalWorldTime() && isIndexed(evt.getEntity())) {
+			index.add(evt.getEntity());
+		}
+	}
+
+	@SubscribeEvent
+	public void onWorldUnload(WorldEvent.Unload evt) {
+		worldIndexes.remove(evt.getWorld());
+	}
+
+	private WorldIndex getIndex(World world) {
+		WorldIndex index = worldIndexes.computeIfAbsent(world, w -> new WorldIndex(CELL_SHIFT));
+		long time = world.getTotalWorldTime();
+		if (index.builtAt != time) {
+			index.builtAt = time;
+			index.grid.clear();
+			for (Entity entity : world.loadedEntityList) {
+				if (!entity.isDead && isIndexed(entity)) {
+					index.add(entity);
+				}
+			}
+		}
+		return index;
+	}
+
+	private boolean isIndexed(Entity entity) {
+		return indexedClasses.computeIfAbsent(entity.getClass(), c -> indexedTypes.stream().anyMatch(t -> t.isAssignableFrom(c)));
+	}
+
+	private static final class WorldIndex {
+		private final SpatialGrid<Entity> grid;
+		private long builtAt = -1;
+
+		private WorldIndex(int cellShift) {
+			grid = new SpatialGrid<>(cellShift);
+		}
+
+		private void add(Entity entity) {
+			AxisAlignedBB bb = entity.getEntityBoundingBox();
+			grid.add(entity, MathHelper.floor(bb.minX) - MOVE_MARGIN, MathHelper.floor(bb.minZ) - MOVE_MARGIN,
+					MathHelper.floor(bb.maxX) + MOVE_MARGIN, MathHelper.floor(bb.maxZ) + MOVE_MARGIN);
+		}
+	}
+}
@@ -6,6 +6,7 @@ import net.minecraft.util.math.AxisAlignedBB;
 import net.minecraft.util.math.RayTraceResult;
 import net.minecraft.util.math.Vec3d;
 import net.minecraft.world.World;
+import net.shadowmage.ancientwarfare.structure.entity.GateCollisionRegistry;
 
 import java.util.HashSet;
 import java.util.List;
@@ -53,6 +54,7 @@ public class RayTraceUtils {
 		double maxZ = z > tz ? z : tz;
 		AxisAlignedBB bb = new AxisAlignedBB(minX, minY, minZ, maxX, maxY, maxZ).expand(borderSize, borderSize, borderSize);
 		List<Entity> allEntities = world.getEntitiesWithinAABBExcludingEntity(null, bb);
+		GateCollisionRegistry.INSTANCE.addGatesIntersecting(world, bb, allEntities);
 		Entity closestHitEntity = null;
 		float closestHit = Float.POSITIVE_INFINITY;
 		float currentHit;
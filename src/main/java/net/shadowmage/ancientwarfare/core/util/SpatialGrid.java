@@ -0,0 +1,151 @@
+package net.shadowmage.ancientwarfare.core.util;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.util.math.ChunkPos;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+
+/*
+ * 2D spatial index of values with an axis aligned x/z rectangle, bucketed in square grid cells keyed by packed cell coordinates.<br>
+ * A value is stored in every cell its rectangle overlaps, queries only visit the cells overlapping the query rectangle.<br>
+ * Coordinates are inclusive and in whatever unit the owner uses (blocks, chunks), the cell size is 2^cellShift of those units.
+ */
+public class SpatialGrid<T> {
+
+	private final int cellShift;
+	private final Long2ObjectOpenHashMap<List<Entry<T>>> cells = new Long2ObjectOpenHashMap<>();
+	private final Map<T, Entry<T>> entries = new IdentityHashMap<>();
+
+	public SpatialGrid(int cellShift) {
+		this.cellShift = cellShift;
+	}
+
+	/*
+	 * Adds the value with the given rectangle, replacing the rectangle if the value is already in the grid
+	 */
+	public void add(T value, int minX, int minZ, int maxX, int maxZ) {
+		remove(value);
+		Entry<T> entry = new Entry<>(value, Math.min(minX, maxX), Math.min(minZ, maxZ), Math.max(minX, maxX), Math.max(minZ, maxZ));
+		entries.put(value, entry);
+		for (int cx = entry.minX >> cellShift; cx <= entry.maxX >> cellShift; cx++) {
+			for (int cz = entry.minZ >> cellShift; cz <= entry.maxZ >> cellShift; cz++) {
+				cells.computeIfAbsent(ChunkPos.asLong(cx, cz), k -> new ArrayList<>()).add(entry);
+			}
+		}
+	}
+
+	public boolean remove(T value) {
+		Entry<T> entry = entries.remove(value);
+		if (entry == null) {
+			return false;
+		}
+		for (int cx = entry.minX >> cellShift; cx <= entry.maxX >> cellShift; cx++) {
+			for (int cz = entry.minZ >> cellShift; cz <= entry.maxZ >> cellShift; cz++) {
+				long key = ChunkPos.asLong(cx, cz);
+				List<Entry<T>> cell = cells.get(key);
+				if (cell != null && cell.remove(entry) && cell.isEmpty()) {
+					cells.remove(key);
+				}
+			}
+		}
+		return true;
+	}
+
+	public void clear() {
+		cells.clear();
+		entries.clear();
+	}
+
+	public int size() {
+		return entries.size();
+	}
+
+	public Collection<T> values() {
+		return Collections.unmodifiableSet(entries.keySet());
+	}
+
+	/*
+	 * Adds every value whose rectangle intersects the given rectangle to the output, each value only once
+	 */
+	public <C extends Collection<T>> C getIntersecting(int minX, int minZ, int maxX, int maxZ, C out) {
+		anyIntersecting(minX, minZ, maxX, maxZ, value -> {
+			out.add(value);
+			return false;
+		});
+		return out;
+	}
+
+	/*
+	 * @return true if the filter accepts any value whose rectangle intersects the given rectangle, stops at the first accepted value
+	 */
+	public boolean anyIntersecting(int minX, int minZ, int maxX, int maxZ, Predicate<T> filter) {
+		int minCellX = minX >> cellShift;
+		int minCellZ = minZ >> cellShift;
+		for (int cx = minCellX; cx <= maxX >> cellShift; cx++) {
+			for (int cz = minCellZ; cz <= maxZ >> cellShift; cz++) {
+				List<Entry<T>> cell = cells.get(ChunkPos.asLong(cx, cz));
+				if (cell == null) {
+					continue;
+				}
+				for (Entry<T> entry : cell) {
+					//a value spanning several cells is only reported from the first cell shared by both rectangles
+					if (cx == Math.max(minCellX, entry.minX >> cellShift) && cz == Math.max(minCellZ, entry.minZ >> cellShift)
+							&& entry.intersects(minX, minZ, maxX, maxZ) && filter.test(entry.value)) {
+						return true;
+					}
+				}
+			}
+		}
+		return false;
+	}
+
+	/*
+	 * Nearest neighbour search around the given position.<br>
+	 * The distance function must not return less than the distance from the position to the rectangle of the value
+	 * (e.g. distance to any point inside the rectangle), so that all candidates are found within the square of maxDistance.
+	 *
+	 * @return the closest value with a distance below maxDistance, or null if there is none
+	 */
+	@Nullable
+	public T getClosest(int x, int z, int maxDistance, ToDoubleFunction<T> distance) {
+		List<T> candidates = getIntersecting(x - maxDistance, z - maxDistance, x + maxDistance, z + maxDistance, new ArrayList<>());
+		T closest = null;
+		double closestDistance = maxDistance;
+		for (T candidate : candidates) {
+			double d = distance.applyAsDouble(candidate);
+			if (d < closestDistance) {
+				closestDistance = d;
+				closest = candidate;
+			}
+		}
+		return closest;
+	}
+
+	private static final class Entry<T> {
+		private final T value;
+		private final int minX;
+		private final int minZ;
+		private final int maxX;
+		private final int maxZ;
+
+		private Entry(T value, int minX, int minZ, int maxX, int maxZ) {
+			this.value = value;
+			this.minX = minX;
+			this.minZ = minZ;
+			this.maxX = maxX;
+			this.maxZ = maxZ;
+		}
+
+		private boolean intersects(int minX, int minZ, int maxX, int maxZ) {
+			return this.minX <= maxX && this.maxX >= minX && this.minZ <= maxZ && this.maxZ >= minZ;
+		}
+	}
+}
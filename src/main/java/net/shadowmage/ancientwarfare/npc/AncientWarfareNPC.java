@@ -20,6 +20,8 @@ import net.shadowmage.ancientwarfare.core.gamedata.WorldData;
 import net.shadowmage.ancientwarfare.core.network.NetworkHandler;
 import net.shadowmage.ancientwarfare.core.network.PacketBase;
 import net.shadowmage.ancientwarfare.core.registry.RegistryLoader;
+import net.shadowmage.ancientwarfare.core.util.BlockChangeTracker;
+import net.shadowmage.ancientwarfare.npc.ai.FlowFieldService;
 import net.shadowmage.ancientwarfare.npc.command.CommandDebugAI;
 import net.shadowmage.ancientwarfare.npc.command.CommandFaction;
 import net.shadowmage.ancientwarfare.npc.compat.EpicSiegeCompat;
@@ -38,7 +40,9 @@ import net.shadowmage.ancientwarfare.npc.container.ContainerTradeOrder;
 import net.shadowmage.ancientwarfare.npc.container.ContainerUpkeepOrder;
 import net.shadowmage.ancientwarfare.npc.container.ContainerWorkOrder;
 import net.shadowmage.ancientwarfare.npc.entity.AWNPCEntityLoader;
+import net.shadowmage.ancientwarfare.npc.entity.BedIndex;
 import net.shadowmage.ancientwarfare.npc.faction.FactionTracker;
+import net.shadowmage.ancientwarfare.npc.faction.HostilityCache;
 import net.shadowmage.ancientwarfare.npc.network.PacketFactionUpdate;
 import net.shadowmage.ancientwarfare.npc.network.PacketNpcCommand;
 import net.shadowmage.ancientwarfare.npc.proxy.NpcCommonProxy;
@@ -87,8 +91,8 @@ public class AncientWarfareNPC {
 		NetworkHandler.registerContainer(NetworkHandler.GUI_NPC_TRADE_ORDER, ContainerTradeOrder.class);
 		NetworkHandler.registerContainer(NetworkHandler.GUI_NPC_PLAYER_OWNED_TRADE, ContainerNpcPlayerOwnedTrade.class);
 		NetworkHandler.registerContainer(NetworkHandler.GUI_NPC_FACTION_BARD, ContainerNpcFactionBard.class);
-		PacketBase.registerPacketType(NetworkHandler.PACKET_NPC_COMMAND, PacketNpcCommand.class);
-		PacketBase.registerPacketType(NetworkHandler.PACKET_FACTION_UPDATE, PacketFactionUpdate.class);
+		PacketBase.registerPacketType(NetworkHandler.PACKET_NPC_COMMAND, PacketNpcCommand::new);
+		PacketBase.registerPacketType(NetworkHandler.PACKET_FACTION_UPDATE, PacketFactionUpdate::new);
 
 		CompatLoader.registerCompat(new EpicSiegeCompat());
 
@@ -110,6 +114,11 @@ public class AncientWarfareNPC {
 		proxy.loadSkins();
 		AWNPCEntityLoader.loadNpcSubtypeEquipment();
 		MinecraftForge.EVENT_BUS.register(FactionTracker.INSTANCE);
+		MinecraftForge.EVENT_BUS.register(HostilityCache.INSTANCE);
+		MinecraftForge.EVENT_BUS.register(BedIndex.INSTANCE);
+		BlockChangeTracker.INSTANCE.addListener(BedIndex.INSTANCE);
+		MinecraftForge.EVENT_BUS.register(FlowFieldService.INSTANCE);
+		BlockChangeTracker.INSTANCE.addListener(FlowFieldService.INSTANCE);
 
 		statics.save();
 	}
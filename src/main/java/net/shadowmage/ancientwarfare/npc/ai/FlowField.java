@@ -0,0 +1,311 @@
+package net.shadowmage.ancientwarfare.npc.ai;
+
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import it.unimi.dsi.fastutil.longs.Long2IntMap;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayFIFOQueue;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
+import net.minecraft.block.BlockDoor;
+import net.minecraft.block.BlockFence;
+import net.minecraft.block.BlockFenceGate;
+import net.minecraft.block.BlockWall;
+import net.minecraft.block.material.Material;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.pathfinding.Path;
+import net.minecraft.pathfinding.PathPoint;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * Integration field of walking distances to a goal, built breadth first from the goal over the cells an npc can stand in.<br>
+ * Any number of npcs can get a path to the goal from it by walking down the distances, instead of each running its own
+ * path search. After a block change only the cells at or beyond the distance of the changed area are recomputed, cells
+ * closer to the goal cannot have used the changed blocks.<br>
+ * Building and repairing is spread over ticks, {@link #update(int)} expands a limited number of cells per call and the block
+ * changes of a tick are collected into one repair. Cells already expanded keep their final distance, so npcs can follow the
+ * part of the field that is done while the rest is still being computed.
+ */
+final class FlowField {
+
+	private static final int RANGE = 48;
+	private static final int VERTICAL_RANGE = 16;
+	private static final int MAX_DISTANCE = 128;
+	private static final int MAX_DROP = 3;
+	private static final int[] DIR_X = {1, -1, 0, 0};
+	private static final int[] DIR_Z = {0, 0, 1, -1};
+
+	private static final int PASSABLE = 0;
+	private static final int FLOOR = 1;
+	private static final int WATER = 2;
+	private static final int BLOCKED = 3;
+
+	final World world;
+	final BlockPos goal;
+	final IntOpenHashSet requesters = new IntOpenHashSet();
+	long lastRequested;
+	private boolean built = false;
+	private boolean rebuild = false;
+	private int repairDistance = Integer.MAX_VALUE;
+	private final Long2IntOpenHashMap distances = new Long2IntOpenHashMap();
+	private final LongArrayFIFOQueue queue = new LongArrayFIFOQueue();
+	private final BlockPos.MutableBlockPos readPos = new BlockPos.MutableBlockPos();
+
+	FlowField(World world, BlockPos goal) {
+		this.world = world;
+		this.goal = goal;
+		distances.defaultReturnValue(-1);
+	}
+
+	boolean isBuilt() {
+		return built;
+	}
+
+	/*
+	 * Starts building the field, it is computed by the following {@link #update(int)} calls
+	 */
+	void build() {
+		built = true;
+		rebuild = true;
+	}
+
+	boolean needsUpdate() {
+		return rebuild || repairDistance != Integer.MAX_VALUE || !queue.isEmpty();
+	}
+
+	/*
+	 * Applies the pending rebuild or repair and expands up to the given number of cells
+	 *
+	 * @return the number of cells expanded
+	 */
+	int update(int maxCells) {
+		if (rebuild) {
+			rebuild = false;
+			repairDistance = Integer.MAX_VALUE;
+			seedGoal();
+		} else if (repairDistance != Integer.MAX_VALUE) {
+			repair(repairDistance);
+			repairDistance = Integer.MAX_VALUE;
+		}
+		return propagate(maxCells);
+	}
+
+	private void seedGoal() {
+		distances.clear();
+		queue.clear();
+		for (int x = goal.getX() - 1; x <= goal.getX() + 1; x++) {
+			for (int z = goal.getZ() - 1; z <= goal.getZ() + 1; z++) {
+				for (int y = goal.getY() - 2; y <= goal.getY() + 1; y++) {
+					if (isStandable(x, y, z)) {
+						long key = toKey(x, y, z);
+						distances.put(key, 0);
+						queue.enqueue(key);
+					}
+				}
+			}
+		}
+	}
+
+	/*
+	 * Rebuilds the field if any block of the section may change it
+	 */
+	void onSectionChanged(int sectionX, int sectionY, int sectionZ) {
+		int minX = sectionX << 4;
+		int minY = sectionY << 4;
+		int minZ = sectionZ << 4;
+		if (!built || minX + 15 < goal.getX() - RANGE - 1 || minX > goal.getX() + RANGE + 1 || minZ + 15 < goal.getZ() - RANGE - 1 || minZ > goal.getZ() + RANGE + 1
+				|| minY + 15 < goal.getY() - VERTICAL_RANGE - MAX_DROP - 2 || minY > goal.getY() + VERTICAL_RANGE + MAX_DROP + 2) {
+			return;
+		}
+		rebuild = true;
+	}
+
+	/*
+	 * Queues the part of the field that may have changed with the block for recomputation
+	 */
+	void onBlockChanged(BlockPos pos) {
+		if (!built || Math.abs(pos.getX() - goal.getX()) > RANGE + 1 || Math.abs(pos.getZ() - goal.getZ()) > RANGE + 1 || Math.abs(pos.getY() - goal.getY()) > VERTICAL_RANGE + MAX_DROP + 2) {
+			return;
+		}
+		//cells whose standability or moves depend on the block, and their neighbors
+		int minDistance = Integer.MAX_VALUE;
+		for (int x = pos.getX() - 1; x <= pos.getX() + 1; x++) {
+			for (int z = pos.getZ() - 1; z <= pos.getZ() + 1; z++) {
+				for (int y = pos.getY() - MAX_DROP - 2; y <= pos.getY() + 2; y++) {
+					int distance = distances.get(toKey(x, y, z));
+					if (distance >= 0 && distance < minDistance) {
+						minDistance = distance;
+					}
+				}
+			}
+		}
+		if (minDistance == Integer.MAX_VALUE) {
+			return;//the change does not touch the field
+		}
+		if (minDistance == 0) {
+			rebuild = true;
+		} else {
+			repairDistance = Math.min(repairDistance, minDistance);
+		}
+	}
+
+	/*
+	 * Drops the cells at or beyond the distance and expands the cells just before it again
+	 */
+	private void repair(int minDistance) {
+		if (!queue.isEmpty()) {
+			//cells before the front of the queue are fully expanded, cells from there on may not be
+			minDistance = Math.min(minDistance, distances.get(queue.firstLong()) + 1);
+			queue.clear();
+		}
+		ObjectIterator<Long2IntMap.Entry> it = distances.long2IntEntrySet().fastIterator();
+		while (it.hasNext()) {
+			Long2IntMap.Entry entry = it.next();
+			if (entry.getIntValue() >= minDistance) {
+				it.remove();
+			} else if (entry.getIntValue() == minDistance - 1) {
+				queue.enqueue(entry.getLongKey());
+			}
+		}
+	}
+
+	/*
+	 * @return a path from the cell at the block position down the field towards the goal, or null if the position is not covered by the field
+	 */
+	@Nullable
+	Path getPath(int x, int y, int z, int maxLength) {
+		int startY = y;
+		if (distances.get(toKey(x, y, z)) < 0) {
+			startY = distances.get(toKey(x, y + 1, z)) >= 0 ? y + 1 : y - 1;
+			if (distances.get(toKey(x, startY, z)) < 0) {
+				return null;
+			}
+		}
+		List<PathPoint> points = new ArrayList<>();
+		int cx = x, cy = startY, cz = z;
+		int distance = distances.get(toKey(cx, cy, cz));
+		points.add(new PathPoint(cx, cy, cz));
+		while (distance > 0 && points.size() < maxLength) {
+			boolean moved = false;
+			for (int dir = 0; dir < 4 && !moved; dir++) {
+				int nx = cx + DIR_X[dir];
+				int nz = cz + DIR_Z[dir];
+				for (int ny = cy + 1; ny >= cy - MAX_DROP; ny--) {
+					if (distances.get(toKey(nx, ny, nz)) == distance - 1 && canMove(cx, cy, cz, nx, ny, nz)) {
+						cx = nx;
+						cy = ny;
+						cz = nz;
+						distance--;
+						points.add(new PathPoint(cx, cy, cz));
+						moved = true;
+						break;
+					}
+				}
+			}
+			if (!moved) {
+				break;//field is out of date here, follow it as far as it goes
+			}
+		}
+		return points.size() > 1 ? new Path(points.toArray(new PathPoint[0])) : null;
+	}
+
+	private int propagate(int maxCells) {
+		int expanded = 0;
+		while (!queue.isEmpty() && expanded < maxCells) {
+			expanded++;
+			long key = queue.dequeueLong();
+			int distance = distances.get(key);
+			if (distance >= MAX_DISTANCE) {
+				continue;
+			}
+			int x = (int) (key >> 38);
+			int y = (int) (key << 26 >> 52);
+			int z = (int) (key << 38 >> 38);
+			for (int dir = 0; dir < 4; dir++) {
+				int px = x + DIR_X[dir];
+				int pz = z + DIR_Z[dir];
+				if (Math.abs(px - goal.getX()) > RANGE || Math.abs(pz - goal.getZ()) > RANGE) {
+					continue;
+				}
+				//cells that can move to this one, by stepping up one block, walking level or dropping down
+				for (int py = y - 1; py <= y + MAX_DROP; py++) {
+					long pKey = toKey(px, py, pz);
+					if (Math.abs(py - goal.getY()) <= VERTICAL_RANGE && !distances.containsKey(pKey) && isStandable(px, py, pz) && canMove(px, py, pz, x, y, z)) {
+						distances.put(pKey, distance + 1);
+						queue.enqueue(pKey);
+					}
+				}
+			}
+		}
+		return expanded;
+	}
+
+	/*
+	 * Whether an npc can move between horizontally adjacent standable cells
+	 */
+	private boolean canMove(int fromX, int fromY, int fromZ, int toX, int toY, int toZ) {
+		if (toY > fromY + 1 || toY < fromY - MAX_DROP) {
+			return false;
+		}
+		if (toY == fromY + 1) {
+			return isClear(fromX, fromY + 2, fromZ);//head room to step up
+		}
+		for (int y = toY + 2; y <= fromY + 1; y++) {
+			if (!isClear(toX, y, toZ)) {
+				return false;//no room to drop down
+			}
+		}
+		return true;
+	}
+
+	private boolean isClear(int x, int y, int z) {
+		int type = getType(x, y, z);
+		return type == PASSABLE || type == WATER;
+	}
+
+	private boolean isStandable(int x, int y, int z) {
+		if (y < 1 || y > 254) {
+			return false;
+		}
+		if (!isClear(x, y, z) || !isClear(x, y + 1, z)) {
+			return false;
+		}
+		int below = getType(x, y - 1, z);
+		return below == FLOOR || below == WATER;
+	}
+
+	private int getType(int x, int y, int z) {
+		readPos.setPos(x, y, z);
+		if (!world.isBlockLoaded(readPos)) {
+			return BLOCKED;//do not load chunks for the field
+		}
+		return getType(world.getBlockState(readPos));
+	}
+
+	/*
+	 * Classification of the block states for movement, only changes between these types affect fields
+	 */
+	static int getType(IBlockState state) {
+		Material material = state.getMaterial();
+		if (material == Material.LAVA || material == Material.FIRE || material == Material.CACTUS) {
+			return BLOCKED;
+		}
+		if (material == Material.WATER) {
+			return WATER;
+		}
+		if (state.getBlock() instanceof BlockDoor) {
+			return material == Material.WOOD ? PASSABLE : BLOCKED;//npcs open wooden doors
+		}
+		if (state.getBlock() instanceof BlockFence || state.getBlock() instanceof BlockWall || state.getBlock() instanceof BlockFenceGate) {
+			return BLOCKED;//too high to step onto
+		}
+		return material.blocksMovement() ? FLOOR : PASSABLE;
+	}
+
+	private static long toKey(int x, int y, int z) {
+		return ((long) x & 0x3FFFFFFL) << 38 | ((long) y & 0xFFFL) << 26 | ((long) z & 0x3FFFFFFL);
+	}
+}
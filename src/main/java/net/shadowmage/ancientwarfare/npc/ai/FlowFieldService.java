@@ -0,0 +1,122 @@
+package net.shadowmage.ancientwarfare.npc.ai;
+
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.pathfinding.Path;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.world.World;
+import net.minecraftforge.event.world.WorldEvent;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent;
+import net.shadowmage.ancientwarfare.core.util.BlockChangeTracker;
+import net.shadowmage.ancientwarfare.npc.entity.NpcBase;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * Shares flow fields between npcs that move to the same destination at the same time, e.g. soldiers answering a town
+ * alarm at their upkeep point, so that they follow one field instead of each searching their own path.<br>
+ * A field is only built once several npcs asked for the destination, until then (and where the field does not reach)
+ * npcs search their own paths. Fields are repaired on block changes and dropped when nobody asked for them for a while.<br>
+ * Building and repairing fields shares a budget of cells per tick, fields with work left continue on the next tick.
+ */
+public final class FlowFieldService implements BlockChangeTracker.IBlockChangeListener {
+
+	public static final FlowFieldService INSTANCE = new FlowFieldService();
+
+	private static final int MIN_SHARED_REQUESTERS = 3;
+	private static final int FIELD_EXPIRE_TICKS = 200;
+	private static final int MAX_PATH_LENGTH = 48;
+	private static final int CELLS_PER_TICK = 4096;
+
+	private final Map<World, Map<BlockPos, FlowField>> worldFields = new HashMap<>();
+	private final List<FlowField> fieldsToUpdate = new ArrayList<>();
+	private int ticks = 0;
+
+	private FlowFieldService() {
+	}
+
+	/*
+	 * @return a path for the npc towards the destination, or null if the npc needs to search its own
+	 */
+	@Nullable
+	public Path getPath(NpcBase npc, BlockPos destination) {
+		if (npc.world.isRemote) {
+			return null;
+		}
+		BlockPos goal = destination.toImmutable();
+		FlowField field = worldFields.computeIfAbsent(npc.world, w -> new HashMap<>()).computeIfAbsent(goal, g -> new FlowField(npc.world, g));
+		field.lastRequested = npc.world.getTotalWorldTime();
+		if (!field.isBuilt()) {
+			field.requesters.add(npc.getEntityId());
+			if (field.requesters.size() < MIN_SHARED_REQUESTERS) {
+				return null;
+			}
+			field.build();
+		}
+		return field.getPath(MathHelper.floor(npc.posX), MathHelper.floor(npc.posY), MathHelper.floor(npc.posZ), MAX_PATH_LENGTH);
+	}
+
+	@Override
+	public void onBlockChanged(World world, BlockPos pos, IBlockState oldState, IBlockState newState) {
+		Map<BlockPos, FlowField> fields = worldFields.get(world);
+		if (fields == null || FlowField.getType(oldState) == FlowField.getType(newState)) {
+			return;
+		}
+		for (FlowField field : fields.values()) {
+			field.onBlockChanged(pos);
+		}
+	}
+
+	@Override
+	public void onSectionChanged(World world, int sectionX, int sectionY, int sectionZ) {
+		Map<BlockPos, FlowField> fields = worldFields.get(world);
+		if (fields != null) {
+			for (FlowField field : fields.values()) {
+				field.onSectionChanged(sectionX, sectionY, sectionZ);
+			}
+		}
+	}
+
+	@SubscribeEvent
+	public void onServerTick(TickEvent.ServerTickEvent evt) {
+		if (evt.phase != TickEvent.Phase.END) {
+			return;
+		}
+		updateFields();
+		if (++ticks % 20 != 0) {
+			return;
+		}
+		for (Map.Entry<World, Map<BlockPos, FlowField>> entry : worldFields.entrySet()) {
+			long time = entry.getKey().getTotalWorldTime();
+			entry.getValue().values().removeIf(field -> time - field.lastRequested > FIELD_EXPIRE_TICKS);
+		}
+	}
+
+	/*
+	 * Gives each field with pending work an even share of what is left of the tick's cell budget
+	 */
+	private void updateFields() {
+		for (Map<BlockPos, FlowField> fields : worldFields.values()) {
+			for (FlowField field : fields.values()) {
+				if (field.needsUpdate()) {
+					fieldsToUpdate.add(field);
+				}
+			}
+		}
+		int budget = CELLS_PER_TICK;
+		for (int i = 0; i < fieldsToUpdate.size() && budget > 0; i++) {
+			budget -= fieldsToUpdate.get(i).update(Math.max(1, budget / (fieldsToUpdate.size() - i)));
+		}
+		fieldsToUpdate.clear();
+	}
+
+	@SubscribeEvent
+	public void onWorldUnload(WorldEvent.Unload evt) {
+		worldFields.remove(evt.getWorld());
+	}
+}
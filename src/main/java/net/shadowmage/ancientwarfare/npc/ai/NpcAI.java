@@ -103,9 +103,26 @@ public abstract class NpcAI<T extends NpcBase> extends EntityAIBase {
 					moveRetryDelay += 20;
 				}//add another 1 second if distance>32 (delay will be 2 seconds total at this point)
 			}
+			moveRetryDelay = moveRetryDelay * npc.getAIUpdateInterval() / NpcBase.AI_FULL_RATE_INTERVAL;//npcs away from players re-path less often
 		}
 	}
 
+	/*
+	 * Move towards a destination that many npcs head to at the same time (upkeep point during an alarm, patrol points, commanded
+	 * move targets), along the shared flow field of the destination if there is one that reaches the npc
+	 */
+	protected final void moveToSharedPosition(BlockPos pos, double sqDist) {
+		if (moveRetryDelay <= 1) {
+			Path path = FlowFieldService.INSTANCE.getPath(npc, pos);
+			if (path != null) {
+				npc.getNavigator().setPath(path, moveSpeed);
+				moveRetryDelay = 20 * npc.getAIUpdateInterval() / NpcBase.AI_FULL_RATE_INTERVAL;
+				return;
+			}
+		}
+		moveToPosition(pos, sqDist);
+	}
+
 	protected final void moveLongDistance(double x, double y, double z) {
 		Vec3d vec = new Vec3d(x - npc.posX, y - npc.posY, z - npc.posZ);
 
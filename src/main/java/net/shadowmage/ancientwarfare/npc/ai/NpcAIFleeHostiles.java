@@ -10,10 +10,12 @@ import net.minecraft.entity.ai.RandomPositionGenerator;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Vec3d;
 import net.shadowmage.ancientwarfare.core.AncientWarfareCore;
+import net.shadowmage.ancientwarfare.core.util.EntityIndex;
 import net.shadowmage.ancientwarfare.npc.entity.NpcBase;
 import net.shadowmage.ancientwarfare.npc.entity.NpcCombat;
 import net.shadowmage.ancientwarfare.npc.entity.NpcPlayerOwned;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.LinkedHashSet;
@@ -30,6 +32,7 @@ public class NpcAIFleeHostiles extends NpcAI<NpcPlayerOwned> {
 	private int fearLevel = 0; // fear makes NPC's wait/flee for progressively longer periods
 	private boolean homeCompromised = false;
 	private LinkedHashSet<NpcCombat> nearbySoldiers = new LinkedHashSet<NpcCombat>();
+	private final List<EntityLiving> nearbyHostilesOrFriendlySoldiers = new ArrayList<>();
 
 	private int ticker = 0;
 	private int tickerMax = 5; // scan for hostiles every 5 ticks
@@ -92,7 +95,7 @@ public class NpcAIFleeHostiles extends NpcAI<NpcPlayerOwned> {
 	private void findNearbyRelevantEntities() {
 		npc.nearbyHostiles.clear();
 		nearbySoldiers.clear();
-		List nearbyHostilesOrFriendlySoldiers = this.npc.world.getEntitiesWithinAABB(EntityLiving.class, this.npc.getEntityBoundingBox().expand(this.distanceFromEntity, 3.0D, this.distanceFromEntity), this.hostileOrFriendlyCombatNpcSelector);
+		EntityIndex.INSTANCE.getEntitiesWithinAABB(this.npc.world, EntityLiving.class, this.npc.getEntityBoundingBox().expand(this.distanceFromEntity, 3.0D, this.distanceFromEntity), this.hostileOrFriendlyCombatNpcSelector, nearbyHostilesOrFriendlySoldiers);
 		if (nearbyHostilesOrFriendlySoldiers.isEmpty())
 			return;
 
@@ -107,6 +110,7 @@ public class NpcAIFleeHostiles extends NpcAI<NpcPlayerOwned> {
 					npc.nearbyHostiles.add((Entity) entity);
 			}
 		}
+		nearbyHostilesOrFriendlySoldiers.clear();
 	}
 
 	@Override
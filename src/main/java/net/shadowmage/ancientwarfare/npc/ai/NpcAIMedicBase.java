@@ -8,6 +8,7 @@ import net.minecraft.entity.ai.EntityAINearestAttackableTarget.Sorter;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.util.EnumHand;
 import net.minecraft.util.math.AxisAlignedBB;
+import net.shadowmage.ancientwarfare.core.util.EntityIndex;
 import net.shadowmage.ancientwarfare.npc.entity.NpcBase;
 
 import java.util.List;
@@ -49,7 +50,7 @@ public class NpcAIMedicBase extends NpcAI<NpcBase> {
 		injuredRecheckDelay = injuredRecheckDelayMax;
 		double dist = npc.getEntityAttribute(SharedMonsterAttributes.FOLLOW_RANGE).getAttributeValue();
 		AxisAlignedBB bb = npc.getEntityBoundingBox().expand(dist, dist / 2, dist);
-		List<EntityLivingBase> potentialTargets = npc.world.getEntitiesWithinAABB(EntityLivingBase.class, bb, selector);
+		List<EntityLivingBase> potentialTargets = EntityIndex.INSTANCE.getEntitiesWithinAABB(npc.world, EntityLivingBase.class, bb, selector);
 		if (potentialTargets.isEmpty()) {
 			return false;
 		}
@@ -4,11 +4,10 @@ import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.util.SoundCategory;
 import net.minecraft.util.math.AxisAlignedBB;
 import net.shadowmage.ancientwarfare.core.interfaces.ISinger;
+import net.shadowmage.ancientwarfare.core.util.EntityIndex;
 import net.shadowmage.ancientwarfare.core.util.SongPlayData;
 import net.shadowmage.ancientwarfare.npc.entity.NpcBase;
 
-import java.util.List;
-
 /*
  * Created by Olivier on 15/06/2015.
  */
@@ -56,8 +55,7 @@ public class NpcAISing extends NpcAI<NpcBase> {
 				if (playerCheckDelay <= 0) {
 					playerCheckDelay = PLAYER_DELAY;
 					AxisAlignedBB aabb = npc.getEntityBoundingBox().expand(PLAYER_RANGE, PLAYER_RANGE, PLAYER_RANGE);
-					List list = npc.world.getEntitiesWithinAABB(EntityPlayer.class, aabb);
-					if (!list.isEmpty()) {
+					if (EntityIndex.INSTANCE.countEntitiesWithinAABB(npc.world, EntityPlayer.class, aabb, null) > 0) {
 						setNextSong(data);
 					}
 				}
@@ -5,9 +5,11 @@ import net.minecraft.entity.SharedMonsterAttributes;
 import net.minecraft.init.MobEffects;
 import net.minecraft.potion.PotionEffect;
 import net.minecraft.util.math.AxisAlignedBB;
+import net.shadowmage.ancientwarfare.core.util.EntityIndex;
 import net.shadowmage.ancientwarfare.npc.ai.NpcAI;
 import net.shadowmage.ancientwarfare.npc.entity.NpcBase;
 
+import java.util.ArrayList;
 import java.util.List;
 
 public class NpcAIPlayerOwnedCommander extends NpcAI<NpcBase> {
@@ -22,6 +24,7 @@ public class NpcAIPlayerOwnedCommander extends NpcAI<NpcBase> {
 		}
 		return false;
 	};
+	private final List<NpcBase> potentialTargets = new ArrayList<>();
 
 	public NpcAIPlayerOwnedCommander(NpcBase npc) {
 		super(npc);
@@ -53,10 +56,11 @@ public class NpcAIPlayerOwnedCommander extends NpcAI<NpcBase> {
 		lastExecuted = npc.ticksExisted;
 		double dist = npc.getEntityAttribute(SharedMonsterAttributes.FOLLOW_RANGE).getAttributeValue();
 		AxisAlignedBB bb = npc.getEntityBoundingBox().expand(dist, dist / 2, dist);
-		List<NpcBase> potentialTargets = npc.world.getEntitiesWithinAABB(NpcBase.class, bb, selector);
+		EntityIndex.INSTANCE.getEntitiesWithinAABB(npc.world, NpcBase.class, bb, selector, potentialTargets);
 		for (NpcBase npcBase : potentialTargets) {
 			npcBase.addPotionEffect(new PotionEffect(effect));
 		}
+		potentialTargets.clear();
 	}
 
 	@Override
@@ -2,14 +2,11 @@ package net.shadowmage.ancientwarfare.npc.ai.owned;
 
 import net.minecraft.tileentity.TileEntity;
 import net.minecraft.util.math.BlockPos;
-import net.minecraft.util.math.MathHelper;
 import net.shadowmage.ancientwarfare.core.interfaces.IWorkSite;
-import net.shadowmage.ancientwarfare.core.util.WorldTools;
+import net.shadowmage.ancientwarfare.core.tile.WorksiteRegistry;
 import net.shadowmage.ancientwarfare.npc.ai.NpcAI;
 import net.shadowmage.ancientwarfare.npc.entity.NpcWorker;
 
-import java.util.List;
-
 public class NpcAIPlayerOwnedFindWorksite extends NpcAI<NpcWorker> {
 
 	private int lastExecuted = -1;//set to -1 default to trigger should execute lookup on first run
@@ -58,28 +55,8 @@ public class NpcAIPlayerOwnedFindWorksite extends NpcAI<NpcWorker> {
 	}
 
 	private void findWorkTarget() {
-		int x = MathHelper.floor(npc.posX);
-		int y = MathHelper.floor(npc.posY);
-		int z = MathHelper.floor(npc.posZ);
-		List<TileEntity> tiles = WorldTools.getTileEntitiesInArea(npc.world, x - range, y - range / 2, z - range, x + range, y + range / 2, z + range);
-		IWorkSite site;
-		TileEntity closestSite = null;
-		double closestDist = -1;
-		double dist;
-		for (TileEntity te : tiles) {
-			if (te instanceof IWorkSite) {
-				site = (IWorkSite) te;
-				if (!npc.hasCommandPermissions(site.getOwner()))
-					continue;
-				if (npc.canWorkAt(site.getWorkType()) && site.hasWork()) {
-					dist = npc.getDistanceSq(te.getPos().getX() + 0.5d, te.getPos().getY(), te.getPos().getZ() + 0.5d);
-					if (closestDist == -1 || dist < closestDist) {
-						closestDist = dist;
-						closestSite = te;
-					}
-				}
-			}
-		}
+		TileEntity closestSite = WorksiteRegistry.INSTANCE.getClosestWorksite(npc.world, npc.posX, npc.posY, npc.posZ, range, range / 2, npc::canWorkAt,
+				site -> npc.hasCommandPermissions(site.getOwner()) && site.hasWork());
 		if (closestSite != null) {
 			npc.autoWorkTarget = closestSite.getPos();
 		}
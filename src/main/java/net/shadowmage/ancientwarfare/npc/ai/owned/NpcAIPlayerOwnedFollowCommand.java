@@ -100,7 +100,7 @@ public class NpcAIPlayerOwnedFollowCommand extends NpcAI<NpcPlayerOwned> {
 		}
 		double sqDist = npc.getDistanceSq(moveTargetPos);
 		if (sqDist > MIN_RANGE) {
-			moveToPosition(moveTargetPos, sqDist);//not finished moving...move along path (or at least try)
+			moveToSharedPosition(moveTargetPos, sqDist);//not finished moving...move along path (or at least try)
 		} else {
 			npc.setPlayerCommand(null);//finished moving..clear the command...
 		}
@@ -136,7 +136,7 @@ public class NpcAIPlayerOwnedFollowCommand extends NpcAI<NpcPlayerOwned> {
 		}
 		double sqDist = npc.getDistanceSq(moveTargetPos);
 		if (sqDist > MIN_RANGE) {
-			moveToPosition(moveTargetPos, sqDist);//not finished moving...move along path (or at least try)
+			moveToSharedPosition(moveTargetPos, sqDist);//not finished moving...move along path (or at least try)
 		} else {
 			npc.setPlayerCommand(null);//finished moving..clear the command...
 		}
@@ -50,7 +50,7 @@ public class NpcAIPlayerOwnedGetFood extends NpcAI<NpcPlayerOwned> {
 		double dist = npc.getDistanceSq(pos.getX() + 0.5d, pos.getY(), pos.getZ() + 0.5d);
 		if (dist > AWNPCStatics.npcActionRange * AWNPCStatics.npcActionRange) {
 			npc.addAITask(TASK_MOVE);
-			moveToPosition(pos, dist);
+			moveToSharedPosition(pos, dist);
 		} else {
 			npc.removeAITask(TASK_MOVE);
 			tryUpkeep(pos);
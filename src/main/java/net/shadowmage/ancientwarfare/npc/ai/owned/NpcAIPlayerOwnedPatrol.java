@@ -72,7 +72,7 @@ public class NpcAIPlayerOwnedPatrol extends NpcAI<NpcBase> {
 			BlockPos pos = orders.get(patrolIndex);
 			double dist = npc.getDistanceSq(pos.getX() + 0.5d, pos.getY(), pos.getZ() + 0.5d);
 			if (dist > 2.d * 2.d) {
-				moveToPosition(pos, dist);
+				moveToSharedPosition(pos, dist);
 			} else {
 				atPoint = true;
 				ticksAtPoint = 0;
@@ -1,6 +1,7 @@
 package net.shadowmage.ancientwarfare.npc.ai.vehicle;
 
 import com.google.common.base.Predicate;
+import net.shadowmage.ancientwarfare.core.util.EntityIndex;
 import net.shadowmage.ancientwarfare.npc.ai.NpcAI;
 import net.shadowmage.ancientwarfare.npc.entity.NpcBase;
 import net.shadowmage.ancientwarfare.npc.entity.vehicle.IVehicleUser;
@@ -31,7 +32,7 @@ public class NpcAIFindVehicle<T extends NpcBase & IVehicleUser> extends NpcAI<T>
 			return;
 		}
 
-		List<VehicleBase> vehicles = npc.world.getEntitiesWithinAABB(VehicleBase.class, npc.getEntityBoundingBox().grow(SEARCH_DISTANCE), selector);
+		List<VehicleBase> vehicles = EntityIndex.INSTANCE.getEntitiesWithinAABB(npc.world, VehicleBase.class, npc.getEntityBoundingBox().grow(SEARCH_DISTANCE), selector);
 		vehicles.stream().filter(v -> !v.isBeingRidden() && v.vehicleType.canSoldiersPilot()).sorted(Comparator.comparing(v -> v.getDistanceSq(npc))).findFirst().ifPresent(v -> npc.setVehicle(v));
 	}
 }
@@ -55,6 +55,11 @@ public class AWNPCStatics extends ModConfiguration {
 	public static boolean npcAllowUpkeepAnyInventory = true;
 	public static int townMaxRange = 100;
 	public static int townUpdateFreq = 100; //5 second broadcast frequency
+	public static int npcRelationCacheTicks = 20;
+	public static int npcAILodNearRange = 32;
+	public static int npcAILodFarRange = 64;
+	public static int npcAILodMidInterval = 10;
+	public static int npcAILodFarInterval = 20;
 	public static boolean npcAIDebugMode = false;
 	public static double archerRange = 16.0;
 
@@ -138,6 +143,16 @@ public class AWNPCStatics extends ModConfiguration {
 
 		townUpdateFreq = config.get(serverOptions, "town_hall_ticks", townUpdateFreq, "Default=" + townUpdateFreq + "\n" + "How many game ticks should pass between Town Hall updates." + "This affect how an NPC can change its selected Town Hall by moving to different places.\n" + "Lower values will make an NPC change its Town Hall faster, but is more costly for a server.\n").getInt();
 
+		npcRelationCacheTicks = config.get(serverOptions, "npc_relation_cache_ticks", npcRelationCacheTicks, "Default=" + npcRelationCacheTicks + "\n" + "How many game ticks NPCs remember whether another player or their NPCs are on the same team or friends with their owner.\n" + "Lower values make NPCs react faster to team changes, but are more costly for a server when many NPCs look for targets.").getInt();
+
+		npcAILodNearRange = config.get(serverOptions, "npc_ai_lod_near_range", npcAILodNearRange, "Default=" + npcAILodNearRange + "\n" + "NPCs within this many blocks of a player, and NPCs that are fighting, look for new AI tasks at the normal rate.").getInt();
+
+		npcAILodFarRange = config.get(serverOptions, "npc_ai_lod_far_range", npcAILodFarRange, "Default=" + npcAILodFarRange + "\n" + "NPCs further than this many blocks from any player look for new AI tasks every npc_ai_lod_far_interval ticks,\n" + "NPCs between the near and far range every npc_ai_lod_mid_interval ticks.").getInt();
+
+		npcAILodMidInterval = config.get(serverOptions, "npc_ai_lod_mid_interval", npcAILodMidInterval, "Default=" + npcAILodMidInterval + "\n" + "How many game ticks pass between AI task evaluations of NPCs between the near and far range of players (normal rate is 3).\n" + "Higher values make NPCs away from players react slower, but are less costly for a server.").getInt();
+
+		npcAILodFarInterval = config.get(serverOptions, "npc_ai_lod_far_interval", npcAILodFarInterval, "Default=" + npcAILodFarInterval + "\n" + "How many game ticks pass between AI task evaluations of NPCs outside the far range of all players (normal rate is 3).\n" + "Higher values make unwatched towns react slower, but are less costly for a server.").getInt();
+
 		factionLossOnDeath = factionConfig.get(factionSettings, "faction_loss_on_kill", factionLossOnDeath, "Faction Loss On Kill\nDefault=10\n" + "How much faction standing should be lost if you or one of your minions kills a faction based NPC.").getInt();
 
 		factionGainOnTrade = factionConfig.get(factionSettings, "faction_gain_on_trade", factionGainOnTrade, "Faction Gain On Trade\nDefault=2\n" + "How much faction standing should be gained when you trade with a faction based trader.").getInt();
@@ -0,0 +1,193 @@
+package net.shadowmage.ancientwarfare.npc.entity;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import net.minecraft.block.BlockBed;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraftforge.event.world.ChunkEvent;
+import net.minecraftforge.event.world.WorldEvent;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.shadowmage.ancientwarfare.core.util.BlockChangeTracker;
+
+import javax.annotation.Nullable;
+import java.util.HashMap;
+import java.util.Map;
+
+/*
+ * Per world index of the beds that NPCs may sleep in, so that finding a bed does not read every block around the NPC.<br>
+ * A chunk is indexed from its tile entities (beds have one) the first time it is queried and kept up to date from block
+ * changes after that. Chunks that are not populated yet are not kept, as block changes during population are not announced.<br>
+ * Beds handed out are reserved for the NPC until it releases them, which it does when it is removed from the world, so that NPCs looking
+ * for a bed at the same time do not all walk to the same one.<br>
+ * Town halls and upkeep locations are not indexed, NPCs are given their positions instead of searching for them.
+ */
+public final class BedIndex implements BlockChangeTracker.IBlockChangeListener {
+
+	public static final BedIndex INSTANCE = new BedIndex();
+
+	private final Map<World, WorldBeds> worldBeds = new HashMap<>();
+
+	private BedIndex() {
+	}
+
+	/*
+	 * Finds the closest unoccupied bed within range of the NPC that is not reserved by another NPC and reserves it
+	 *
+	 * @return the position of the foot part of the bed, or null if there is none
+	 */
+	@Nullable
+	public BlockPos findFreeBed(NpcBase npc, int range) {
+		World world = npc.world;
+		WorldBeds data = worldBeds.computeIfAbsent(world, w -> new WorldBeds());
+		int originX = MathHelper.floor(npc.posX);
+		int originY = MathHelper.floor(npc.posY);
+		int originZ = MathHelper.floor(npc.posZ);
+		BlockPos closest = null;
+		double closestDist = 0;
+		for (int cx = (originX - range) >> 4; cx <= (originX + range) >> 4; cx++) {
+			for (int cz = (originZ - range) >> 4; cz <= (originZ + range) >> 4; cz++) {
+				LongOpenHashSet beds = getChunkBeds(world, data, cx, cz);
+				if (beds == null) {
+					continue;
+				}
+				LongIterator it = beds.iterator();
+				while (it.hasNext()) {
+					long key = it.nextLong();
+					BlockPos pos = BlockPos.fromLong(key);
+					if (Math.abs(pos.getX() - originX) > range || Math.abs(pos.getY() - originY) > range || Math.abs(pos.getZ() - originZ) > range) {
+						continue;
+					}
+					IBlockState state = world.getBlockState(pos);
+					if (!isBedFoot(state)) {
+						it.remove();//missed change, e.g. a block set without notifying clients
+						continue;
+					}
+					if (state.getValue(BlockBed.OCCUPIED) || isReservedByOther(data, world, key, npc)) {
+						continue;
+					}
+					double dist = pos.distanceSqToCenter(originX, originY, originZ);
+					if (closest == null || dist < closestDist) {
+						closest = pos;
+						closestDist = dist;
+					}
+				}
+			}
+		}
+		if (closest != null) {
+			data.reservations.put(closest.toLong(), npc);
+		}
+		return closest;
+	}
+
+	/*
+	 * Reserves the bed for the NPC, e.g. a bed it remembered from before it was unloaded
+	 *
+	 * @return false if the bed is reserved by another NPC
+	 */
+	public boolean reserve(NpcBase npc, BlockPos bed) {
+		WorldBeds data = worldBeds.computeIfAbsent(npc.world, w -> new WorldBeds());
+		long key = bed.toLong();
+		if (isReservedByOther(data, npc.world, key, npc)) {
+			return false;
+		}
+		data.reservations.put(key, npc);
+		return true;
+	}
+
+	public void release(NpcBase npc, BlockPos bed) {
+		WorldBeds data = worldBeds.get(npc.world);
+		if (data != null && data.reservations.get(bed.toLong()) == npc) {
+			data.reservations.remove(bed.toLong());
+		}
+	}
+
+	@Override
+	public void onBlockChanged(World world, BlockPos pos, IBlockState oldState, IBlockState newState) {
+		WorldBeds data = worldBeds.get(world);
+		if (data == null) {
+			return;
+		}
+		LongOpenHashSet beds = data.bedsByChunk.get(ChunkPos.asLong(pos.getX() >> 4, pos.getZ() >> 4));
+		if (beds == null) {
+			return;//not indexed yet, picked up when the chunk is first queried
+		}
+		if (isBedFoot(newState)) {
+			beds.add(pos.toLong());
+		} else if (isBedFoot(oldState)) {
+			beds.remove(pos.toLong());
+			data.reservations.remove(pos.toLong());
+		}
+	}
+
+	@Override
+	public void onSectionChanged(World world, int sectionX, int sectionY, int sectionZ) {
+		WorldBeds data = worldBeds.get(world);
+		if (data != null) {
+			data.bedsByChunk.remove(ChunkPos.asLong(sectionX, sectionZ));//reindexed from its tile entities on the next query
+		}
+	}
+
+	@SubscribeEvent
+	public void onChunkUnload(ChunkEvent.Unload evt) {
+		WorldBeds data = worldBeds.get(evt.getWorld());
+		if (data != null) {
+			data.bedsByChunk.remove(ChunkPos.asLong(evt.getChunk().x, evt.getChunk().z));
+		}
+	}
+
+	@SubscribeEvent
+	public void onWorldUnload(WorldEvent.Unload evt) {
+		worldBeds.remove(evt.getWorld());
+	}
+
+	@Nullable
+	private LongOpenHashSet getChunkBeds(World world, WorldBeds data, int cx, int cz) {
+		long chunkKey = ChunkPos.asLong(cx, cz);
+		LongOpenHashSet beds = data.bedsByChunk.get(chunkKey);
+		if (beds != null) {
+			return beds;
+		}
+		Chunk chunk = world.getChunkProvider().getLoadedChunk(cx, cz);
+		if (chunk == null) {
+			return null;
+		}
+		beds = new LongOpenHashSet();
+		for (TileEntity te : chunk.getTileEntityMap().values()) {
+			if (isBedFoot(chunk.getBlockState(te.getPos()))) {
+				beds.add(te.getPos().toLong());
+			}
+		}
+		if (chunk.isPopulated()) {
+			data.bedsByChunk.put(chunkKey, beds);
+		}
+		return beds;
+	}
+
+	private boolean isReservedByOther(WorldBeds data, World world, long bed, NpcBase npc) {
+		NpcBase holder = data.reservations.get(bed);
+		if (holder == null || holder == npc) {
+			return false;
+		}
+		if (holder.isDead || world.getEntityByID(holder.getEntityId()) != holder) {
+			data.reservations.remove(bed);//holder is gone
+			return false;
+		}
+		return true;
+	}
+
+	private static boolean isBedFoot(IBlockState state) {
+		return state.getBlock() instanceof BlockBed && state.getValue(BlockBed.PART) == BlockBed.EnumPartType.FOOT;
+	}
+
+	private static final class WorldBeds {
+		private final Long2ObjectOpenHashMap<LongOpenHashSet> bedsByChunk = new Long2ObjectOpenHashMap<>();
+		private final Long2ObjectOpenHashMap<NpcBase> reservations = new Long2ObjectOpenHashMap<>();
+	}
+}
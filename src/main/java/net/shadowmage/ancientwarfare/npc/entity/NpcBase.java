@@ -45,7 +45,9 @@ import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
 import net.minecraftforge.items.CapabilityItemHandler;
 import net.shadowmage.ancientwarfare.core.interfaces.IEntityPacketHandler;
+import net.shadowmage.ancientwarfare.core.interfaces.ISyncedEntity;
 import net.shadowmage.ancientwarfare.core.network.NetworkHandler;
+import net.shadowmage.ancientwarfare.core.network.EntitySyncData;
 import net.shadowmage.ancientwarfare.core.network.PacketEntity;
 import net.shadowmage.ancientwarfare.core.owner.IOwnable;
 import net.shadowmage.ancientwarfare.core.owner.Owner;
@@ -66,14 +68,13 @@ import net.shadowmage.ancientwarfare.vehicle.pathing.Node;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
-import java.util.ArrayList;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.UUID;
 
 import static net.shadowmage.ancientwarfare.npc.config.AWNPCStatics.npcLevelDamageMultiplier;
 
-public abstract class NpcBase extends EntityCreature implements IEntityAdditionalSpawnData, IOwnable, IEntityPacketHandler, IPathableEntity, INpc {
+public abstract class NpcBase extends EntityCreature implements IEntityAdditionalSpawnData, IOwnable, IEntityPacketHandler, ISyncedEntity, IPathableEntity, INpc {
 
 	private static final DataParameter<Integer> AI_TASKS = EntityDataManager.createKey(NpcBase.class, DataSerializers.VARINT);
 	private static final DataParameter<BlockPos> BED_POS = EntityDataManager.createKey(NpcBase.class, DataSerializers.BLOCK_POS);
@@ -81,7 +82,12 @@ public abstract class NpcBase extends EntityCreature implements IEntityAdditiona
 	private static final DataParameter<Boolean> IS_SLEEPING = EntityDataManager.createKey(NpcBase.class, DataSerializers.BOOLEAN);
 	private static final DataParameter<Boolean> SWINGING_ARMS = EntityDataManager.createKey(NpcBase.class, DataSerializers.BOOLEAN);
 
-	private Owner owner = Owner.EMPTY;
+	private final EntitySyncData syncData = new EntitySyncData();
+	private final EntitySyncData.ObjectField<Owner> owner = syncData.addObject(Owner.EMPTY, null, (data, o) -> o.serializeToBuffer(data), Owner::new);
+	private final EntitySyncData.IntField attackTargetId = syncData.addInt(0, (oldValue, newValue) -> {
+		Entity target = world.getEntityByID(newValue);
+		setAttackTarget(target instanceof EntityLivingBase ? (EntityLivingBase) target : null);
+	});
 	protected String followingPlayerName;//set/cleared onInteract from player if player.team==this.team
 
 	private NpcLevelingStats levelingStats;
@@ -108,7 +114,7 @@ public abstract class NpcBase extends EntityCreature implements IEntityAdditiona
 	private int attackDamage = -1;//faction based only
 	private int armorValue = -1;//faction based only
 	private int maxHealthOverride = -1;
-	private String customTexRef = "";//might as well allow for player-owned as well...
+	private final EntitySyncData.ObjectField<String> customTexRef = syncData.addString("", (oldValue, newValue) -> updateTexture());//might as well allow for player-owned as well...
 	private boolean usesPlayerSkin = false;
 
 	private BlockPos cachedBedPos;
@@ -117,6 +123,13 @@ public abstract class NpcBase extends EntityCreature implements IEntityAdditiona
 	private float originalWidth;
 	private float originalHeight;
 
+	/*
+	 * ticks between evaluations of not running AI tasks, the vanilla rate while a player is near or the npc is fighting
+	 */
+	public static final int AI_FULL_RATE_INTERVAL = 3;
+	private static final int AI_LOD_UPDATE_TICKS = 20;
+	private int aiUpdateInterval = AI_FULL_RATE_INTERVAL;
+
 	public NpcBase(World par1World) {
 		super(par1World);
 		levelingStats = new NpcLevelingStats(this);
@@ -124,6 +137,9 @@ public abstract class NpcBase extends EntityCreature implements IEntityAdditiona
 		this.inventoryHandsDropChances = new float[] {1.f, 1.f};
 		this.navigator = new NpcNavigator(this);
 		setPathPriority(PathNodeType.DOOR_WOOD_CLOSED, 0);
+		//stagger task evaluations of npcs across ticks
+		tasks.tickCount = getEntityId() & 0xFFFF;
+		targetTasks.tickCount = getEntityId() & 0xFFFF;
 	}
 
 	@Override
@@ -169,20 +185,20 @@ public abstract class NpcBase extends EntityCreature implements IEntityAdditiona
 			customTexRef = "";
 		}
 		if (!world.isRemote) {
-			if (!customTexRef.equals(this.customTexRef)) {
-				PacketEntity pkt = new PacketEntity(this);
-				if (customTexRef.startsWith("Player:")) {
-					String name = customTexRef.split(":", 2)[1];
-					NBTTagCompound tagCompound = AncientWarfareNPC.proxy.cacheProfile((WorldServer) world, name);
-					if (tagCompound != null)
-						pkt.packetData.setTag("profileTex", tagCompound);
+			if (!customTexRef.equals(this.customTexRef.get()) && customTexRef.startsWith("Player:")) {
+				String name = customTexRef.split(":", 2)[1];
+				NBTTagCompound tagCompound = AncientWarfareNPC.proxy.cacheProfile((WorldServer) world, name);
+				if (tagCompound != null) {
+					//the profile has to reach the client with the texture, other changes go through the sync data
+					PacketEntity pkt = new PacketEntity(this);
+					pkt.packetData.setTag("profileTex", tagCompound);
+					pkt.packetData.setString("customTex", customTexRef);
+					NetworkHandler.sendToAllTracking(this, pkt);
 				}
-				pkt.packetData.setString("customTex", customTexRef);
-				NetworkHandler.sendToAllTracking(this, pkt);
 			}
-			this.customTexRef = customTexRef;
+			this.customTexRef.set(customTexRef);
 		} else {
-			this.customTexRef = customTexRef;
+			this.customTexRef.set(customTexRef);
 			this.updateTexture();
 		}
 	}
@@ -196,7 +212,7 @@ public abstract class NpcBase extends EntityCreature implements IEntityAdditiona
 	}
 
 	public String getCustomTex() {
-		return customTexRef;
+		return customTexRef.get();
 	}
 
 	public int getArmorValueOverride() {
@@ -524,9 +540,7 @@ public abstract class NpcBase extends EntityCreature implements IEntityAdditiona
 	}
 
 	private void updateAttackTargetClient() {
-		PacketEntity pkt = new PacketEntity(this);
-		pkt.packetData.setInteger("attackTarget", getAttackTarget() == null ? 0 : getAttackTarget().getEntityId());
-		NetworkHandler.sendToAllTracking(this, pkt);
+		attackTargetId.set(getAttackTarget() == null ? 0 : getAttackTarget().getEntityId());
 	}
 
 	@Override
@@ -782,8 +796,8 @@ public abstract class NpcBase extends EntityCreature implements IEntityAdditiona
 	public void writeSpawnData(ByteBuf buffer) {
 		buffer.writeLong(getUniqueID().getMostSignificantBits());
 		buffer.writeLong(getUniqueID().getLeastSignificantBits());
-		owner.serializeToBuffer(buffer);
-		ByteBufUtils.writeUTF8String(buffer, customTexRef);
+		owner.get().serializeToBuffer(buffer);
+		ByteBufUtils.writeUTF8String(buffer, customTexRef.get());
 	}
 
 	@Override
@@ -791,8 +805,8 @@ public abstract class NpcBase extends EntityCreature implements IEntityAdditiona
 		long l1 = buffer.readLong();
 		long l2 = buffer.readLong();
 		this.entityUniqueID = new UUID(l1, l2);
-		owner = new Owner(buffer);
-		customTexRef = ByteBufUtils.readUTF8String(buffer);
+		owner.set(new Owner(buffer));
+		customTexRef.set(ByteBufUtils.readUTF8String(buffer));
 		this.updateTexture();
 	}
 
@@ -803,7 +817,11 @@ public abstract class NpcBase extends EntityCreature implements IEntityAdditiona
 		if (ticksExisted % 200 == 0 && getHealth() < getMaxHealth() && isEntityAlive() && (!requiresUpkeep() || getFoodRemaining() > 0)) {
 			setHealth(getHealth() + 1);
 		}
+		if (!world.isRemote && ((aiUpdateInterval != AI_FULL_RATE_INTERVAL && isFighting()) || (ticksExisted + getEntityId()) % AI_LOD_UPDATE_TICKS == 0)) {
+			updateAILevelOfDetail();
+		}
 		super.onUpdate();
+		syncData.update(this);
 		if (getHeldItemMainhand() != null) {
 			try {//Inserting Item#onUpdate, to let it do whatever it needs to do. Used by QuiverBow for burst fire
 				getHeldItemMainhand().updateAnimation(world, this, 0, true);
@@ -814,6 +832,37 @@ public abstract class NpcBase extends EntityCreature implements IEntityAdditiona
 		world.profiler.endSection();
 	}
 
+	private boolean isFighting() {
+		return getAttackTarget() != null || getRevengeTarget() != null;
+	}
+
+	/*
+	 * Slows down the evaluation of AI tasks that are not running for npcs away from players, running tasks are still updated every tick
+	 */
+	private void updateAILevelOfDetail() {
+		int interval = AI_FULL_RATE_INTERVAL;
+		if (!isFighting()) {
+			double closestDistSq = Double.MAX_VALUE;
+			for (EntityPlayer player : world.playerEntities) {
+				if (!player.isSpectator()) {
+					closestDistSq = Math.min(closestDistSq, getDistanceSq(player));
+				}
+			}
+			if (closestDistSq > AWNPCStatics.npcAILodFarRange * AWNPCStatics.npcAILodFarRange) {
+				interval = AWNPCStatics.npcAILodFarInterval;
+			} else if (closestDistSq > AWNPCStatics.npcAILodNearRange * AWNPCStatics.npcAILodNearRange) {
+				interval = AWNPCStatics.npcAILodMidInterval;
+			}
+		}
+		aiUpdateInterval = Math.max(interval, 1);
+		tasks.tickRate = aiUpdateInterval;
+		targetTasks.tickRate = aiUpdateInterval;
+	}
+
+	public int getAIUpdateInterval() {
+		return aiUpdateInterval;
+	}
+
 	@Override
 	public boolean canAttackClass(Class claz) {
 		return !EntityFlying.class.isAssignableFrom(claz);
@@ -857,39 +906,34 @@ public abstract class NpcBase extends EntityCreature implements IEntityAdditiona
 
 	@Override
 	public void setOwner(EntityPlayer player) {
-		owner = new Owner(player);
+		owner.set(new Owner(player));
 	}
 
 	@Override
 	public void setOwner(Owner owner) {
-		this.owner = owner;
+		this.owner.set(owner);
 	}
 
 	public void setOwnerName(String name) {
 		if (name == null) {
 			name = "";
 		}
-		owner = new Owner(world, name);
-		if (!world.isRemote && !name.equals(owner.getName())) {
-			PacketEntity pkt = new PacketEntity(this);
-			pkt.packetData = owner.serializeToNBT(new NBTTagCompound());
-			NetworkHandler.sendToAllTracking(this, pkt);
-		}
+		owner.set(new Owner(world, name));
 	}
 
 	@Override
 	public boolean isOwner(EntityPlayer player) {
-		return owner.isOwnerOrSameTeamOrFriend(player);
+		return owner.get().isOwnerOrSameTeamOrFriend(player);
 	}
 
 	@Override
 	public Owner getOwner() {
-		return owner;
+		return owner.get();
 	}
 
 	@Override
 	public Team getTeam() {
-		return world.getScoreboard().getPlayersTeam(owner.getName());
+		return world.getScoreboard().getPlayersTeam(owner.get().getName());
 	}
 
 	public boolean hasCommandPermissions(Owner owner) {
@@ -897,7 +941,7 @@ public abstract class NpcBase extends EntityCreature implements IEntityAdditiona
 	}
 
 	public boolean hasCommandPermissions(UUID playerId, String playerName) {
-		return owner.playerHasCommandPermissions(world, playerId, playerName);
+		return owner.get().playerHasCommandPermissions(world, playerId, playerName);
 	}
 
 	@Override
@@ -1046,7 +1090,7 @@ public abstract class NpcBase extends EntityCreature implements IEntityAdditiona
 		if (tag.hasKey("aiEnabled")) {
 			setIsAIEnabled(tag.getBoolean("aiEnabled"));
 		}
-		owner = Owner.deserializeFromNBT(tag);
+		owner.set(Owner.deserializeFromNBT(tag));
 	}
 
 	private void writeBaseTags(NBTTagCompound tag) {
@@ -1065,9 +1109,9 @@ public abstract class NpcBase extends EntityCreature implements IEntityAdditiona
 		tag.setInteger("food", getFoodRemaining());
 		tag.setInteger("attackDamageOverride", attackDamage);
 		tag.setInteger("armorValueOverride", armorValue);
-		tag.setString("customTex", customTexRef);
+		tag.setString("customTex", customTexRef.get());
 		tag.setBoolean("aiEnabled", aiEnabled);
-		owner.serializeToNBT(tag);
+		owner.get().serializeToNBT(tag);
 	}
 
 	public final ResourceLocation getTexture() {
@@ -1079,9 +1123,9 @@ public abstract class NpcBase extends EntityCreature implements IEntityAdditiona
 
 	public final void updateTexture() {
 		usesPlayerSkin = false;
-		if (customTexRef.startsWith("Player:")) {
+		if (customTexRef.get().startsWith("Player:")) {
 			try {
-				currentTexture = AncientWarfareNPC.proxy.getPlayerSkin(customTexRef.split(":", 2)[1]);
+				currentTexture = AncientWarfareNPC.proxy.getPlayerSkin(customTexRef.get().split(":", 2)[1]);
 				usesPlayerSkin = true;
 			}
 			catch (Throwable ignored) {
@@ -1091,12 +1135,15 @@ public abstract class NpcBase extends EntityCreature implements IEntityAdditiona
 		}
 	}
 
+	@Override
+	public EntitySyncData getSyncData() {
+		return syncData;
+	}
+
 	@Override
 	public void handlePacketData(NBTTagCompound tag) {
-		if (tag.hasKey("ownerName")) {
-			owner = Owner.deserializeFromNBT(tag);
-		} else if (tag.hasKey("profileTex") && tag.hasKey("customTex")) {
-			customTexRef = tag.getString("customTex");
+		if (tag.hasKey("profileTex") && tag.hasKey("customTex")) {
+			customTexRef.set(tag.getString("customTex"));
 			NBTTagCompound tah = tag.getCompoundTag("profileTex");
 			if (world.isRemote) {
 				try {
@@ -1106,11 +1153,6 @@ public abstract class NpcBase extends EntityCreature implements IEntityAdditiona
 				}
 			}
 			updateTexture();
-		} else if (tag.hasKey("customTex")) {
-			setCustomTexRef(tag.getString("customTex"));
-		} else if (tag.hasKey("attackTarget")) {
-			int entityId = tag.getInteger("attackTarget");
-			setAttackTarget((EntityLivingBase) world.getEntityByID(entityId));
 		}
 	}
 
@@ -1118,52 +1160,32 @@ public abstract class NpcBase extends EntityCreature implements IEntityAdditiona
 		return getDistanceSq(pos.getX() + 0.5d, pos.getY(), pos.getZ() + 0.5d);
 	}
 
+	@Override
+	public void onRemovedFromWorld() {
+		super.onRemovedFromWorld();
+		if (!world.isRemote && foundBed) {
+			BedIndex.INSTANCE.release(this, cachedBedPos);//reserved again from the saved position when the npc is loaded
+		}
+	}
+
 	public BlockPos findBed() {
+		if (foundBed && !BedIndex.INSTANCE.reserve(this, cachedBedPos)) {
+			foundBed = false; // claimed by another npc
+		}
 		if (!foundBed) {
-			int originX = MathHelper.floor(this.posX);
-			int originY = MathHelper.floor(this.posY);
-			int originZ = MathHelper.floor(this.posZ);
-			int maxSearchRange = 6;
-			int minX = originX - maxSearchRange;
-			int maxX = originX + maxSearchRange;
-			int minY = originY - maxSearchRange;
-			int maxY = originY + maxSearchRange;
-			int minZ = originZ - maxSearchRange;
-			int maxZ = originZ + maxSearchRange;
-			List<BlockPos> foundBeds = new ArrayList<>();
-			for (int x = minX; x <= maxX; x++) {
-				for (int y = minY; y <= maxY; y++) {
-					for (int z = minZ; z <= maxZ; z++) {
-						IBlockState state = world.getBlockState(new BlockPos(x, y, z));
-						if (state.getBlock() instanceof BlockBed) {
-							if (state.getValue(BlockBed.PART) != BlockBed.EnumPartType.FOOT)
-								continue;
-							if (!state.getValue(BlockBed.OCCUPIED)) { // occupied check
-								foundBeds.add(new BlockPos(x, y, z));
-							}
-						}
-					}
-				}
-			}
-
-			int closetBedIndex = -1;
-			for (int i = 0; i < foundBeds.size(); i++) {
-				double bedDistance = foundBeds.get(i).distanceSqToCenter(originX, originY, originZ);
-				if ((closetBedIndex == -1) || (bedDistance < foundBeds.get(closetBedIndex).distanceSqToCenter(originX, originY, originZ)))
-					closetBedIndex = i;
-			}
-			if (closetBedIndex == -1) {
-				foundBed = false;
+			BlockPos bedPos = BedIndex.INSTANCE.findFreeBed(this, 6);
+			if (bedPos == null) {
 				return null;
 			}
 			foundBed = true;
-			cachedBedPos = foundBeds.get(closetBedIndex);
+			cachedBedPos = bedPos;
 		}
 
 		IBlockState state = world.getBlockState(cachedBedPos);
 		if (state.getBlock() instanceof BlockBed) {
 			return cachedBedPos;
 		} else {
+			BedIndex.INSTANCE.release(this, cachedBedPos);
 			foundBed = false;
 			return null; // try again in a while
 		}
@@ -1176,6 +1198,7 @@ public abstract class NpcBase extends EntityCreature implements IEntityAdditiona
 			IBlockState state = world.getBlockState(pos);
 			if (state.getValue(BlockBed.OCCUPIED)) {
 				// occupied check
+				BedIndex.INSTANCE.release(this, cachedBedPos);
 				foundBed = false;
 				return false;
 			}
@@ -20,6 +20,7 @@ import net.shadowmage.ancientwarfare.npc.ai.NpcAI;
 import net.shadowmage.ancientwarfare.npc.ai.owned.NpcAIPlayerOwnedRideHorse;
 import net.shadowmage.ancientwarfare.npc.config.AWNPCStatics;
 import net.shadowmage.ancientwarfare.npc.entity.faction.NpcFaction;
+import net.shadowmage.ancientwarfare.npc.faction.HostilityCache;
 import net.shadowmage.ancientwarfare.npc.npc_command.NpcCommand.Command;
 import net.shadowmage.ancientwarfare.npc.npc_command.NpcCommand.CommandType;
 import net.shadowmage.ancientwarfare.npc.orders.UpkeepOrder;
@@ -180,7 +181,7 @@ public abstract class NpcPlayerOwned extends NpcBase implements IKeepFood, INpc
 		if (NpcAI.isAlwaysHostileToNpcs(entityTarget))
 			return true;
 		else if ((entityTarget instanceof NpcPlayerOwned) || (entityTarget instanceof EntityPlayer)) {
-			return !getOwner().isOwnerOrSameTeamOrFriend(entityTarget);
+			return !HostilityCache.INSTANCE.isOwnerOrSameTeamOrFriend(world, getOwner(), entityTarget);
 		} else if (entityTarget instanceof NpcFaction) {
 			return ((NpcFaction) entityTarget).isHostileTowards(this); // hostility is based on faction standing
 		} else {
@@ -16,6 +16,7 @@ import net.shadowmage.ancientwarfare.npc.config.AWNPCStatics;
 import net.shadowmage.ancientwarfare.npc.entity.NpcBase;
 import net.shadowmage.ancientwarfare.npc.entity.NpcPlayerOwned;
 import net.shadowmage.ancientwarfare.npc.faction.FactionTracker;
+import net.shadowmage.ancientwarfare.npc.faction.HostilityCache;
 import net.shadowmage.ancientwarfare.npc.registry.FactionRegistry;
 import net.shadowmage.ancientwarfare.npc.registry.NpcDefault;
 import net.shadowmage.ancientwarfare.npc.registry.NpcDefaultsRegistry;
@@ -82,15 +83,15 @@ public abstract class NpcFaction extends NpcBase {
 		if (NpcAI.isAlwaysHostileToNpcs(e))
 			return true;
 		if (e instanceof EntityPlayer) {
-			int standing = FactionTracker.INSTANCE.getStandingFor(world, e.getName(), getFaction());
-			if (getNpcFullType().endsWith("elite")) {
+			int standing = HostilityCache.INSTANCE.getStandingFor(world, e.getName(), getFaction());
+			if (isElite()) {
 				standing -= 50;
 			}
 			return standing < 0;
 		} else if (e instanceof NpcPlayerOwned) {
 			NpcBase npc = (NpcBase) e;
-			int standing = FactionTracker.INSTANCE.getStandingFor(world, npc.getOwner().getName(), getFaction());
-			if (getNpcFullType().endsWith("elite")) {
+			int standing = HostilityCache.INSTANCE.getStandingFor(world, npc.getOwner().getName(), getFaction());
+			if (isElite()) {
 				standing -= 50;
 			}
 			return standing < 0;
@@ -105,6 +106,11 @@ public abstract class NpcFaction extends NpcBase {
 		return false;
 	}
 
+	private boolean isElite() {
+		//faction npcs have no subtype, so the full type only differs from the type by the faction prefix
+		return getNpcType().endsWith("elite");
+	}
+
 	@Override
 	public boolean canTarget(Entity e) {
 		if (e instanceof NpcFaction) {
@@ -41,6 +41,7 @@ public class FactionTracker {
 	private void onPlayerLogin(EntityPlayer player) {
 		FactionData data = AWGameData.INSTANCE.getData(player.world, FactionData.class);
 		data.onPlayerLogin(player);
+		HostilityCache.INSTANCE.onStandingChanged(player.getName());
 		sendFactionEntry(player, data);
 	}
 
@@ -50,6 +51,7 @@ public class FactionTracker {
 		}
 		FactionData data = AWGameData.INSTANCE.getData(world, FactionData.class);
 		data.adjustStandingFor(playerName, factionName, adjustment);
+		HostilityCache.INSTANCE.onStandingChanged(playerName);
 		sendFactionUpdate(world, playerName, factionName, data);
 	}
 
@@ -59,6 +61,7 @@ public class FactionTracker {
 		}
 		FactionData data = AWGameData.INSTANCE.getData(world, FactionData.class);
 		data.setStandingFor(playerName, factionName, setting);
+		HostilityCache.INSTANCE.onStandingChanged(playerName);
 		sendFactionUpdate(world, playerName, factionName, data);
 	}
 
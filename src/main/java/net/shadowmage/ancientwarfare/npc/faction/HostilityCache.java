@@ -0,0 +1,111 @@
+package net.shadowmage.ancientwarfare.npc.faction;
+
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2LongOpenHashMap;
+import net.minecraft.entity.Entity;
+import net.minecraft.world.World;
+import net.minecraftforge.event.world.WorldEvent;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.shadowmage.ancientwarfare.core.owner.IOwnable;
+import net.shadowmage.ancientwarfare.core.owner.Owner;
+import net.shadowmage.ancientwarfare.npc.config.AWNPCStatics;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/*
+ * Server side cache of the relations that NPC hostility checks are based on, so that target selection in large fights does not
+ * repeat the faction data, scoreboard team and friend list lookups for every target candidate.<br>
+ * Player standings are cached until they are changed through the FactionTracker.<br>
+ * Owner relations depend on scoreboard teams and mod friend lists, which do not announce changes, so they are only
+ * trusted for npcRelationCacheTicks.
+ */
+public final class HostilityCache {
+
+	public static final HostilityCache INSTANCE = new HostilityCache();
+
+	/*
+	 * player name -> faction name -> standing
+	 */
+	private final Map<String, Object2IntOpenHashMap<String>> standings = new HashMap<>();
+	/*
+	 * owner id -> other player id -> expiry time << 1 | 1 if friendly
+	 */
+	private final Map<UUID, Object2LongOpenHashMap<UUID>> ownerRelations = new HashMap<>();
+	private long nextPurgeTime = 0;
+
+	private HostilityCache() {
+	}
+
+	public int getStandingFor(World world, String playerName, String factionName) {
+		if (world.isRemote) {
+			return FactionTracker.INSTANCE.getStandingFor(world, playerName, factionName);
+		}
+		Object2IntOpenHashMap<String> playerStandings = standings.computeIfAbsent(playerName, k -> new Object2IntOpenHashMap<>());
+		if (playerStandings.containsKey(factionName)) {
+			return playerStandings.getInt(factionName);
+		}
+		int standing = FactionTracker.INSTANCE.getStandingFor(world, playerName, factionName);
+		playerStandings.put(factionName, standing);
+		return standing;
+	}
+
+	/*
+	 * @return true if the entity (or the owner of it if it is ownable) is the owner, on the same team or a friend of the owner
+	 */
+	public boolean isOwnerOrSameTeamOrFriend(World world, Owner owner, Entity entity) {
+		if (world.isRemote) {
+			return owner.isOwnerOrSameTeamOrFriend(entity);
+		}
+		UUID otherId;
+		String otherName;
+		if (entity instanceof IOwnable) {
+			Owner other = ((IOwnable) entity).getOwner();
+			otherId = other.getUUID();
+			otherName = other.getName();
+		} else {
+			otherId = entity.getUniqueID();
+			otherName = entity.getName();
+		}
+		long time = world.getTotalWorldTime();
+		if (time >= nextPurgeTime) {
+			purgeExpiredRelations(time);
+		}
+		Object2LongOpenHashMap<UUID> relations = ownerRelations.computeIfAbsent(owner.getUUID(), k -> new Object2LongOpenHashMap<>());
+		if (relations.containsKey(otherId)) {
+			long relation = relations.getLong(otherId);
+			if (relation >> 1 > time) {
+				return (relation & 1) == 1;
+			}
+		}
+		boolean friendly = owner.isOwnerOrSameTeamOrFriend(entity.world, otherId, otherName);
+		relations.put(otherId, (time + AWNPCStatics.npcRelationCacheTicks) << 1 | (friendly ? 1 : 0));
+		return friendly;
+	}
+
+	/*
+	 * Drops the relations that expired, and owners without any relations left, so that relations of owners and players that
+	 * are no longer around do not pile up
+	 */
+	private void purgeExpiredRelations(long time) {
+		nextPurgeTime = time + Math.max(1, AWNPCStatics.npcRelationCacheTicks);
+		ownerRelations.values().removeIf(relations -> {
+			relations.values().removeIf(relation -> relation >> 1 <= time);
+			return relations.isEmpty();
+		});
+	}
+
+	void onStandingChanged(String playerName) {
+		standings.remove(playerName);
+	}
+
+	@SubscribeEvent
+	public void onWorldUnload(WorldEvent.Unload evt) {
+		if (!evt.getWorld().isRemote && evt.getWorld().provider.getDimension() == 0) {
+			standings.clear();
+			ownerRelations.clear();
+			nextPurgeTime = 0;
+		}
+	}
+}
@@ -1,9 +1,6 @@
 package net.shadowmage.ancientwarfare.npc.network;
 
 import io.netty.buffer.ByteBuf;
-import io.netty.buffer.ByteBufInputStream;
-import io.netty.buffer.ByteBufOutputStream;
-import net.minecraft.nbt.CompressedStreamTools;
 import net.minecraft.nbt.NBTTagCompound;
 import net.shadowmage.ancientwarfare.core.network.PacketBase;
 import net.shadowmage.ancientwarfare.npc.faction.FactionTracker;
@@ -24,9 +21,8 @@ public class PacketFactionUpdate extends PacketBase {
 	@Override
 	protected void writeToStream(ByteBuf data) {
 		if (packetData != null) {
-			ByteBufOutputStream bbos = new ByteBufOutputStream(data);
 			try {
-				CompressedStreamTools.writeCompressed(packetData, bbos);
+				writeNBT(data, packetData);
 			}
 			catch (IOException e) {
 				e.printStackTrace();
@@ -36,11 +32,13 @@ public class PacketFactionUpdate extends PacketBase {
 
 	@Override
 	protected void readFromStream(ByteBuf data) {
-		try {
-			packetData = CompressedStreamTools.readCompressed(new ByteBufInputStream(data));
-		}
-		catch (IOException e) {
-			e.printStackTrace();
+		if (data.isReadable()) {
+			try {
+				packetData = readNBT(data);
+			}
+			catch (IOException e) {
+				e.printStackTrace();
+			}
 		}
 	}
 
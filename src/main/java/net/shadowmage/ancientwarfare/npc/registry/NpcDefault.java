@@ -7,6 +7,7 @@ import net.minecraft.entity.ai.attributes.IAttributeInstance;
 import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
 import net.minecraft.pathfinding.PathNavigateGround;
+import net.minecraftforge.fml.common.registry.EntityEntry;
 import net.minecraftforge.fml.common.registry.EntityRegistry;
 import net.shadowmage.ancientwarfare.core.util.parsing.ResourceLocationMatcher;
 import net.shadowmage.ancientwarfare.npc.entity.NpcBase;
@@ -15,6 +16,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Immutable
 public class NpcDefault {
@@ -24,6 +26,10 @@ public class NpcDefault {
 	private final boolean canSwim;
 	private final boolean canBreakDoors;
 	private final Map<Integer, Item> equipment;
+	/*
+	 * whether entities of a class are targets, the target list never changes as changes create a new default
+	 */
+	private final Map<Class<? extends Entity>, Boolean> targetsByClass = new ConcurrentHashMap<>();
 
 	public NpcDefault(Set<ResourceLocationMatcher> targetList, Map<String, Double> attributes,
 			int experienceDrop, boolean canSwim, boolean canBreakDoors, Map<Integer, Item> equipment) {
@@ -69,9 +75,13 @@ public class NpcDefault {
 	}
 
 	public boolean isTarget(Entity entity) {
+		return targetsByClass.computeIfAbsent(entity.getClass(), this::isTargetClass);
+	}
+
+	private boolean isTargetClass(Class<? extends Entity> entityClass) {
+		EntityEntry entry = EntityRegistry.getEntry(entityClass);
 		//noinspection ConstantConditions
-		return EntityRegistry.getEntry(entity.getClass()) != null
-				&& targetList.stream().anyMatch(m -> m.test(EntityRegistry.getEntry(entity.getClass()).getRegistryName()));
+		return entry != null && targetList.stream().anyMatch(m -> m.test(entry.getRegistryName()));
 	}
 
 	public int getExperienceDrop() {
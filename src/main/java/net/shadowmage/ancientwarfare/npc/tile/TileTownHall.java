@@ -20,6 +20,7 @@ import net.shadowmage.ancientwarfare.core.interfaces.IInteractableTile;
 import net.shadowmage.ancientwarfare.core.network.NetworkHandler;
 import net.shadowmage.ancientwarfare.core.tile.IBlockBreakHandler;
 import net.shadowmage.ancientwarfare.core.tile.TileOwned;
+import net.shadowmage.ancientwarfare.core.util.EntityIndex;
 import net.shadowmage.ancientwarfare.core.util.InventoryTools;
 import net.shadowmage.ancientwarfare.npc.config.AWNPCStatics;
 import net.shadowmage.ancientwarfare.npc.container.ContainerTownHall;
@@ -86,7 +87,7 @@ public class TileTownHall extends TileOwned implements IInteractableTile, ITicka
 
 	private void broadcast() {
 		AxisAlignedBB bb = new AxisAlignedBB(pos.getX() - broadcastRange, pos.getY() - broadcastRange / 2, pos.getZ() - broadcastRange, pos.getX() + broadcastRange + 1, pos.getY() + broadcastRange / 2 + 1, pos.getZ() + broadcastRange + 1);
-		List<NpcPlayerOwned> entities = world.getEntitiesWithinAABB(NpcPlayerOwned.class, bb);
+		List<NpcPlayerOwned> entities = EntityIndex.INSTANCE.getEntitiesWithinAABB(world, NpcPlayerOwned.class, bb, null);
 		if (entities.size() > 0) {
 			for (Entity entity : entities) {
 				if (((NpcPlayerOwned) entity).hasCommandPermissions(getOwner())) {
@@ -21,6 +21,10 @@
 
 package net.shadowmage.ancientwarfare.structure.api;
 
+/*
+ * Rules of registered handlers are parsed off the main thread while templates load,
+ * see {@link TemplateRule#parseRule(int, java.util.List)} for what rules may do while parsing
+ */
 public interface StructureContentPlugin {
 
 	/*
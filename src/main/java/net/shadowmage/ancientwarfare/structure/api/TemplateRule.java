@@ -64,6 +64,9 @@ public abstract class TemplateRule {
 	 */
 	public abstract void handlePlacement(World world, int turns, BlockPos pos, IStructureBuilder builder) throws StructureBuildingException;
 
+	/*
+	 * Called from {@link #parseRule(int, List)}, the same threading rules apply
+	 */
 	public abstract void parseRuleData(NBTTagCompound tag);
 
 	public abstract void writeRuleData(NBTTagCompound tag);
@@ -78,6 +81,12 @@ public abstract class TemplateRule {
 		writeTag(out, tag);
 	}
 
+	/*
+	 * Templates are parsed in parallel on the template loader's worker threads, so this may be called from any thread and for
+	 * several rules at the same time.<br>
+	 * Implementations must only read the passed in data and registries that are complete by then (blocks, items, entities),
+	 * they must not touch worlds or other game state, nor share mutable state between rule instances without synchronizing it.
+	 */
 	public void parseRule(int ruleNumber, List<String> lines) throws TemplateRuleParsingException {
 		this.ruleNumber = ruleNumber;
 		NBTTagCompound tag = readTag(lines);
@@ -19,6 +19,7 @@ import net.shadowmage.ancientwarfare.structure.template.StructureTemplate;
 import net.shadowmage.ancientwarfare.structure.template.StructureTemplateManager;
 import net.shadowmage.ancientwarfare.structure.template.build.StructureBuilder;
 import net.shadowmage.ancientwarfare.structure.template.load.TemplateLoader;
+import net.shadowmage.ancientwarfare.structure.world_gen.WorldGenTickHandler;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -58,9 +59,18 @@ public class CommandStructure extends CommandBase {
 			case "reload":
 				TemplateLoader.INSTANCE.reloadAll();
 				sender.sendMessage(new TextComponentTranslation("command.aw.structure.reloaded"));
+				break;
+			case "queue":
+				queue(sender);
 		}
 	}
 
+	private void queue(ICommandSender sender) {
+		WorldGenTickHandler handler = WorldGenTickHandler.INSTANCE;
+		sender.sendMessage(new TextComponentTranslation("command.aw.structure.queue", handler.getQueuedStructureCount(), handler.getStartedStructureCount(), handler.getQueuedCallbackCount(), handler.getQueuedChunkCount()));
+		sender.sendMessage(new TextComponentTranslation("command.aw.structure.queue_stats", handler.getBuiltStructureCount(), String.format(Locale.ENGLISH, "%.2f", handler.getLastTickNanos() / 1000000d), String.format(Locale.ENGLISH, "%.2f", handler.getMaxTickNanos() / 1000000d)));
+	}
+
 	private void save(ICommandSender sender, String[] var2) {
 		if (sender instanceof EntityLivingBase) {
 			@Nonnull ItemStack stack = ((EntityLivingBase) sender).getHeldItemMainhand();
@@ -157,7 +167,7 @@ public class CommandStructure extends CommandBase {
 	@Override
 	public List<String> getTabCompletions(MinecraftServer server, ICommandSender sender, String[] args, @Nullable BlockPos targetPos) {
 		if (args.length == 1) {
-			return CommandBase.getListOfStringsMatchingLastWord(args, "build", "delete", "save");
+			return CommandBase.getListOfStringsMatchingLastWord(args, "build", "delete", "save", "reload", "queue");
 		} else if (args.length > 5 && args[0].toLowerCase(Locale.ENGLISH).equals("build")) {
 			return CommandBase.getListOfStringsMatchingLastWord(args, "north", "east", "south", "west");
 		}
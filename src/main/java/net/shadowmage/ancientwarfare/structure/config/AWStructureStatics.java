@@ -48,11 +48,14 @@ public class AWStructureStatics extends ModConfiguration {
 	public static boolean enableTownGeneration = true;
 	public static boolean enableStructureGeneration = true;
 	public static boolean loadDefaultPack = true;
+	public static int templateLoaderThreads = 0;
+	public static boolean useTemplateCache = true;
 	public static int clusterValueSearchRange = 16;
 	public static int duplicateStructureSearchRange = 40;
 	public static int maxClusterValue = 500;
 	public static float randomGenerationChance = 0.075f;
 	public static int spawnProtectionRange = 12;
+	public static int worldGenTickBudget = 10;
 	public static int structureImageWidth = 512;
 	public static int structureImageHeight = 288;
 	public static int townClosestDistance = 40;
@@ -85,11 +88,14 @@ public class AWStructureStatics extends ModConfiguration {
 		enableStructureGeneration = config.get(worldGenCategory, "enable_structure_generation", enableStructureGeneration, "Default=" + enableStructureGeneration + "\n" + "Enable or disable structure (not town) generation.").getBoolean(enableStructureGeneration);
 		enableTownGeneration = config.get(worldGenCategory, "enable_town_generation", enableTownGeneration, "Default=" + enableTownGeneration + "\n" + "Enable or disable custom town generation e.g. walls and additional buildings.").getBoolean(enableTownGeneration);
 		loadDefaultPack = config.get(worldGenCategory, "load_default_structure_pack", loadDefaultPack, "If true the default structure pack will be loaded and enabled for world-gen.").getBoolean(loadDefaultPack);
+		templateLoaderThreads = config.get(worldGenCategory, "template_loader_threads", templateLoaderThreads, "Default=" + templateLoaderThreads + "\n" + "How many threads parse structure templates in parallel on startup.\n" + "Values of 0 or lower use one thread per available processor.").getInt(templateLoaderThreads);
+		useTemplateCache = config.get(worldGenCategory, "use_template_cache", useTemplateCache, "Default=" + useTemplateCache + "\n" + "If true parsed structure templates are cached in binary form in the structures/cache directory,\n" + "so that unchanged templates load faster on the next start.").getBoolean(useTemplateCache);
 		duplicateStructureSearchRange = config.get(worldGenCategory, "validation_duplicate_search_radius", duplicateStructureSearchRange, "Default=" + duplicateStructureSearchRange + "\n" + "The minimum radius in chunks to be searched for duplicate structures.\n" + "This setting should generally not need to be adjusted unless you have templates with extremely\n" + "large 'minDuplicateDistance' values\n" + "Extremely large values may introduce extra lag during generation.  Lower values may reduce lag during generation,\n" + "at the cost of some accuracy in the min duplicate distance tests.").getInt(duplicateStructureSearchRange);
 		clusterValueSearchRange = config.get(worldGenCategory, "validation_cluster_value_search_radius", clusterValueSearchRange, "Default=" + clusterValueSearchRange + "\n" + "The minimum radius in chunks to be searched for structures when tallying cluster value in an area.\n" + "This setting should be adjusted along with maxClusterValue and the clusterValue in templates to encourage\n" + "or discourage specific structures to generate near eachother.\n" + "Extremely large values may introduce extra lag during generation.  Lower values may reduce lag during generation,\n" + "at the cost of some accuracy in the cluster value tests.").getInt(clusterValueSearchRange);
 		maxClusterValue = config.get(worldGenCategory, "max_cluster_value", maxClusterValue, "Default=" + maxClusterValue + "\n" + "The maximum allowed cluster value that may be present inside of 'validation_chunk_radius'.\n" + "").getInt(maxClusterValue);
 		randomGenerationChance = (float) config.get(worldGenCategory, "random_generation_chance", randomGenerationChance, "Default=" + randomGenerationChance + "\n" + "Accepts values between 0 and 1.\n" + "Determines the chance that a structure will attempt to be generated in any given chunk.\n" + "Number is specified as a percentage -- e.g. 0.75 == 75% chance to attempt generation.\n" + "Higher values will result in more attempts to generate structures.  Actual number\n" + "generated will depend upon your specific templates and their validation settings.\n" + "Values of 0 or lower will result in no structures generating.  Values higher than 1\n" + "will result in a generation attempt in every chunk.").getDouble(randomGenerationChance);
 		spawnProtectionRange = config.get(worldGenCategory, "spawn_protection_chunk_radius", spawnProtectionRange, "Default=" + spawnProtectionRange + "\n" + "Determines the area around the central spawn coordinate that will be excluded from random structure generation.\n" + "Larger values will see a larger area around spawn that is devoid of structures.").getInt(spawnProtectionRange);
+		worldGenTickBudget = config.get(worldGenCategory, "world_gen_tick_budget", worldGenTickBudget, "Default=" + worldGenTickBudget + "\n" + "How many milliseconds per server tick may be spent building generated structures and towns.\n" + "Structures that do not finish within the budget continue building on the next ticks, structures in chunks\n" + "that players can see are built first.\n" + "Higher values finish structures sooner, lower values reduce the lag spikes when new towns are discovered.").getInt(worldGenTickBudget);
 		enableWorldGen = config.get(serverOptions, "enable_world_generation", enableWorldGen, "Default=" + enableWorldGen + "\n" + "Enable or disable world generation entirely. If disabled, all other options will have no effect.").getBoolean(enableWorldGen);
 
 		townClosestDistance = config.get(worldGenCategory, "town_min_distance", townClosestDistance, "Default=" + townClosestDistance + "\n" + "Minimum distance between towns.  This should be set to a value quite a bit larger than the largest town" + "that you have configured for generation.  E.G.  Max town size=16, this value should be >= 40.").getInt(townClosestDistance);
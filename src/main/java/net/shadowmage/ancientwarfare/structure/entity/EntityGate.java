@@ -40,22 +40,22 @@ import net.minecraft.world.World;
 import net.minecraftforge.fml.common.registry.IEntityAdditionalSpawnData;
 import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
-import net.shadowmage.ancientwarfare.core.interfaces.IEntityPacketHandler;
+import net.shadowmage.ancientwarfare.core.interfaces.ISyncedEntity;
 import net.shadowmage.ancientwarfare.core.network.NetworkHandler;
-import net.shadowmage.ancientwarfare.core.network.PacketEntity;
+import net.shadowmage.ancientwarfare.core.network.EntitySyncData;
 import net.shadowmage.ancientwarfare.core.owner.Owner;
-import net.shadowmage.ancientwarfare.core.util.BlockTools;
 import net.shadowmage.ancientwarfare.structure.gates.types.Gate;
 import net.shadowmage.ancientwarfare.structure.gates.types.GateRotatingBridge;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 /*
  * an class to represent ALL gate types
  *
  * @author Shadowmage
  */
-public class EntityGate extends Entity implements IEntityAdditionalSpawnData, IEntityPacketHandler {
+public class EntityGate extends Entity implements IEntityAdditionalSpawnData, ISyncedEntity {
 
 	public BlockPos pos1;
 	public BlockPos pos2;
@@ -68,13 +68,17 @@ public class EntityGate extends Entity implements IEntityAdditionalSpawnData, IE
 	private Gate gateType = Gate.getGateByID(0);
 
 	private Owner owner = Owner.EMPTY;
-	private int health = 0;
+	private final EntitySyncData syncData = new EntitySyncData();
+	private final EntitySyncData.IntField health = syncData.addInt(0, (oldValue, newValue) -> {
+		if (newValue < oldValue) {
+			hurtAnimationTicks = 20;
+		}
+	});
 	public int hurtAnimationTicks = 0;
 	private byte gateStatus = 0;
 	public EnumFacing gateOrientation = EnumFacing.SOUTH;
 	private int hurtInvulTicks = 0;
 
-	private boolean hasSetWorldEntityRadius = false;
 	private boolean wasPoweredA = false;
 	private boolean wasPoweredB = false;
 
@@ -127,6 +131,7 @@ public class EntityGate extends Entity implements IEntityAdditionalSpawnData, IE
 	@Override
 	public void setDead() {
 		super.setDead();
+		GateCollisionRegistry.INSTANCE.remove(this);
 		if (!this.world.isRemote) {
 			//catch gates that have proxy blocks still in the world
 			gateType.onGateStartOpen(this);
@@ -134,6 +139,12 @@ public class EntityGate extends Entity implements IEntityAdditionalSpawnData, IE
 		}
 	}
 
+	@Override
+	public void onRemovedFromWorld() {
+		super.onRemovedFromWorld();
+		GateCollisionRegistry.INSTANCE.remove(this);
+	}
+
 	private void setOpeningStatus(byte op) {
 		this.gateStatus = op;
 		if (!this.world.isRemote) {
@@ -177,22 +188,17 @@ public class EntityGate extends Entity implements IEntityAdditionalSpawnData, IE
 	}
 
 	public int getHealth() {
-		return this.health;
+		return this.health.get();
 	}
 
 	public void setHealth(int val) {
 		if (val < 0) {
 			val = 0;
 		}
-		if (val < health) {
+		if (val < health.get()) {
 			this.hurtAnimationTicks = 20;
 		}
-		if (val < health && !this.world.isRemote) {
-			PacketEntity pkt = new PacketEntity(this);
-			pkt.packetData.setInteger("health", val);
-			NetworkHandler.sendToAllTracking(this, pkt);
-		}
-		this.health = val;
+		this.health.set(val);
 	}
 
 	@Override
@@ -246,6 +252,7 @@ public class EntityGate extends Entity implements IEntityAdditionalSpawnData, IE
 	@Override
 	public void onUpdate() {
 		super.onUpdate();
+		this.syncData.update(this);
 		this.gateType.onUpdate(this);
 		float prevEdge = this.edgePosition;
 		this.setPosition(posX, posY, posZ);
@@ -272,21 +279,7 @@ public class EntityGate extends Entity implements IEntityAdditionalSpawnData, IE
 			}
 		}
 		this.openingSpeed = prevEdge - this.edgePosition;
-
-		if (!hasSetWorldEntityRadius) {
-			hasSetWorldEntityRadius = true;
-			BlockPos min = BlockTools.getMin(pos1, pos2);
-			BlockPos max = BlockTools.getMax(pos1, pos2);
-			int xSize = max.getX() - min.getX() + 1;
-			int zSize = max.getZ() - min.getZ() + 1;
-			int ySize = max.getY() - min.getY() + 1;
-			int largest = xSize > ySize ? xSize : ySize;
-			largest = largest > zSize ? largest : zSize;
-			largest = (largest / 2) + 1;
-			if (World.MAX_ENTITY_RADIUS < largest) {
-				World.MAX_ENTITY_RADIUS = largest;
-			}
-		}
+		GateCollisionRegistry.INSTANCE.update(this);
 	}
 
 	protected void checkForPowerUpdates() {
@@ -358,9 +351,14 @@ public class EntityGate extends Entity implements IEntityAdditionalSpawnData, IE
 		//NOOP
 	}
 
+	/*
+	 * gates collide with entities through the {@link GateCollisionRegistry}, as vanilla does not look far enough from
+	 * moving entities to find large gates
+	 */
 	@Override
+	@Nullable
 	public AxisAlignedBB getCollisionBoundingBox() {
-		return this.getEntityBoundingBox();
+		return null;
 	}
 
 	@Override
@@ -445,7 +443,7 @@ public class EntityGate extends Entity implements IEntityAdditionalSpawnData, IE
 		data.writeFloat(this.edgeMax);
 		data.writeByte(this.gateStatus);
 		data.writeByte(this.gateOrientation.ordinal());
-		data.writeInt(health);
+		data.writeInt(health.get());
 	}
 
 	@Override
@@ -457,15 +455,12 @@ public class EntityGate extends Entity implements IEntityAdditionalSpawnData, IE
 		this.edgeMax = data.readFloat();
 		this.gateStatus = data.readByte();
 		this.gateOrientation = EnumFacing.VALUES[data.readByte()];
-		this.health = data.readInt();
+		this.health.set(data.readInt());
 	}
 
 	@Override
-	public void handlePacketData(NBTTagCompound tag) {
-		if (tag.hasKey("health")) {
-			this.health = tag.getInteger("health");
-			this.hurtAnimationTicks = 20;
-		}
+	public EntitySyncData getSyncData() {
+		return syncData;
 	}
 
 }
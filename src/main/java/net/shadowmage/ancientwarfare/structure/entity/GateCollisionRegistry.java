@@ -0,0 +1,116 @@
+package net.shadowmage.ancientwarfare.structure.entity;
+
+import net.minecraft.entity.Entity;
+import net.minecraft.util.math.AxisAlignedBB;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.world.World;
+import net.minecraftforge.event.world.GetCollisionBoxesEvent;
+import net.minecraftforge.event.world.WorldEvent;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.shadowmage.ancientwarfare.core.util.SpatialGrid;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/*
+ * Per world index of the bounding boxes of gates, handing them to the collision checks of entities moving near them.<br>
+ * Gates are larger than the margin of chunk sections that vanilla searches for entities colliding with a box, so instead
+ * of raising World.MAX_ENTITY_RADIUS (which makes every entity lookup of the world search more chunk sections) gates
+ * provide no collision box to the vanilla lookup and are found through this index, by the collision checks and by the
+ * hit tests of missiles, rams and ray traces.<br>
+ * Gates register themselves on their update and whenever their box moves, and are dropped when they die or are removed
+ * from the world with their chunk. Gates that are still found after leaving their world are dropped by the query.<br>
+ * Client and server worlds are indexed separately, each world is only accessed from its own thread.
+ */
+public final class GateCollisionRegistry {
+
+	public static final GateCollisionRegistry INSTANCE = new GateCollisionRegistry();
+
+	private static final int CELL_SHIFT = 4;
+
+	private final Map<World, WorldGates> worldGates = new ConcurrentHashMap<>();
+
+	private GateCollisionRegistry() {
+	}
+
+	void update(EntityGate gate) {
+		WorldGates gates = worldGates.computeIfAbsent(gate.world, w -> new WorldGates());
+		AxisAlignedBB bb = gate.getEntityBoundingBox();
+		if (!bb.equals(gates.boxes.get(gate))) {
+			gates.boxes.put(gate, bb);
+			gates.grid.add(gate, MathHelper.floor(bb.minX), MathHelper.floor(bb.minZ), MathHelper.floor(bb.maxX), MathHelper.floor(bb.maxZ));
+		}
+	}
+
+	void remove(EntityGate gate) {
+		WorldGates gates = worldGates.get(gate.world);
+		if (gates != null) {
+			gates.remove(gate);
+		}
+	}
+
+	/*
+	 * Adds the gates whose bounding box intersects the box to the list, gates already in the list are not added again
+	 */
+	public void addGatesIntersecting(World world, AxisAlignedBB aabb, List<? super EntityGate> out) {
+		forEachIntersecting(world, aabb, gate -> {
+			if (!out.contains(gate)) {
+				out.add(gate);
+			}
+		});
+	}
+
+	@SubscribeEvent
+	public void onGetCollisionBoxes(GetCollisionBoxesEvent evt) {
+		Entity entity = evt.getEntity();
+		if (entity == null) {
+			return;//vanilla only collides entities with other entities
+		}
+		forEachIntersecting(evt.getWorld(), evt.getAabb(), gate -> {
+			if (gate != entity && !entity.isRidingSameEntity(gate)) {
+				evt.getCollisionBoxesList().add(gate.getEntityBoundingBox());
+			}
+		});
+	}
+
+	private void forEachIntersecting(World world, AxisAlignedBB aabb, Consumer<EntityGate> action) {
+		WorldGates gates = worldGates.get(world);
+		if (gates == null || gates.grid.size() == 0) {
+			return;
+		}
+		gates.grid.anyIntersecting(MathHelper.floor(aabb.minX), MathHelper.floor(aabb.minZ), MathHelper.floor(aabb.maxX), MathHelper.floor(aabb.maxZ), gate -> {
+			if (gate.isDead || gate.world.getEntityByID(gate.getEntityId()) != gate) {
+				gates.removed.add(gate);
+			} else if (gate.getEntityBoundingBox().intersects(aabb)) {
+				action.accept(gate);
+			}
+			return false;
+		});
+		if (!gates.removed.isEmpty()) {
+			for (EntityGate gate : gates.removed) {
+				gates.remove(gate);
+			}
+			gates.removed.clear();
+		}
+	}
+
+	@SubscribeEvent
+	public void onWorldUnload(WorldEvent.Unload evt) {
+		worldGates.remove(evt.getWorld());
+	}
+
+	private static final class WorldGates {
+		private final SpatialGrid<EntityGate> grid = new SpatialGrid<>(CELL_SHIFT);
+		private final Map<EntityGate, AxisAlignedBB> boxes = new IdentityHashMap<>();
+		private final List<EntityGate> removed = new ArrayList<>();
+
+		private void remove(EntityGate gate) {
+			grid.remove(gate);
+			boxes.remove(gate);
+		}
+	}
+}
@@ -0,0 +1,86 @@
+package net.shadowmage.ancientwarfare.structure.event;
+
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.renderer.texture.AbstractTexture;
+import net.minecraft.client.renderer.texture.ITickableTextureObject;
+import net.minecraft.client.resources.IResourceManager;
+import net.minecraft.entity.Entity;
+import net.minecraft.util.ResourceLocation;
+import net.minecraft.util.math.AxisAlignedBB;
+import net.minecraft.util.math.RayTraceResult;
+import net.minecraft.util.math.Vec3d;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+import net.shadowmage.ancientwarfare.structure.entity.EntityGate;
+import net.shadowmage.ancientwarfare.structure.entity.GateCollisionRegistry;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * Lets players click gates that the vanilla mouse over misses, as it only looks for entities in the chunk sections close
+ * to the look vector and large gates may be registered in sections further away.<br>
+ * Each client tick, after the vanilla mouse over was computed, the gates of the {@link GateCollisionRegistry} along the look
+ * vector are checked, and the closest one hit before the current target becomes the mouse over. This has to happen before
+ * the tick's mouse and key binds are handled, so that clicks, keyboard bound attack/use and held use repeats all see the gate.<br>
+ * Forge has no event between the two, the client tick start event fires before the mouse over is computed. The texture manager
+ * ticks its tickable textures right in between, so the check is run from a texture that is never bound.
+ */
+@SideOnly(Side.CLIENT)
+public final class GateMouseOverHandler extends AbstractTexture implements ITickableTextureObject {
+
+	public static final GateMouseOverHandler INSTANCE = new GateMouseOverHandler();
+
+	private static final ResourceLocation LOCATION = new ResourceLocation("ancientwarfare", "gate_mouse_over");
+
+	private final List<EntityGate> gates = new ArrayList<>();
+
+	private GateMouseOverHandler() {
+	}
+
+	public void register() {
+		Minecraft.getMinecraft().getTextureManager().loadTickableTexture(LOCATION, this);
+	}
+
+	@Override
+	public void loadTexture(IResourceManager resourceManager) {
+		//nothing to load, only ticked
+	}
+
+	@Override
+	public void tick() {
+		Minecraft mc = Minecraft.getMinecraft();
+		Entity viewer = mc.getRenderViewEntity();
+		if (viewer == null || mc.world == null || mc.playerController == null) {
+			return;
+		}
+		//same entity reach as the vanilla mouse over
+		double reach = mc.playerController.extendedReach() ? 6 : Math.min(mc.playerController.getBlockReachDistance(), 3);
+		Vec3d eyes = viewer.getPositionEyes(1);
+		Vec3d end = eyes.add(viewer.getLook(1).scale(reach));
+		RayTraceResult current = mc.objectMouseOver;
+		double closest = reach;
+		if (current != null && current.typeOfHit != RayTraceResult.Type.MISS) {
+			closest = Math.min(closest, eyes.distanceTo(current.hitVec));
+		}
+
+		GateCollisionRegistry.INSTANCE.addGatesIntersecting(mc.world, new AxisAlignedBB(eyes.x, eyes.y, eyes.z, end.x, end.y, end.z), gates);
+		EntityGate hitGate = null;
+		Vec3d hitVec = null;
+		for (EntityGate gate : gates) {
+			float border = gate.getCollisionBorderSize();
+			RayTraceResult intercept = gate.getEntityBoundingBox().grow(border, border, border).calculateIntercept(eyes, end);
+			if (intercept != null && eyes.distanceTo(intercept.hitVec) < closest) {
+				closest = eyes.distanceTo(intercept.hitVec);
+				hitGate = gate;
+				hitVec = intercept.hitVec;
+			}
+		}
+		gates.clear();
+
+		if (hitGate != null) {
+			mc.objectMouseOver = new RayTraceResult(hitGate, hitVec);
+			mc.pointedEntity = hitGate;
+		}
+	}
+}
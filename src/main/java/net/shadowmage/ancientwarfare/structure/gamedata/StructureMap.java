@@ -21,13 +21,17 @@
 
 package net.shadowmage.ancientwarfare.structure.gamedata;
 
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.nbt.NBTTagList;
 import net.minecraft.nbt.NBTTagString;
 import net.minecraft.util.EnumFacing;
+import net.minecraft.util.math.ChunkPos;
 import net.minecraft.world.World;
 import net.minecraft.world.storage.WorldSavedData;
 import net.minecraftforge.common.util.Constants;
+import net.shadowmage.ancientwarfare.core.util.SpatialGrid;
 import net.shadowmage.ancientwarfare.structure.world_gen.StructureEntry;
 
 import java.util.Collection;
@@ -142,80 +146,58 @@ public class StructureMap extends WorldSavedData {
 
 	private class StructureWorldMap {
 
-		private HashMap<Integer, HashMap<Integer, StructureEntry>> worldMap = new HashMap<>();
-		private int largestGeneratedX;
-		private int largestGeneratedZ;
-
+		private final Long2ObjectOpenHashMap<StructureEntry> worldMap = new Long2ObjectOpenHashMap<>();
+		/*
+		 * entries by the chunk they were generated at, in chunk coordinates
+		 */
+		private final SpatialGrid<StructureEntry> entriesByChunk = new SpatialGrid<>(3);
+		/*
+		 * entries by their bounding box, in block coordinates
+		 */
+		private final SpatialGrid<StructureEntry> entriesByBounds = new SpatialGrid<>(6);
+
+		/*
+		 * expandBySize returns the entries whose bounding box intersects the chunk square instead of only those generated in it
+		 */
 		public Collection<StructureEntry> getEntriesNear(int chunkX, int chunkZ, int chunkRadius, boolean expandBySize, Collection<StructureEntry> list) {
-			StructureEntry entry;
-			int crx = chunkRadius;
-			int crz = chunkRadius;
 			if (expandBySize) {
-				crx += largestGeneratedX / 16;
-				crz += largestGeneratedZ / 16;
-			}
-			for (int x = chunkX - crx; x <= chunkX + crx; x++) {
-				if (worldMap.containsKey(x)) {
-					for (int z = chunkZ - crz; z <= chunkZ + crz; z++) {
-						entry = worldMap.get(x).get(z);
-						if (entry != null) {
-							list.add(entry);
-						}
-					}
-				}
+				return entriesByBounds.getIntersecting((chunkX - chunkRadius) << 4, (chunkZ - chunkRadius) << 4, ((chunkX + chunkRadius) << 4) + 15, ((chunkZ + chunkRadius) << 4) + 15, list);
 			}
-			return list;
+			return entriesByChunk.getIntersecting(chunkX - chunkRadius, chunkZ - chunkRadius, chunkX + chunkRadius, chunkZ + chunkRadius, list);
 		}
 
 		public void setGeneratedAt(int chunkX, int chunkZ, StructureEntry entry) {
-			if (!this.worldMap.containsKey(chunkX)) {
-				this.worldMap.put(chunkX, new HashMap<>());
-			}
-			this.worldMap.get(chunkX).put(chunkZ, entry);
-			int x = entry.bb.getXSize();
-			int z = entry.bb.getZSize();
-			if (x > largestGeneratedX) {
-				largestGeneratedX = x;
-			}
-			if (z > largestGeneratedZ) {
-				largestGeneratedZ = z;
+			StructureEntry previous = worldMap.put(ChunkPos.asLong(chunkX, chunkZ), entry);
+			if (previous != null) {
+				entriesByChunk.remove(previous);
+				entriesByBounds.remove(previous);
 			}
+			entriesByChunk.add(entry, chunkX, chunkZ, chunkX, chunkZ);
+			entriesByBounds.add(entry, entry.bb.min.getX(), entry.bb.min.getZ(), entry.bb.max.getX(), entry.bb.max.getZ());
 		}
 
 		public void readFromNBT(NBTTagCompound nbttagcompound) {
 			NBTTagList entryList = nbttagcompound.getTagList("entries", Constants.NBT.TAG_COMPOUND);
 			StructureEntry entry;
 			NBTTagCompound entryTag;
-			int x, z;
 			for (int i = 0; i < entryList.tagCount(); i++) {
 				entryTag = entryList.getCompoundTagAt(i);
-				x = entryTag.getInteger("x");
-				z = entryTag.getInteger("z");
 				entry = new StructureEntry();
 				entry.readFromNBT(entryTag);
-				if (!this.worldMap.containsKey(x)) {
-					this.worldMap.put(x, new HashMap<>());
-				}
-				this.worldMap.get(x).put(z, entry);
+				setGeneratedAt(entryTag.getInteger("x"), entryTag.getInteger("z"), entry);
 			}
-			this.largestGeneratedX = nbttagcompound.getInteger("largestX");
-			this.largestGeneratedZ = nbttagcompound.getInteger("largestZ");
 		}
 
 		public void writeToNBT(NBTTagCompound nbttagcompound) {
 			NBTTagList entryList = new NBTTagList();
 			NBTTagCompound entryTag;
-			for (Integer x : this.worldMap.keySet()) {
-				for (Integer z : this.worldMap.get(x).keySet()) {
-					entryTag = new NBTTagCompound();
-					entryTag.setInteger("x", x);
-					entryTag.setInteger("z", z);
-					this.worldMap.get(x).get(z).writeToNBT(entryTag);
-					entryList.appendTag(entryTag);
-				}
+			for (Long2ObjectMap.Entry<StructureEntry> mapEntry : worldMap.long2ObjectEntrySet()) {
+				entryTag = new NBTTagCompound();
+				entryTag.setInteger("x", (int) mapEntry.getLongKey());
+				entryTag.setInteger("z", (int) (mapEntry.getLongKey() >> 32));
+				mapEntry.getValue().writeToNBT(entryTag);
+				entryList.appendTag(entryTag);
 			}
-			nbttagcompound.setInteger("largestX", largestGeneratedX);
-			nbttagcompound.setInteger("largestZ", largestGeneratedZ);
 			nbttagcompound.setTag("entries", entryList);
 		}
 	}//end structure X Map
@@ -5,63 +5,49 @@ import net.minecraft.nbt.NBTTagList;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.storage.WorldSavedData;
 import net.minecraftforge.common.util.Constants;
+import net.shadowmage.ancientwarfare.core.util.SpatialGrid;
 import net.shadowmage.ancientwarfare.core.util.Trig;
 import net.shadowmage.ancientwarfare.structure.template.build.StructureBB;
 
-import java.util.ArrayList;
-import java.util.List;
-
 //TODO world capability
 public class TownMap extends WorldSavedData {
 
-	private List<StructureBB> boundingBoxes = new ArrayList<>();
+	private final SpatialGrid<StructureBB> boundingBoxes = new SpatialGrid<>(7);
 
 	public TownMap(String name) {
 		super(name);
 	}
 
 	public void setGenerated(StructureBB bb) {
-		boundingBoxes.add(bb);
+		addBoundingBox(bb);
 		markDirty();
 	}
 
+	private void addBoundingBox(StructureBB bb) {
+		boundingBoxes.add(bb, bb.min.getX(), bb.min.getZ(), bb.max.getX(), bb.max.getZ());
+	}
+
 	/*
 	 * return the distance of the closest found town or defaultVal if no town was found closer
 	 */
 	public float getClosestTown(int bx, int bz, float defaultVal) {
-		float distance = defaultVal;
-		float d;
-		if (boundingBoxes != null) {
-			for (StructureBB bb : boundingBoxes) {
-				d = Trig.getDistance(bx, 0, bz, bb.getCenterX(), 0, bb.getCenterZ());
-				if (d < distance) {
-					distance = d;
-				}
-			}
-		}
-		return distance;
+		//the center of a bounding box may be one block outside of it, so search one block further
+		StructureBB closest = boundingBoxes.getClosest(bx, bz, (int) Math.ceil(defaultVal) + 1, bb -> getDistanceToCenter(bx, bz, bb));
+		return closest == null ? defaultVal : Math.min(defaultVal, getDistanceToCenter(bx, bz, closest));
+	}
+
+	private static float getDistanceToCenter(int bx, int bz, StructureBB bb) {
+		return Trig.getDistance(bx, 0, bz, bb.getCenterX(), 0, bb.getCenterZ());
 	}
 
 	public boolean isChunkInUse(int cx, int cz) {
-		if (!boundingBoxes.isEmpty()) {
-			cx *= 16;
-			cz *= 16;
-			for (StructureBB bb : boundingBoxes) {
-				if (bb.isPositionIn(cx, bb.min.getY(), cz)) {
-					return true;
-				}
-			}
-		}
-		return false;
+		int x = cx * 16;
+		int z = cz * 16;
+		return boundingBoxes.anyIntersecting(x, z, x, z, bb -> bb.isPositionIn(x, bb.min.getY(), z));
 	}
 
 	public boolean intersectsWithTown(StructureBB bb) {
-		for (StructureBB tbb : boundingBoxes) {
-			if (tbb.crossWith(bb)) {
-				return true;
-			}
-		}
-		return false;
+		return boundingBoxes.anyIntersecting(bb.min.getX(), bb.min.getZ(), bb.max.getX(), bb.max.getZ(), tbb -> tbb.crossWith(bb));
 	}
 
 	@Override
@@ -72,14 +58,14 @@ public class TownMap extends WorldSavedData {
 		for (int i = 0; i < list.tagCount(); i++) {
 			bb = new StructureBB(BlockPos.ORIGIN, BlockPos.ORIGIN);
 			bb.deserializeNBT(list.getCompoundTagAt(i));
-			boundingBoxes.add(bb);
+			addBoundingBox(bb);
 		}
 	}
 
 	@Override
 	public NBTTagCompound writeToNBT(NBTTagCompound tag) {
 		NBTTagList list = new NBTTagList();
-		for (StructureBB bb : boundingBoxes) {
+		for (StructureBB bb : boundingBoxes.values()) {
 			list.appendTag(bb.serializeNBT());
 		}
 		tag.setTag("boundingBoxes", list);
@@ -1,9 +1,6 @@
 package net.shadowmage.ancientwarfare.structure.network;
 
 import io.netty.buffer.ByteBuf;
-import io.netty.buffer.ByteBufInputStream;
-import io.netty.buffer.ByteBufOutputStream;
-import net.minecraft.nbt.CompressedStreamTools;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
@@ -22,15 +19,8 @@ public class PacketStructure extends PacketBase {
 	@Override
 	protected void writeToStream(ByteBuf data) {
 		if (packetData != null) {
-			ByteBufOutputStream bbos = new ByteBufOutputStream(data);
 			try {
-				CompressedStreamTools.writeCompressed(packetData, bbos);
-			}
-			catch (IOException e) {
-				e.printStackTrace();
-			}
-			try {
-				bbos.close();
+				writeNBT(data, packetData);
 			}
 			catch (IOException e) {
 				e.printStackTrace();
@@ -40,18 +30,13 @@ public class PacketStructure extends PacketBase {
 
 	@Override
 	protected void readFromStream(ByteBuf data) {
-		ByteBufInputStream bbis = new ByteBufInputStream(data);
-		try {
-			packetData = CompressedStreamTools.readCompressed(bbis);
-		}
-		catch (IOException e) {
-			e.printStackTrace();
-		}
-		try {
-			bbis.close();
-		}
-		catch (IOException e) {
-			e.printStackTrace();
+		if (data.isReadable()) {
+			try {
+				packetData = readNBT(data);
+			}
+			catch (IOException e) {
+				e.printStackTrace();
+			}
 		}
 	}
 
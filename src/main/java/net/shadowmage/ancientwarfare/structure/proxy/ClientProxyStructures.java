@@ -16,6 +16,7 @@ import net.shadowmage.ancientwarfare.core.network.NetworkHandler;
 import net.shadowmage.ancientwarfare.core.proxy.ClientProxyBase;
 import net.shadowmage.ancientwarfare.structure.block.AWStructuresBlocks;
 import net.shadowmage.ancientwarfare.structure.entity.EntityGate;
+import net.shadowmage.ancientwarfare.structure.event.GateMouseOverHandler;
 import net.shadowmage.ancientwarfare.structure.event.StructureBoundingBoxRenderer;
 import net.shadowmage.ancientwarfare.structure.gui.GuiGateControl;
 import net.shadowmage.ancientwarfare.structure.render.DraftingStationRenderer;
@@ -40,6 +41,8 @@ public class ClientProxyStructures extends ClientProxyBase {
 	public void init() {
 		super.init();
 
+		GateMouseOverHandler.INSTANCE.register();
+
 		Minecraft.getMinecraft().getBlockColors().registerBlockColorHandler((state, world, pos, tintIndex) -> {
 			TileEntity tileEntity = world.getTileEntity(pos);
 			IBlockState disguiseState = Blocks.JUKEBOX.getDefaultState();
@@ -208,7 +208,7 @@ public class StructurePluginManager implements IStructurePluginManager, IStructu
 		String line;
 		List<String> ruleDataPackage = new ArrayList<>();
 		while (it.hasNext()) {
-			TemplateParser.lineNumber++;
+			TemplateParser.incrementLineNumber();
 			line = it.next();
 			if (line.startsWith(ruleType + ":")) {
 				continue;
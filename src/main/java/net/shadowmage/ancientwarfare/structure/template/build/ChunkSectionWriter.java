@@ -0,0 +1,117 @@
+package net.shadowmage.ancientwarfare.structure.template.build;
+
+import it.unimi.dsi.fastutil.longs.Long2IntMap;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.init.Blocks;
+import net.minecraft.network.play.server.SPacketChunkData;
+import net.minecraft.server.management.PlayerChunkMap;
+import net.minecraft.server.management.PlayerChunkMapEntry;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.World;
+import net.minecraft.world.WorldServer;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.storage.ExtendedBlockStorage;
+import net.shadowmage.ancientwarfare.core.util.BlockChangeTracker;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * Writes the blocks of world gen structures directly into the block storage of the chunks, without the lighting, height
+ * map, neighbor and client updates World.setBlockState does for each block.<br>
+ * {@link #finish()} has to be called after each batch of placed blocks. It rebuilds the height map and sky light of each
+ * changed chunk once, relights around blocks whose light emission or opacity changed, creates the tile entities of placed
+ * blocks that the rules did not access yet, resends the changed sections to the players that already have the chunks and
+ * announces the changed sections to the {@link BlockChangeTracker} listeners.
+ */
+public class ChunkSectionWriter {
+
+	private final World world;
+	private final Long2ObjectOpenHashMap<Chunk> changedChunks = new Long2ObjectOpenHashMap<>();
+	private final Long2IntOpenHashMap changedSections = new Long2IntOpenHashMap();
+	private final List<BlockPos> lightChanges = new ArrayList<>();
+	private final List<BlockPos> tileEntities = new ArrayList<>();
+
+	public ChunkSectionWriter(World world) {
+		this.world = world;
+	}
+
+	public void setBlockState(BlockPos pos, IBlockState state) {
+		Chunk chunk = world.getChunkFromBlockCoords(pos);
+		ExtendedBlockStorage[] storage = chunk.getBlockStorageArray();
+		int sectionY = pos.getY() >> 4;
+		ExtendedBlockStorage section = storage[sectionY];
+		if (section == Chunk.NULL_BLOCK_STORAGE) {
+			if (state.getBlock() == Blocks.AIR) {
+				return;
+			}
+			section = new ExtendedBlockStorage(sectionY << 4, world.provider.hasSkyLight());
+			storage[sectionY] = section;
+		}
+		int x = pos.getX() & 15;
+		int y = pos.getY() & 15;
+		int z = pos.getZ() & 15;
+		IBlockState oldState = section.get(x, y, z);
+		if (oldState == state) {
+			return;
+		}
+		int oldLight = oldState.getLightValue(world, pos);
+		int oldOpacity = oldState.getLightOpacity(world, pos);
+		if (oldState.getBlock().hasTileEntity(oldState)) {
+			world.removeTileEntity(pos);
+		}
+		section.set(x, y, z, state);
+		if (state.getLightValue(world, pos) != oldLight || state.getLightOpacity(world, pos) != oldOpacity) {
+			lightChanges.add(pos.toImmutable());
+		}
+		if (state.getBlock().hasTileEntity(state)) {
+			tileEntities.add(pos.toImmutable());
+		}
+		long key = ChunkPos.asLong(chunk.x, chunk.z);
+		changedChunks.put(key, chunk);
+		changedSections.put(key, changedSections.get(key) | 1 << sectionY);
+	}
+
+	public void finish() {
+		for (Chunk chunk : changedChunks.values()) {
+			chunk.generateSkylightMap();
+			chunk.resetRelightChecks();
+			chunk.markDirty();
+		}
+		for (BlockPos pos : lightChanges) {
+			world.checkLight(pos);
+		}
+		for (BlockPos pos : tileEntities) {
+			Chunk chunk = changedChunks.get(ChunkPos.asLong(pos.getX() >> 4, pos.getZ() >> 4));
+			if (chunk != null) {
+				chunk.getTileEntity(pos, Chunk.EnumCreateEntityType.IMMEDIATE);
+			}
+		}
+		if (world instanceof WorldServer) {
+			PlayerChunkMap playerChunkMap = ((WorldServer) world).getPlayerChunkMap();
+			for (Long2IntMap.Entry sections : changedSections.long2IntEntrySet()) {
+				Chunk chunk = changedChunks.get(sections.getLongKey());
+				PlayerChunkMapEntry entry = playerChunkMap.getEntry(chunk.x, chunk.z);
+				if (entry != null && entry.isSentToPlayers()) {
+					entry.sendPacket(new SPacketChunkData(chunk, sections.getIntValue()));
+				}
+			}
+			for (Long2IntMap.Entry sections : changedSections.long2IntEntrySet()) {
+				int chunkX = (int) sections.getLongKey();
+				int chunkZ = (int) (sections.getLongKey() >> 32);
+				for (int sectionY = 0; sectionY < 16; sectionY++) {
+					if ((sections.getIntValue() & 1 << sectionY) != 0) {
+						BlockChangeTracker.INSTANCE.notifySectionChanged(world, chunkX, sectionY, chunkZ);
+					}
+				}
+			}
+		}
+		changedChunks.clear();
+		changedSections.clear();
+		lightChanges.clear();
+		tileEntities.clear();
+	}
+}
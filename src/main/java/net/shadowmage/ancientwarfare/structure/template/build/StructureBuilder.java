@@ -48,7 +48,9 @@ public class StructureBuilder implements IStructureBuilder {
 	protected StructureBB bb;
 
 	private boolean isFinished = false;
+	private boolean constructionStarted, constructionDone;
 	private Biome biome;
+	private ChunkSectionWriter sectionWriter;
 
 	public StructureBuilder(World world, StructureTemplate template, EnumFacing face, BlockPos pos) {
 		this(world, template, face, pos, new StructureBB(pos, face, template));
@@ -89,24 +91,81 @@ public class StructureBuilder implements IStructureBuilder {
 		return bb;
 	}
 
+	public World getWorld() {
+		return world;
+	}
+
 	protected StructureBuilder() {
 		destination = BlockPos.ORIGIN;
 		buildOrigin = BlockPos.ORIGIN;
 	}
 
+	/*
+	 * Places the blocks of the structure with a {@link ChunkSectionWriter} instead of World.setBlockState, for world gen
+	 * structures. Relighting and resending the changed chunks happens on {@link #flushChunkSections()} and once construction
+	 * is done.
+	 */
+	public StructureBuilder writeToChunkSections() {
+		sectionWriter = new ChunkSectionWriter(world);
+		return this;
+	}
+
 	public void instantConstruction() {
+		construct(Integer.MAX_VALUE);
+	}
+
+	/*
+	 * Builds up to positionBudget template positions (of all passes) and returns, so that construction can be spread
+	 * over several ticks by calling this again until it returns true.<br>
+	 * Blocks written through a {@link ChunkSectionWriter} are only relit and sent once construction is done, callers
+	 * spreading construction over several ticks call {@link #flushChunkSections()} at the end of each tick that built
+	 * some positions. Entities are placed once all positions are done.
+	 *
+	 * @return true if the structure is completely built
+	 */
+	public boolean construct(int positionBudget) {
+		if (constructionDone) {
+			return true;
+		}
+		if (!constructionStarted) {
+			constructionStarted = true;
+			onConstructionStarted();
+		}
 		try {
-			while (!this.isFinished()) {
+			for (int i = 0; i < positionBudget && !this.isFinished(); i++) {
 				TemplateRule rule = template.getRuleAt(currentX, currentY, currentZ);
 				placeCurrentPosition(rule);
 				increment();
 			}
 		}
 		catch (Exception e) {
+			flushChunkSections();
 			TemplateRule rule = template.getRuleAt(currentX, currentY, currentZ);
 			throw new RuntimeException("Caught exception while constructing template blocks: " + rule, e);
 		}
+		if (!this.isFinished()) {
+			return false;
+		}
+		constructionDone = true;
+		flushChunkSections();
 		this.placeEntities();
+		onConstructionFinished();
+		return true;
+	}
+
+	/*
+	 * Relights and resends the chunks changed through the {@link ChunkSectionWriter} since the last flush
+	 */
+	public void flushChunkSections() {
+		if (sectionWriter != null) {
+			sectionWriter.finish();
+		}
+	}
+
+	protected void onConstructionStarted() {
+	}
+
+	protected void onConstructionFinished() {
 	}
 
 	protected void placeEntities() {
@@ -141,6 +200,10 @@ public class StructureBuilder implements IStructureBuilder {
 			adjustedState = getBiomeSpecificBlockState(biome, state);
 		}
 
+		if (sectionWriter != null) {
+			sectionWriter.setBlockState(pos, adjustedState);
+			return;
+		}
 		int updateFlag = state.canProvidePower() ? 3 : 2;
 		world.setBlockState(pos, adjustedState, updateFlag);
 	}
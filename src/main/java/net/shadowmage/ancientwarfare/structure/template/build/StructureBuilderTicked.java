@@ -97,10 +97,6 @@ public class StructureBuilderTicked extends StructureBuilder {
 		this.world = world;
 	}
 
-	public World getWorld() {
-		return world;
-	}
-
 	public void readFromNBT(NBTTagCompound tag)//should be called immediately after construction
 	{
 		String name = tag.getString("name");
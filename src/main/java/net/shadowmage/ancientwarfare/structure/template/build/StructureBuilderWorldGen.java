@@ -9,12 +9,16 @@ public class StructureBuilderWorldGen extends StructureBuilder {
 
 	public StructureBuilderWorldGen(World world, StructureTemplate template, EnumFacing face, BlockPos pos) {
 		super(world, template, face, pos);
+		writeToChunkSections();
 	}
 
 	@Override
-	public void instantConstruction() {
+	protected void onConstructionStarted() {
 		template.getValidationSettings().preGeneration(world, buildOrigin, buildFace, template, bb);
-		super.instantConstruction();
+	}
+
+	@Override
+	protected void onConstructionFinished() {
 		template.getValidationSettings().postGeneration(world, buildOrigin, bb);
 	}
 
@@ -231,7 +231,7 @@ public abstract class StructureValidator {
 					}
 				}
 			}
-			TemplateParser.lineNumber++;
+			TemplateParser.incrementLineNumber();
 		}
 
 		//defaulting templates to overworld dimension if no dimension list provided
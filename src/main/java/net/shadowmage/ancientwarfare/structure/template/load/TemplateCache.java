@@ -0,0 +1,154 @@
+package net.shadowmage.ancientwarfare.structure.template.load;
+
+import com.google.common.hash.Hashing;
+import net.shadowmage.ancientwarfare.core.config.AWLog;
+import net.shadowmage.ancientwarfare.structure.template.StructureTemplate;
+
+import javax.annotation.Nullable;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ * Binary cache of parsed templates, so that the layer data does not have to be parsed from text on every start.<br>
+ * Entries are keyed by a hash of the template file content, a changed template simply misses the cache.<br>
+ * An entry holds the template lines without the layers (header, validation and rules, which are plugin defined and
+ * cheap to parse) and the parsed layer data.<br>
+ * Thread safe, used by all template loader threads.
+ */
+public class TemplateCache {
+
+	private static final int MAGIC = 0x41574354;//AWCT
+	private static final int FORMAT_VERSION = 1;
+	private static final String EXTENSION = ".awc";
+
+	private final File directory;
+	private final Set<String> usedKeys = ConcurrentHashMap.newKeySet();
+
+	public TemplateCache(File directory) {
+		this.directory = directory;
+	}
+
+	public static String getKey(byte[] content) {
+		return Hashing.sha256().hashBytes(content).toString();
+	}
+
+	/*
+	 * @return the template parsed from the cache entry for the key, or null if there is no valid entry
+	 */
+	@Nullable
+	public StructureTemplate load(String fileName, String key) {
+		usedKeys.add(key);
+		File file = getFile(key);
+		if (!file.exists()) {
+			return null;
+		}
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+				return null;
+			}
+			int lineCount = in.readInt();
+			List<String> lines = new ArrayList<>(lineCount);
+			for (int i = 0; i < lineCount; i++) {
+				byte[] line = new byte[in.readInt()];
+				in.readFully(line);
+				lines.add(new String(line, StandardCharsets.UTF_8));
+			}
+			short[] templateData = new short[in.readInt()];
+			for (int i = 0; i < templateData.length; i++) {
+				templateData[i] = in.readShort();
+			}
+			return TemplateParser.INSTANCE.parseTemplate(fileName, lines, templateData);
+		}
+		catch (IOException | IllegalArgumentException e) {
+			AWLog.logError("Discarding unreadable template cache entry for: " + fileName + " : " + e.getMessage());
+			if (!file.delete()) {
+				AWLog.logError("Could not delete template cache entry: " + file);
+			}
+			return null;
+		}
+	}
+
+	/*
+	 * Stores the template lines (without layers) and parsed layer data under the key.<br>
+	 * Templates in the old format are not cached, they are converted to the new format on load.
+	 */
+	public void store(String key, List<String> templateLines, short[] templateData) {
+		List<String> lines = new ArrayList<>();
+		boolean newVersion = false;
+		boolean inLayer = false;
+		for (String line : templateLines) {
+			if (line.startsWith("version=")) {
+				newVersion = true;
+			}
+			if (line.startsWith("layer:")) {
+				inLayer = true;
+			} else if (inLayer) {
+				inLayer = !line.startsWith(":endlayer");
+			} else {
+				lines.add(line);
+			}
+		}
+		if (!newVersion || (!directory.exists() && !directory.mkdirs())) {
+			return;
+		}
+		File file = getFile(key);
+		File tempFile = new File(directory, key + "." + Thread.currentThread().getId() + ".tmp");
+		try {
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+				out.writeInt(MAGIC);
+				out.writeInt(FORMAT_VERSION);
+				out.writeInt(lines.size());
+				for (String line : lines) {
+					byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+					out.writeInt(bytes.length);
+					out.write(bytes);
+				}
+				out.writeInt(templateData.length);
+				for (short data : templateData) {
+					out.writeShort(data);
+				}
+			}
+			Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+		catch (IOException e) {
+			AWLog.logError("Could not write template cache entry: " + file + " : " + e.getMessage());
+			if (tempFile.exists() && !tempFile.delete()) {
+				AWLog.logError("Could not delete template cache entry: " + tempFile);
+			}
+		}
+	}
+
+	/*
+	 * Deletes the entries of templates that were not loaded this time, so that the cache does not grow with every template edit
+	 */
+	public void removeUnused() {
+		File[] files = directory.listFiles();
+		if (files == null) {
+			return;
+		}
+		for (File file : files) {
+			String name = file.getName();
+			if (name.endsWith(EXTENSION) && !usedKeys.contains(name.substring(0, name.length() - EXTENSION.length())) && !file.delete()) {
+				AWLog.logError("Could not delete template cache entry: " + file);
+			}
+		}
+		usedKeys.clear();
+	}
+
+	private File getFile(String key) {
+		return new File(directory, key + EXTENSION);
+	}
+}
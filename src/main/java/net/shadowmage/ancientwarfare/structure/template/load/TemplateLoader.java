@@ -21,6 +21,8 @@
 
 package net.shadowmage.ancientwarfare.structure.template.load;
 
+import com.google.common.io.ByteStreams;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import net.shadowmage.ancientwarfare.core.config.AWCoreStatics;
 import net.shadowmage.ancientwarfare.core.config.AWLog;
 import net.shadowmage.ancientwarfare.structure.config.AWStructureStatics;
@@ -33,6 +35,7 @@ import net.shadowmage.ancientwarfare.structure.town.TownTemplateParser;
 import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
 import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
@@ -40,14 +43,22 @@ import java.io.FileReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Scanner;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 
@@ -56,6 +67,7 @@ public class TemplateLoader {
 	public static final String defaultTemplateDirectory = "/assets/ancientwarfare/templates/";
 	public static String outputDirectory = null;
 	public static String includeDirectory = null;
+	public static String cacheDirectory = null;
 	private final String defaultTemplatePackLocation = "/assets/ancientwarfare/template/default_structure_pack.zip";
 
 	private List<File> probableTownFiles = new ArrayList<>();
@@ -68,6 +80,12 @@ public class TemplateLoader {
 
 	private HashMap<String, BufferedImage> images = new HashMap<>();
 
+	/*
+	 * only set while templates are loaded
+	 */
+	private ExecutorService parsingExecutor;
+	private TemplateCache templateCache;
+
 	public static final TemplateLoader INSTANCE = new TemplateLoader();
 
 	private TemplateLoader() {
@@ -76,6 +94,7 @@ public class TemplateLoader {
 	public void initializeAndExportDefaults(String path) {
 		outputDirectory = AWCoreStatics.configPathForFiles + "structures/export/";
 		includeDirectory = AWCoreStatics.configPathForFiles + "structures/included/";
+		cacheDirectory = AWCoreStatics.configPathForFiles + "structures/cache/";
 
         /*
 		 * create default dirs if they don't exist...
@@ -93,21 +112,41 @@ public class TemplateLoader {
 		}
 	}
 
+	/*
+	 * Template files are read on the calling thread and parsed in parallel on a worker pool.<br>
+	 * Parsed templates are added to the template manager on the calling thread, in the order the files were found.
+	 */
 	public void loadTemplates() {
-		int loadedCount = this.loadDefaultPack();//load default structure pack
+		int threads = AWStructureStatics.templateLoaderThreads > 0 ? AWStructureStatics.templateLoaderThreads : Runtime.getRuntime().availableProcessors();
+		parsingExecutor = Executors.newFixedThreadPool(threads, new ThreadFactoryBuilder().setNameFormat("AW Template Loader %d").setDaemon(true).build());
+		templateCache = AWStructureStatics.useTemplateCache ? new TemplateCache(new File(cacheDirectory)) : null;
+		int loadedCount = 0;
+		try {
+			List<Future<StructureTemplate>> defaultPackTemplates = this.loadDefaultPack();//load default structure pack
 
-		this.locateStructureFiles();
-		StructureTemplate template;
-		for (File f : this.probableStructureFiles) {
-			template = loadTemplateFromFile(f);
-			if (template != null) {
-				AWLog.log("Loaded Structure Template: [" + template.name + "] WorldGen: " + template.getValidationSettings().isWorldGenEnabled() + "  Survival: " + template.getValidationSettings().isSurvival());
-				StructureTemplateManager.INSTANCE.addTemplate(template);
-				loadedStructureNames.add(template.name);
-				loadedCount++;
+			this.locateStructureFiles();
+			List<Future<StructureTemplate>> fileTemplates = new ArrayList<>();
+			for (File f : this.probableStructureFiles) {
+				fileTemplates.add(loadTemplateFromFile(f));
 			}
+			Map<File, List<Future<StructureTemplate>>> zipTemplates = this.loadTemplatesFromZips();
+
+			loadedCount += addTemplates(defaultPackTemplates);
+			loadedCount += addTemplates(fileTemplates);
+			for (Map.Entry<File, List<Future<StructureTemplate>>> zip : zipTemplates.entrySet()) {
+				int parsed = addTemplates(zip.getValue());
+				AWLog.log("Loaded a total of " + parsed + " template(s) from zip file: " + zip.getKey().getName());
+				loadedCount += parsed;
+			}
+		}
+		finally {
+			parsingExecutor.shutdownNow();
+			parsingExecutor = null;
+		}
+		if (templateCache != null) {
+			templateCache.removeUnused();
+			templateCache = null;
 		}
-		loadedCount += this.loadTemplatesFromZips();
 		AWLog.log("Loaded " + loadedCount + " structure(s)");
 
 		this.validateAndLoadImages();
@@ -159,27 +198,76 @@ public class TemplateLoader {
 		}
 	}
 
-	private StructureTemplate loadTemplateFromFile(File file) {
-		FileReader reader = null;
-		Scanner scan = null;
-		List<String> templateLines = new ArrayList<>();
+	private int addTemplates(List<Future<StructureTemplate>> parsedTemplates) {
+		int added = 0;
+		StructureTemplate template;
+		for (Future<StructureTemplate> parsedTemplate : parsedTemplates) {
+			template = getParsedTemplate(parsedTemplate);
+			if (template != null) {
+				AWLog.log("Loaded Structure Template: [" + template.name + "] WorldGen: " + template.getValidationSettings().isWorldGenEnabled() + "  Survival: " + template.getValidationSettings().isSurvival());
+				StructureTemplateManager.INSTANCE.addTemplate(template);
+				loadedStructureNames.add(template.name);
+				added++;
+			}
+		}
+		return added;
+	}
+
+	private StructureTemplate getParsedTemplate(Future<StructureTemplate> parsedTemplate) {
 		try {
-			reader = new FileReader(file);
-			scan = new Scanner(reader);
-			while (scan.hasNext()) {
-				templateLines.add(scan.nextLine());
+			return parsedTemplate.get();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while loading structure templates", e);
+		}
+		catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;//parsing errors are reported the same way as when parsing on this thread
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
 			}
-			return TemplateParser.INSTANCE.parseTemplate(file.getName(), templateLines);
+			throw new IllegalStateException(cause);
 		}
-		catch (FileNotFoundException e) {
-			e.printStackTrace();
-			return null;
+	}
+
+	private Future<StructureTemplate> submitTemplate(String fileName, byte[] content) {
+		return parsingExecutor.submit(() -> parseTemplate(fileName, content));
+	}
+
+	private StructureTemplate parseTemplate(String fileName, byte[] content) throws IOException {
+		String cacheKey = null;
+		if (templateCache != null) {
+			cacheKey = TemplateCache.getKey(content);
+			StructureTemplate template = templateCache.load(fileName, cacheKey);
+			if (template != null) {
+				return template;
+			}
 		}
-		finally {
-			if (scan != null) {
-				scan.close();
+		List<String> lines = new ArrayList<>();
+		String line;
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(new ByteArrayInputStream(content)))) {
+			while ((line = reader.readLine()) != null) {
+				lines.add(line);
 			}
 		}
+		StructureTemplate template = TemplateParser.INSTANCE.parseTemplate(fileName, lines);
+		if (cacheKey != null && template != null) {
+			templateCache.store(cacheKey, lines, template.getTemplateData());
+		}
+		return template;
+	}
+
+	private Future<StructureTemplate> loadTemplateFromFile(File file) {
+		try {
+			return submitTemplate(file.getName(), Files.readAllBytes(file.toPath()));
+		}
+		catch (IOException e) {
+			e.printStackTrace();
+			return CompletableFuture.completedFuture(null);
+		}
 	}
 
 	private TownTemplate loadTownTemplateFromFile(File file) {
@@ -228,9 +316,8 @@ public class TemplateLoader {
 		}
 	}
 
-	private int loadTemplatesFromZipStream(ZipInputStream zis) {
-		int parsed = 0;
-		StructureTemplate template;
+	private List<Future<StructureTemplate>> loadTemplatesFromZipStream(ZipInputStream zis) {
+		List<Future<StructureTemplate>> parsed = new ArrayList<>();
 		ZipEntry entry = null;
 		try {
 			while ((entry = zis.getNextEntry()) != null) {
@@ -245,13 +332,7 @@ public class TemplateLoader {
 				} else if (entry.getName().toLowerCase(Locale.ENGLISH).endsWith("." + AWStructureStatics.townTemplateExtension)) {
 					loadTownTemplateFromZip(entry, zis);
 				} else if (entry.getName().toLowerCase(Locale.ENGLISH).endsWith("." + AWStructureStatics.templateExtension)) {
-					template = loadTemplateFromZip(entry, zis);
-					if (template != null) {
-						AWLog.log("Loaded Structure Template: [" + template.name + "] WorldGen: " + template.getValidationSettings().isWorldGenEnabled() + "  Survival: " + template.getValidationSettings().isSurvival());
-						StructureTemplateManager.INSTANCE.addTemplate(template);
-						loadedStructureNames.add(template.name);
-						parsed++;
-					}
+					parsed.add(submitTemplate(entry.getName(), ByteStreams.toByteArray(zis)));
 				}
 			}
 		}
@@ -261,13 +342,13 @@ public class TemplateLoader {
 		return parsed;
 	}
 
-	private int loadDefaultPack() {
+	private List<Future<StructureTemplate>> loadDefaultPack() {
 		if (!AWStructureStatics.loadDefaultPack) {
-			return 0;
+			return new ArrayList<>();
 		}
 		InputStream is = getClass().getResourceAsStream(defaultTemplatePackLocation);
 		ZipInputStream zis = new ZipInputStream(is);
-		int loaded = loadTemplatesFromZipStream(zis);
+		List<Future<StructureTemplate>> loaded = loadTemplatesFromZipStream(zis);
 		try {
 			zis.close();
 		}
@@ -277,14 +358,14 @@ public class TemplateLoader {
 		return loaded;
 	}
 
-	private int loadTemplatesFromZips() {
+	private Map<File, List<Future<StructureTemplate>>> loadTemplatesFromZips() {
 		ZipInputStream zis = null;
 		FileInputStream fis = null;
 
-		int parsed = 0;
-		int totalParsed = 0;
+		List<Future<StructureTemplate>> parsed;
+		Map<File, List<Future<StructureTemplate>>> parsedByZip = new LinkedHashMap<>();
 		for (File f : this.probableZipFiles) {
-			parsed = 0;
+			parsed = new ArrayList<>();
 			AWLog.log("Loading templates from zip file: " + f.getName());
 			try {
 				fis = new FileInputStream(f);
@@ -301,10 +382,9 @@ public class TemplateLoader {
 			catch (FileNotFoundException e) {
 				e.printStackTrace();
 			}
-			AWLog.log("Loaded a total of " + parsed + " template(s) from zip file: " + f.getName());
-			totalParsed += parsed;
+			parsedByZip.put(f, parsed);
 		}
-		return totalParsed;
+		return parsedByZip;
 	}
 
 	private TownTemplate loadTownTemplateFromZip(ZipEntry entry, InputStream is) {
@@ -329,25 +409,6 @@ public class TemplateLoader {
 		return template;
 	}
 
-	private StructureTemplate loadTemplateFromZip(ZipEntry entry, InputStream is) {
-		InputStreamReader isr = new InputStreamReader(is);
-		BufferedReader reader = new BufferedReader(isr);
-		List<String> lines = new ArrayList<>();
-		String line;
-		StructureTemplate template = null;
-		try {
-			while ((line = reader.readLine()) != null) {
-				lines.add(line);
-			}
-			template = TemplateParser.INSTANCE.parseTemplate(entry.getName(), lines);
-		}
-		catch (IOException e1) {
-			e1.printStackTrace();
-			template = null;
-		}
-		return template;
-	}
-
 	private void locateStructureFiles() {
 		this.recursiveScan(new File(includeDirectory), probableStructureFiles, probableZipFiles, AWStructureStatics.templateExtension);
 		this.recursiveScan(new File(includeDirectory), probableTownFiles, probableZipFiles, AWStructureStatics.townTemplateExtension);
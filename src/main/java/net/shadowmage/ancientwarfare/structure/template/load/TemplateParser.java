@@ -31,6 +31,7 @@ import net.shadowmage.ancientwarfare.structure.template.StructurePluginManager;
 import net.shadowmage.ancientwarfare.structure.template.StructureTemplate;
 import net.shadowmage.ancientwarfare.structure.template.build.validation.StructureValidator;
 
+import javax.annotation.Nullable;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
@@ -46,8 +47,18 @@ public class TemplateParser {
 	}
 
 	public StructureTemplate parseTemplate(String fileName, List<String> templateLines) {
+		return parseTemplate(fileName, templateLines, null);
+	}
+
+	/*
+	 * Thread safe, templates are parsed in parallel by the template loader.<br>
+	 * Template rules are parsed on the calling thread, see {@link net.shadowmage.ancientwarfare.structure.api.TemplateRule#parseRule(int, List)}.
+	 *
+	 * @param cachedTemplateData layer data from the template cache, the lines then do not contain any layers
+	 */
+	public StructureTemplate parseTemplate(String fileName, List<String> templateLines, @Nullable short[] cachedTemplateData) {
 		try {
-			return parseTemplateLines(fileName, templateLines);
+			return parseTemplateLines(fileName, templateLines, cachedTemplateData);
 		}
 		catch (TemplateParsingException e) {
 			throw new IllegalArgumentException(e.getMessage());
@@ -55,12 +66,21 @@ public class TemplateParser {
 	}
 
 	/*
-	 * used for debug/error output purposes, to know what line number is currently being iterated over/read through
+	 * used for debug/error output purposes, to know what line number is currently being iterated over/read through<br>
+	 * kept per thread, as templates are parsed in parallel
 	 */
-	public static int lineNumber = -1;
+	private static final ThreadLocal<int[]> LINE_NUMBER = ThreadLocal.withInitial(() -> new int[] {-1});
 
-	private StructureTemplate parseTemplateLines(String fileName, List<String> lines) throws IllegalArgumentException, TemplateParsingException {
-		lineNumber = -1;
+	public static int getLineNumber() {
+		return LINE_NUMBER.get()[0];
+	}
+
+	public static void incrementLineNumber() {
+		LINE_NUMBER.get()[0]++;
+	}
+
+	private StructureTemplate parseTemplateLines(String fileName, List<String> lines, @Nullable short[] cachedTemplateData) throws IllegalArgumentException, TemplateParsingException {
+		LINE_NUMBER.get()[0] = -1;
 		Iterator<String> it = lines.iterator();
 		String line;
 
@@ -80,7 +100,7 @@ public class TemplateParser {
 		boolean[] initData = new boolean[4];
 		int highestParsedRule = 0;
 		while (it.hasNext()) {
-			lineNumber++;
+			incrementLineNumber();
 			line = it.next();
 			if (line.startsWith("#") || line.equals("")) {
 				continue;
@@ -88,7 +108,7 @@ public class TemplateParser {
 			if (line.startsWith("header:")) {
 				while (it.hasNext()) {
 					line = it.next();
-					lineNumber++;
+					incrementLineNumber();
 					if (line.startsWith(":endheader")) {
 						break;
 					}
@@ -120,15 +140,23 @@ public class TemplateParser {
 						throw new TemplateParsingException("Could not parse template for " + fileName + " -- template was missing header or header data.");
 					}
 				}
-				templateData = new short[xSize * ySize * zSize];
+				if (cachedTemplateData == null) {
+					templateData = new short[xSize * ySize * zSize];
+				} else if (cachedTemplateData.length == xSize * ySize * zSize) {
+					templateData = cachedTemplateData;
+				} else {
+					throw new TemplateParsingException("Cached layer data of " + fileName + " does not match the template size.");
+				}
 			}
 
 			if (!newVersion) {
-				try {
-					return converter.convertOldTemplate(fileName, lines);
-				}
-				catch (Exception e) {
-					throw new TemplateParsingException("Error parsing template: " + fileName + " at line: " + (converter.lineNumber + 1) + " for line: " + lines.get(converter.lineNumber));
+				synchronized (converter) {//the converter keeps parsing state and shared tile entities
+					try {
+						return converter.convertOldTemplate(fileName, lines);
+					}
+					catch (Exception e) {
+						throw new TemplateParsingException("Error parsing template: " + fileName + " at line: " + (converter.lineNumber + 1) + " for line: " + lines.get(converter.lineNumber));
+					}
 				}
 			}
 			/*
@@ -267,7 +295,7 @@ public class TemplateParser {
 	private void parseLayer(List<String> templateLines, int yLayer, int xSize, int ySize, int zSize, short[] templateData) {
 		int z = 0;
 		for (String st : templateLines) {
-			lineNumber++;
+			incrementLineNumber();
 			if (st.startsWith("layer:") || st.startsWith(":endlayer")) {
 				continue;
 			}
@@ -16,6 +16,7 @@ import net.minecraftforge.fml.common.registry.ForgeRegistries;
 import net.minecraftforge.items.IItemHandler;
 import net.minecraftforge.items.ItemStackHandler;
 import net.shadowmage.ancientwarfare.core.config.AWLog;
+import net.shadowmage.ancientwarfare.core.util.EntityIndex;
 import net.shadowmage.ancientwarfare.core.util.EntityTools;
 import net.shadowmage.ancientwarfare.structure.block.AWStructuresBlocks;
 import net.shadowmage.ancientwarfare.structure.config.AWStructureStatics;
@@ -135,25 +136,14 @@ public class SpawnerSettings {
 			}
 		}
 		if (playerRange > 0) {
-			List<EntityPlayer> nearbyPlayers = world.getEntitiesWithinAABB(EntityPlayer.class, new AxisAlignedBB(pos, pos.add(1, 1, 1)).grow(playerRange, playerRange, playerRange));
-			if (nearbyPlayers.isEmpty()) {
-				return;
-			}
-			boolean doSpawn = false;
-			for (EntityPlayer player : nearbyPlayers) {
-				if (!debugMode && player.capabilities.isCreativeMode) {
-					continue;
-				}//iterate until a single non-creative mode player is found
-				doSpawn = true;
-				break;
-			}
-			if (!doSpawn) {
+			//only non-creative mode players trigger spawning
+			if (EntityIndex.INSTANCE.countEntitiesWithinAABB(world, EntityPlayer.class, new AxisAlignedBB(pos, pos.add(1, 1, 1)).grow(playerRange, playerRange, playerRange), player -> debugMode || !player.capabilities.isCreativeMode) == 0) {
 				return;
 			}
 		}
 
 		if (maxNearbyMonsters > 0 && mobRange > 0) {
-			int nearbyCount = world.getEntitiesWithinAABB(EntityLivingBase.class, new AxisAlignedBB(pos, pos.add(1, 1, 1)).grow(mobRange, mobRange, mobRange)).size();
+			int nearbyCount = EntityIndex.INSTANCE.countEntitiesWithinAABB(world, EntityLivingBase.class, new AxisAlignedBB(pos, pos.add(1, 1, 1)).grow(mobRange, mobRange, mobRange), null);
 			if (nearbyCount >= maxNearbyMonsters) {
 				AWLog.logDebug("skipping spawning because of too many nearby entities");
 				return;
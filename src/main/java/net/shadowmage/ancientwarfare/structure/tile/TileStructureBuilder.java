@@ -20,6 +20,7 @@ import net.shadowmage.ancientwarfare.core.interfaces.IWorker;
 import net.shadowmage.ancientwarfare.core.owner.IOwnable;
 import net.shadowmage.ancientwarfare.core.owner.Owner;
 import net.shadowmage.ancientwarfare.core.tile.TileUpdatable;
+import net.shadowmage.ancientwarfare.core.tile.WorksiteRegistry;
 import net.shadowmage.ancientwarfare.core.upgrade.WorksiteUpgrade;
 import net.shadowmage.ancientwarfare.structure.block.AWStructuresBlocks;
 import net.shadowmage.ancientwarfare.structure.template.build.StructureBB;
@@ -49,6 +50,24 @@ public class TileStructureBuilder extends TileUpdatable implements IWorkSite, IO
 		maxInput = AWCoreStatics.energyPerWorkUnit;
 	}
 
+	@Override
+	public void onLoad() {
+		super.onLoad();
+		WorksiteRegistry.INSTANCE.add(this);
+	}
+
+	@Override
+	public void invalidate() {
+		super.invalidate();
+		WorksiteRegistry.INSTANCE.remove(this);
+	}
+
+	@Override
+	public void onChunkUnload() {
+		super.onChunkUnload();
+		WorksiteRegistry.INSTANCE.remove(this);
+	}
+
 	@Override
 	@SideOnly(Side.CLIENT)
 	public AxisAlignedBB getRenderBoundingBox() {
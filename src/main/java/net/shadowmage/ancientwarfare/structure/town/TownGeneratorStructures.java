@@ -256,7 +256,7 @@ public class TownGeneratorStructures {
 		z -= (t.zSize / 2);
 		x += t.xOffset;
 		z += t.zOffset;
-		WorldGenTickHandler.INSTANCE.addStructureForGeneration(new StructureBuilder(world, t, EnumFacing.SOUTH, new BlockPos(x, y, z)));
+		WorldGenTickHandler.INSTANCE.addStructureForGeneration(new StructureBuilder(world, t, EnumFacing.SOUTH, new BlockPos(x, y, z)).writeToChunkSections());
 	}
 
 	private static boolean checkForNeighboringDoor(List<BlockPos> doors, int x, int z, Direction dir) {
@@ -346,7 +346,7 @@ public class TownGeneratorStructures {
 		BlockPos buildKey = bb.getRLCorner(face, BlockPos.ORIGIN).offset(face.rotateY(), template.xOffset).offset(face.getOpposite(), template.zOffset).up(gen.townBounds.min.getY() - template.yOffset);
 		bb.add(0, -template.yOffset, 0);
 		gen.structureDoors.add(buildKey);
-		WorldGenTickHandler.INSTANCE.addStructureForGeneration(new StructureBuilder(gen.world, template, face, buildKey, bb));
+		WorldGenTickHandler.INSTANCE.addStructureForGeneration(new StructureBuilder(gen.world, template, face, buildKey, bb).writeToChunkSections());
 		//  AWLog.logDebug("added structure to tick handler for generation: "+template.name +" at: "+buildKey+" town bounds: "+gen.townBounds);
 	}
 
@@ -120,7 +120,7 @@ public class TownGeneratorWalls {
 		if (template == null) {
 			return;
 		}
-		WorldGenTickHandler.INSTANCE.addStructureForGeneration(new StructureBuilder(world, template, face, pos));
+		WorldGenTickHandler.INSTANCE.addStructureForGeneration(new StructureBuilder(world, template, face, pos).writeToChunkSections());
 	}
 
 }
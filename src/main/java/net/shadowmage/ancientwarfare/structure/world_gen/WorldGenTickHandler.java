@@ -1,21 +1,47 @@
 package net.shadowmage.ancientwarfare.structure.world_gen;
 
+import net.minecraft.server.management.PlayerChunkMap;
+import net.minecraft.server.management.PlayerChunkMapEntry;
+import net.minecraft.world.MinecraftException;
 import net.minecraft.world.World;
+import net.minecraft.world.WorldServer;
 import net.minecraftforge.common.DimensionManager;
+import net.minecraftforge.event.world.WorldEvent;
 import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
 import net.minecraftforge.fml.common.gameevent.TickEvent.Phase;
 import net.minecraftforge.fml.common.gameevent.TickEvent.ServerTickEvent;
+import net.shadowmage.ancientwarfare.core.config.AWLog;
+import net.shadowmage.ancientwarfare.structure.config.AWStructureStatics;
+import net.shadowmage.ancientwarfare.structure.template.build.StructureBB;
 import net.shadowmage.ancientwarfare.structure.template.build.StructureBuilder;
 import net.shadowmage.ancientwarfare.structure.town.WorldTownGenerator;
 
+import javax.annotation.Nullable;
 import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
+/*
+ * Generates queued world gen chunks, towns and structures on the server tick.<br>
+ * Structures are built as resumable jobs: each tick builds slices of POSITIONS_PER_SLICE template positions until the
+ * world gen time budget of the tick (AWStructureStatics.worldGenTickBudget) is used up, so a town being discovered is
+ * built over several ticks instead of in one.<br>
+ * Callback tickets order the generation of towns (roads after walls, lamps after buildings...), so only the structures
+ * queued before the first callback are available to be built, among those structures in chunks that players can see are
+ * built first, then already started ones, then the oldest one.<br>
+ * Chunks changed by a structure that is not done yet are relit and resent once at the end of the tick, not per slice.<br>
+ * Structures that were started are never dropped half built, when their world unloads they are finished at once.
+ */
 public final class WorldGenTickHandler {
 
 	public static final WorldGenTickHandler INSTANCE = new WorldGenTickHandler();
+	private static final int POSITIONS_PER_SLICE = 256;
 	private final List<ChunkGenerationTicket> newWorldGenTickets, newTownGenTickets, chunksToGen, townChunksToGen;
 	private final List<StructureTicket> newStructureGenTickets, structuresToGen;
+	private final Set<StructureGenerationTicket> builtThisTick = new LinkedHashSet<>();
+	private long builtStructures, lastTickNanos, maxTickNanos;
 
 	private WorldGenTickHandler() {
 		newWorldGenTickets = new ArrayList<>();
@@ -45,9 +71,12 @@ public final class WorldGenTickHandler {
 	@SubscribeEvent
 	public void serverTick(ServerTickEvent evt) {
 		if (evt.phase == Phase.END) {
+			long start = System.nanoTime();
 			genChunks();
-			genStructures();
+			genStructures(start + AWStructureStatics.worldGenTickBudget * 1000000L);
 			genTowns();
+			lastTickNanos = System.nanoTime() - start;
+			maxTickNanos = Math.max(maxTickNanos, lastTickNanos);
 		}
 	}
 
@@ -56,13 +85,45 @@ public final class WorldGenTickHandler {
 			genChunks();
 		}
 		while (!structuresToGen.isEmpty()) {
-			genStructures();
+			structuresToGen.remove(0).call();
+			structuresToGen.addAll(newStructureGenTickets);
+			newStructureGenTickets.clear();
 		}
 		while (!townChunksToGen.isEmpty()) {
 			genTowns();
 		}
 	}
 
+	/*
+	 * Finishes the structures started in the unloading world, the world was already saved so the finished chunks are saved again
+	 */
+	@SubscribeEvent
+	public void onWorldUnload(WorldEvent.Unload evt) {
+		World world = evt.getWorld();
+		if (world.isRemote) {
+			return;
+		}
+		boolean finished = false;
+		Iterator<StructureTicket> it = structuresToGen.iterator();
+		while (it.hasNext()) {
+			StructureTicket tk = it.next();
+			if (tk instanceof StructureGenerationTicket && ((StructureGenerationTicket) tk).started && ((StructureGenerationTicket) tk).builder.getWorld() == world) {
+				it.remove();
+				((StructureGenerationTicket) tk).builder.construct(Integer.MAX_VALUE);
+				builtStructures++;
+				finished = true;
+			}
+		}
+		if (finished && world instanceof WorldServer) {
+			try {
+				((WorldServer) world).saveAllChunks(true, null);
+			}
+			catch (MinecraftException e) {
+				AWLog.logError("Could not save structures finished while unloading dimension " + world.provider.getDimension() + ": " + e.getMessage());
+			}
+		}
+	}
+
 	private void genChunks() {
 		if (!chunksToGen.isEmpty()) {
 			ChunkGenerationTicket tk = chunksToGen.remove(0);
@@ -85,9 +146,33 @@ public final class WorldGenTickHandler {
 		}
 	}
 
-	private void genStructures() {
-		if (!structuresToGen.isEmpty()) {
-			structuresToGen.remove(0).call();
+	private void genStructures(long deadline) {
+		StructureGenerationTicket job = null;//picked again each tick, players may have moved towards other queued structures
+		try {
+			do {
+				if (job == null) {
+					job = pickNextJob();
+				}
+				if (job != null) {
+					if (buildSlice(job)) {
+						builtThisTick.remove(job);
+						job = null;
+					} else {
+						builtThisTick.add(job);
+					}
+				} else if (!structuresToGen.isEmpty()) {
+					structuresToGen.remove(0).call();//callback at the head of the queue, everything queued before it is done
+				} else {
+					break;
+				}
+			} while (System.nanoTime() - deadline < 0);
+		}
+		finally {
+			//structures that are not done yet relight and resend their chunks once per tick
+			for (StructureGenerationTicket built : builtThisTick) {
+				built.builder.flushChunkSections();
+			}
+			builtThisTick.clear();
 		}
 		if (!newStructureGenTickets.isEmpty()) {
 			structuresToGen.addAll(newStructureGenTickets);
@@ -95,6 +180,116 @@ public final class WorldGenTickHandler {
 		}
 	}
 
+	/*
+	 * @return true if the job is done and was removed from the queue
+	 */
+	private boolean buildSlice(StructureGenerationTicket job) {
+		boolean done = true;
+		try {
+			if (job.isWorldLoaded()) {
+				job.started = true;
+				done = job.builder.construct(POSITIONS_PER_SLICE);
+				if (done) {
+					builtStructures++;
+				}
+			}
+		}
+		finally {
+			if (done) {//also drops a job that threw or whose world was unloaded before it was started, started jobs are finished on unload
+				structuresToGen.remove(job);
+			}
+		}
+		return done;
+	}
+
+	/*
+	 * picks the job to build from the structures queued before the first callback, preferring structures players can see,
+	 * then ones that are already partially built
+	 */
+	@Nullable
+	private StructureGenerationTicket pickNextJob() {
+		StructureGenerationTicket best = null;
+		int bestScore = -1;
+		for (StructureTicket tk : structuresToGen) {
+			if (!(tk instanceof StructureGenerationTicket)) {
+				break;
+			}
+			StructureGenerationTicket job = (StructureGenerationTicket) tk;
+			int score = (isVisibleToPlayers(job.builder) ? 2 : 0) + (job.started ? 1 : 0);
+			if (score > bestScore) {
+				best = job;
+				bestScore = score;
+				if (score == 3) {
+					break;
+				}
+			}
+		}
+		return best;
+	}
+
+	private static boolean isVisibleToPlayers(StructureBuilder builder) {
+		World world = builder.getWorld();
+		if (!(world instanceof WorldServer)) {
+			return false;
+		}
+		PlayerChunkMap playerChunkMap = ((WorldServer) world).getPlayerChunkMap();
+		StructureBB bb = builder.getBoundingBox();
+		for (int x = bb.min.getX() >> 4; x <= bb.max.getX() >> 4; x++) {
+			for (int z = bb.min.getZ() >> 4; z <= bb.max.getZ() >> 4; z++) {
+				PlayerChunkMapEntry entry = playerChunkMap.getEntry(x, z);
+				if (entry != null && entry.isSentToPlayers()) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	public int getQueuedStructureCount() {
+		int count = 0;
+		for (StructureTicket tk : structuresToGen) {
+			if (tk instanceof StructureGenerationTicket) {
+				count++;
+			}
+		}
+		for (StructureTicket tk : newStructureGenTickets) {
+			if (tk instanceof StructureGenerationTicket) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	public int getStartedStructureCount() {
+		int count = 0;
+		for (StructureTicket tk : structuresToGen) {
+			if (tk instanceof StructureGenerationTicket && ((StructureGenerationTicket) tk).started) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	public int getQueuedCallbackCount() {
+		return structuresToGen.size() + newStructureGenTickets.size() - getQueuedStructureCount();
+	}
+
+	public int getQueuedChunkCount() {
+		return chunksToGen.size() + newWorldGenTickets.size() + townChunksToGen.size() + newTownGenTickets.size();
+	}
+
+	public long getBuiltStructureCount() {
+		return builtStructures;
+	}
+
+	public long getLastTickNanos() {
+		return lastTickNanos;
+	}
+
+	public long getMaxTickNanos() {
+		return maxTickNanos;
+	}
+
 	private static class ChunkGenerationTicket {
 		final int world, chunkX, chunkZ;
 
@@ -122,14 +317,22 @@ public final class WorldGenTickHandler {
 
 	private static final class StructureGenerationTicket implements StructureTicket {
 		private final StructureBuilder builder;
+		private boolean started;
 
 		public StructureGenerationTicket(StructureBuilder builder) {
 			this.builder = builder;
 		}
 
+		private boolean isWorldLoaded() {
+			World world = builder.getWorld();
+			return DimensionManager.getWorld(world.provider.getDimension()) == world;
+		}
+
 		@Override
 		public void call() {
-			builder.instantConstruction();
+			if (isWorldLoaded()) {
+				builder.instantConstruction();
+			}
 		}
 	}
 
@@ -1,5 +1,6 @@
 package net.shadowmage.ancientwarfare.vehicle;
 
+import net.minecraftforge.common.MinecraftForge;
 import net.minecraftforge.fml.common.Mod;
 import net.minecraftforge.fml.common.Mod.EventHandler;
 import net.minecraftforge.fml.common.Mod.Instance;
@@ -7,12 +8,18 @@ import net.minecraftforge.fml.common.SidedProxy;
 import net.minecraftforge.fml.common.event.FMLInitializationEvent;
 import net.minecraftforge.fml.common.event.FMLPreInitializationEvent;
 import net.shadowmage.ancientwarfare.core.api.ModuleStatus;
+import net.shadowmage.ancientwarfare.core.config.AWCoreStatics;
 import net.shadowmage.ancientwarfare.core.network.NetworkHandler;
 import net.shadowmage.ancientwarfare.core.network.PacketBase;
+import net.shadowmage.ancientwarfare.core.util.EntityIndex;
 import net.shadowmage.ancientwarfare.vehicle.config.AWVehicleStatics;
 import net.shadowmage.ancientwarfare.vehicle.container.ContainerVehicle;
 import net.shadowmage.ancientwarfare.vehicle.container.ContainerVehicleInventory;
 import net.shadowmage.ancientwarfare.vehicle.entity.AWVehicleEntityLoader;
+import net.shadowmage.ancientwarfare.vehicle.entity.IVehicleType;
+import net.shadowmage.ancientwarfare.vehicle.entity.VehicleBase;
+import net.shadowmage.ancientwarfare.vehicle.entity.types.VehicleType;
+import net.shadowmage.ancientwarfare.vehicle.helpers.BallisticSolver;
 import net.shadowmage.ancientwarfare.vehicle.network.PacketAimUpdate;
 import net.shadowmage.ancientwarfare.vehicle.network.PacketAmmoSelect;
 import net.shadowmage.ancientwarfare.vehicle.network.PacketAmmoUpdate;
@@ -23,6 +30,7 @@ import net.shadowmage.ancientwarfare.vehicle.network.PacketTurretAnglesUpdate;
 import net.shadowmage.ancientwarfare.vehicle.network.PacketUpgradeUpdate;
 import net.shadowmage.ancientwarfare.vehicle.network.PacketVehicleInput;
 import net.shadowmage.ancientwarfare.vehicle.network.PacketVehicleMove;
+import net.shadowmage.ancientwarfare.vehicle.pathing.VehiclePathingService;
 import net.shadowmage.ancientwarfare.vehicle.proxy.CommonProxy;
 import org.apache.logging.log4j.Logger;
 
@@ -58,20 +66,23 @@ public class AncientWarfareVehicles {
          */
 		AWVehicleEntityLoader.load();
 
-		PacketBase.registerPacketType(NetworkHandler.PACKET_AIM_UPDATE, PacketAimUpdate.class);
-		PacketBase.registerPacketType(NetworkHandler.PACKET_AMMO_SELECT, PacketAmmoSelect.class);
-		PacketBase.registerPacketType(NetworkHandler.PACKET_AMMO_UPDATE, PacketAmmoUpdate.class);
-		PacketBase.registerPacketType(NetworkHandler.PACKET_FIRE_UPDATE, PacketFireUpdate.class);
-		PacketBase.registerPacketType(NetworkHandler.PACKET_PACK_COMMAND, PacketPackCommand.class);
-		PacketBase.registerPacketType(NetworkHandler.PACKET_SINGLE_AMMO_UPDATE, PacketSingleAmmoUpdate.class);
-		PacketBase.registerPacketType(NetworkHandler.PACKET_TURRET_ANGLES_UPDATE, PacketTurretAnglesUpdate.class);
-		PacketBase.registerPacketType(NetworkHandler.PACKET_UPGRADE_UPDATE, PacketUpgradeUpdate.class);
-		PacketBase.registerPacketType(NetworkHandler.PACKET_VEHICLE_INPUT, PacketVehicleInput.class);
-		PacketBase.registerPacketType(NetworkHandler.PACKET_VEHICLE_MOVE, PacketVehicleMove.class);
+		PacketBase.registerPacketType(NetworkHandler.PACKET_AIM_UPDATE, PacketAimUpdate::new);
+		PacketBase.registerPacketType(NetworkHandler.PACKET_AMMO_SELECT, PacketAmmoSelect::new);
+		PacketBase.registerPacketType(NetworkHandler.PACKET_AMMO_UPDATE, PacketAmmoUpdate::new);
+		PacketBase.registerPacketType(NetworkHandler.PACKET_FIRE_UPDATE, PacketFireUpdate::new);
+		PacketBase.registerPacketType(NetworkHandler.PACKET_PACK_COMMAND, PacketPackCommand::new);
+		PacketBase.registerPacketType(NetworkHandler.PACKET_SINGLE_AMMO_UPDATE, PacketSingleAmmoUpdate::new);
+		PacketBase.registerPacketType(NetworkHandler.PACKET_TURRET_ANGLES_UPDATE, PacketTurretAnglesUpdate::new);
+		PacketBase.registerPacketType(NetworkHandler.PACKET_UPGRADE_UPDATE, PacketUpgradeUpdate::new);
+		PacketBase.registerPacketType(NetworkHandler.PACKET_VEHICLE_INPUT, PacketVehicleInput::new);
+		PacketBase.registerPacketType(NetworkHandler.PACKET_VEHICLE_MOVE, PacketVehicleMove::new);
 
 		NetworkHandler.registerContainer(NetworkHandler.GUI_VEHICLE_INVENTORY, ContainerVehicleInventory.class);
 		NetworkHandler.registerContainer(NetworkHandler.GUI_VEHICLE_AMMO_SELECTION, ContainerVehicle.class);
 
+		MinecraftForge.EVENT_BUS.register(VehiclePathingService.INSTANCE);
+		EntityIndex.INSTANCE.addIndexedType(VehicleBase.class);
+
 		proxy.preInit();
 	}
 
@@ -79,6 +90,19 @@ public class AncientWarfareVehicles {
 	public void init(FMLInitializationEvent evt) {
 		proxy.init();
 
+		/*
+		 * build the launch speed tables of the power aimed vehicles before the first aim update
+		 */
+		for (IVehicleType type : VehicleType.vehicleTypes) {
+			if (type != null && type.isEnabled() && type.canAdjustPower()) {
+				BallisticSolver.INSTANCE.prepare(type.getBasePitchMin(), false);
+				BallisticSolver.INSTANCE.prepare(type.getBasePitchMax(), false);
+				if (AWCoreStatics.DEBUG) {
+					BallisticSolver.INSTANCE.logAccuracy(type.getBasePitchMin(), false);
+				}
+			}
+		}
+
 		/*
 		 * save config for any changes that were made during loading stages
          */
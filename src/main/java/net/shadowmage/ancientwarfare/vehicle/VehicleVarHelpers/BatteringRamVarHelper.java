@@ -26,6 +26,7 @@ import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.util.math.AxisAlignedBB;
 import net.minecraft.util.math.BlockPos;
 import net.shadowmage.ancientwarfare.core.util.BlockTools;
+import net.shadowmage.ancientwarfare.structure.entity.GateCollisionRegistry;
 import net.shadowmage.ancientwarfare.vehicle.entity.VehicleBase;
 import net.shadowmage.ancientwarfare.vehicle.entity.types.VehicleTypeBatteringRam;
 import net.shadowmage.ancientwarfare.vehicle.helpers.VehicleFiringVarsHelper;
@@ -106,6 +107,7 @@ public class BatteringRamVarHelper extends VehicleFiringVarsHelper {
 			}
 			bb = new AxisAlignedBB(pos, pos.add(1, 1, 1));
 			hitEntities = vehicle.world.getEntitiesWithinAABBExcludingEntity(vehicle, bb);
+			GateCollisionRegistry.INSTANCE.addGatesIntersecting(vehicle.world, bb, hitEntities);
 			if (hitEntities != null) {
 				for (Entity ent : hitEntities) {
 					ent.attackEntityFrom(DamageType.batteringDamage, 5 + vehicle.vehicleMaterialLevel);
@@ -41,6 +41,8 @@ public class AWVehicleStatics extends ModConfiguration {
 	public static boolean renderOverlay = true;
 	public static boolean renderAdvOverlay = true;
 
+	public static int vehiclePathingThreads = 1;
+
 	@Override
 	public void initializeCategories() {
 
@@ -48,6 +50,7 @@ public class AWVehicleStatics extends ModConfiguration {
 
 	@Override
 	public void initializeValues() {
+		vehiclePathingThreads = config.get(serverOptions, "vehicle_pathing_threads", vehiclePathingThreads, "Default=" + vehiclePathingThreads + "\n" + "How many threads search vehicle paths in the background.\n" + "Values of 0 or lower search the paths on the server thread at the end of the tick.").getInt(vehiclePathingThreads);
 	}
 
 }
@@ -0,0 +1,226 @@
+package net.shadowmage.ancientwarfare.vehicle.helpers;
+
+import net.minecraft.util.math.MathHelper;
+import net.shadowmage.ancientwarfare.core.config.AWLog;
+import net.shadowmage.ancientwarfare.core.util.Trig;
+import net.shadowmage.ancientwarfare.vehicle.missiles.AmmoHwachaRocket;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/*
+ * Launch speeds for power aimed vehicles (catapults, trebuchets...) looked up in precomputed tables instead of
+ * simulating trajectories tick by tick on every aim update.<br>
+ * A table holds, for one launch angle and missile kind (rockets burn for a time depending on the speed), the horizontal
+ * distance at which the trajectory of each sampled launch speed passes each height on its way down. The speed to hit a
+ * target is found by binary search along the rows of the two heights around the target, interpolating between the
+ * sampled speeds.<br>
+ * Tables for the pitches of the power aimed vehicle types are built on init, tables for other angles (e.g. a vehicle
+ * standing on a slope) on first use. Targets outside of the height range of the tables fall back to the simulation.
+ */
+public final class BallisticSolver {
+
+	public static final BallisticSolver INSTANCE = new BallisticSolver();
+
+	private static final float SPEED_STEP = 0.25f;
+	private static final int SPEED_SAMPLES = 513;//0 to 128 blocks per second
+	private static final int MIN_HEIGHT = -64;
+	private static final int MAX_HEIGHT = 64;
+	private static final int ROWS = MAX_HEIGHT - MIN_HEIGHT + 1;
+	private static final int MAX_TICKS = 1200;
+	private static final float ANGLE_RESOLUTION = 10.f;//tables per degree
+	private static final int MAX_CACHED_TABLES = 32;
+	private static final int FALLBACK_ITERATIONS = 20;
+	private static final float GRAVITY_TICK = Trig.GRAVITY * 0.05f * 0.05f;
+
+	private final Map<Integer, LaunchTable> tables = new LinkedHashMap<Integer, LaunchTable>(16, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Integer, LaunchTable> eldest) {
+			return size() > MAX_CACHED_TABLES;
+		}
+	};
+
+	private BallisticSolver() {
+	}
+
+	/*
+	 * @param x     raw X distance to the target
+	 * @param y     vertical distance to the target
+	 * @param z     raw Z distance to the target
+	 * @param angle launch pitch in degrees above the horizon
+	 * @return launch speed in blocks per second to hit the target, or positive infinity if no speed in the table reaches it
+	 */
+	public float getLaunchSpeed(float x, float y, float z, float angle, boolean rocket) {
+		float range = MathHelper.sqrt(x * x + z * z);
+		if (y < MIN_HEIGHT || y > MAX_HEIGHT - 1) {
+			return Trig.bruteForceSpeedFinder(range, y, angle, FALLBACK_ITERATIONS, rocket);
+		}
+		return getTable(angle, rocket).getSpeed(range, y);
+	}
+
+	public void prepare(float angle, boolean rocket) {
+		getTable(angle, rocket);
+	}
+
+	/*
+	 * Fires missiles at the speeds from the table and from the brute force search in Trig at a grid of targets, and logs
+	 * how far the largest miss of each is from the target and the time each took to find the speeds
+	 */
+	public void logAccuracy(float angle, boolean rocket) {
+		LaunchTable table = getTable(angle, rocket);
+		float maxTableMiss = 0;
+		float maxSearchMiss = 0;
+		int compared = 0;
+		long tableTime = 0;
+		long searchTime = 0;
+		for (int y = -32; y <= 32; y += 4) {
+			for (int x = 4; x <= 128; x += 4) {
+				long start = System.nanoTime();
+				float tableSpeed = table.getSpeed(x, y);
+				long tableEnd = System.nanoTime();
+				float searchSpeed = Trig.bruteForceSpeedFinder(x, y, angle, FALLBACK_ITERATIONS, rocket);
+				searchTime += System.nanoTime() - tableEnd;
+				tableTime += tableEnd - start;
+				if (!Float.isInfinite(tableSpeed)) {
+					maxTableMiss = Math.max(maxTableMiss, getMissDistance(tableSpeed, angle, rocket, x, y));
+					maxSearchMiss = Math.max(maxSearchMiss, getMissDistance(searchSpeed, angle, rocket, x, y));
+					compared++;
+				}
+			}
+		}
+		AWLog.logDebug(String.format("Ballistic table for angle %.1f%s, largest miss over %d targets: table %.3f blocks in %dus, brute force search %.3f blocks in %dus",
+				angle, rocket ? " (rocket)" : "", compared, maxTableMiss, tableTime / 1000, maxSearchMiss, searchTime / 1000));
+	}
+
+	/*
+	 * @return horizontal distance between the target and where the missile comes down at its height, the whole target
+	 * distance if the missile does not reach the height
+	 */
+	private static float getMissDistance(float speed, float angle, boolean rocket, float range, float height) {
+		float[] hit = {Float.NaN};
+		simulate(speed, 90 - angle, rocket, (prevX, prevY, posX, posY) -> {
+			if (Float.isNaN(hit[0]) && prevY >= height && posY < height) {
+				hit[0] = prevX + (posX - prevX) * (prevY - height) / (prevY - posY);
+			}
+		});
+		return Float.isNaN(hit[0]) ? range : Math.abs(hit[0] - range);
+	}
+
+	/*
+	 * Same missile movement as MissileBase, passing each tick of movement on the way down to the consumer
+	 */
+	private static void simulate(float speed, float angleFromVertical, boolean rocket, DescentConsumer consumer) {
+		float motX = Trig.sinDegrees(angleFromVertical) * speed * 0.05f;
+		float motY = Trig.cosDegrees(angleFromVertical) * speed * 0.05f;
+		float accelX = 0;
+		float accelY = 0;
+		int burnTime = 0;
+		if (rocket) {
+			burnTime = (int) (speed * AmmoHwachaRocket.burnTimeFactor);
+			accelX = (motX / (speed * 0.05f)) * AmmoHwachaRocket.accelerationFactor;
+			accelY = (motY / (speed * 0.05f)) * AmmoHwachaRocket.accelerationFactor;
+			motX = accelX;
+			motY = accelY;
+		}
+		float posX = 0;
+		float posY = 0;
+		for (int tick = 0; tick < MAX_TICKS && posY >= MIN_HEIGHT; tick++) {
+			float prevX = posX;
+			float prevY = posY;
+			posX += motX;
+			posY += motY;
+			if (motY < 0) {
+				consumer.accept(prevX, prevY, posX, posY);
+			}
+			if (burnTime > 0) {
+				burnTime--;
+				motX += accelX;
+				motY += accelY;
+			} else {
+				motY -= GRAVITY_TICK;
+			}
+		}
+	}
+
+	private LaunchTable getTable(float angle, boolean rocket) {
+		int angleKey = Math.round(angle * ANGLE_RESOLUTION);
+		synchronized (tables) {
+			return tables.computeIfAbsent(angleKey << 1 | (rocket ? 1 : 0), k -> new LaunchTable(angleKey / ANGLE_RESOLUTION, rocket));
+		}
+	}
+
+	private interface DescentConsumer {
+		void accept(float prevX, float prevY, float posX, float posY);
+	}
+
+	private static final class LaunchTable {
+		private final float[] hitDistances = new float[ROWS * SPEED_SAMPLES];//NaN where the speed does not reach the height
+
+		private LaunchTable(float angle, boolean rocket) {
+			Arrays.fill(hitDistances, Float.NaN);
+			for (int sample = 1; sample < SPEED_SAMPLES; sample++) {
+				int speedSample = sample;
+				//record where the trajectory passes each height on its way down
+				simulate(sample * SPEED_STEP, 90 - angle, rocket, (prevX, prevY, posX, posY) -> {
+					for (int row = Math.min(ROWS - 1, MathHelper.floor(prevY) - MIN_HEIGHT); row >= 0 && row + MIN_HEIGHT > posY; row--) {
+						float height = row + MIN_HEIGHT;
+						hitDistances[row * SPEED_SAMPLES + speedSample] = prevX + (posX - prevX) * (prevY - height) / (prevY - posY);
+					}
+				});
+			}
+		}
+
+		private float getSpeed(float range, float y) {
+			float row = y - MIN_HEIGHT;
+			int lowerRow = MathHelper.floor(row);
+			float fraction = row - lowerRow;
+			float lowerSpeed = getRowSpeed(lowerRow, range);
+			if (fraction == 0 || lowerRow + 1 >= ROWS) {
+				return lowerSpeed;
+			}
+			float upperSpeed = getRowSpeed(lowerRow + 1, range);
+			if (Float.isInfinite(lowerSpeed) || Float.isInfinite(upperSpeed)) {
+				return Float.POSITIVE_INFINITY;
+			}
+			return lowerSpeed + (upperSpeed - lowerSpeed) * fraction;
+		}
+
+		private float getRowSpeed(int row, float range) {
+			int base = row * SPEED_SAMPLES;
+			int high = SPEED_SAMPLES - 1;
+			if (Float.isNaN(hitDistances[base + high]) || range > hitDistances[base + high]) {
+				return Float.POSITIVE_INFINITY;
+			}
+			//slower speeds do not reach heights above the launch point, find the first one that does
+			int low = 1;
+			while (low < high) {
+				int mid = (low + high) >>> 1;
+				if (Float.isNaN(hitDistances[base + mid])) {
+					low = mid + 1;
+				} else {
+					high = mid;
+				}
+			}
+			if (range <= hitDistances[base + low]) {
+				if (low > 1) {
+					return Float.POSITIVE_INFINITY;//target is above the trajectories coming down close enough
+				}
+				return hitDistances[base + low] > 0 ? range / hitDistances[base + low] * SPEED_STEP : SPEED_STEP;
+			}
+			high = SPEED_SAMPLES - 1;
+			while (high - low > 1) {
+				int mid = (low + high) >>> 1;
+				if (hitDistances[base + mid] < range) {
+					low = mid;
+				} else {
+					high = mid;
+				}
+			}
+			float lowDistance = hitDistances[base + low];
+			float highDistance = hitDistances[base + high];
+			float fraction = highDistance > lowDistance ? (range - lowDistance) / (highDistance - lowDistance) : 0;
+			return (low + fraction) * SPEED_STEP;
+		}
+	}
+}
@@ -48,8 +48,6 @@ import java.util.Random;
  */
 public class VehicleFiringHelper implements INBTSerializable<NBTTagCompound> {
 
-	private static final int TRAJECTORY_ITERATIONS_CLIENT = 20;
-
 	protected static Random rng = new Random();
 	/**
 	 * these values are updated when the client chooses an aim point, used by overlay rendering gui
@@ -426,7 +424,7 @@ public class VehicleFiringHelper implements INBTSerializable<NBTTagCompound> {
 				}
 			}
 		} else if (vehicle.canAimPower()) {
-			float power = Trig.iterativeSpeedFinder(tx, ty, tz, vehicle.localTurretPitch + vehicle.rotationPitch, TRAJECTORY_ITERATIONS_CLIENT,
+			float power = BallisticSolver.INSTANCE.getLaunchSpeed(tx, ty, tz, vehicle.localTurretPitch + vehicle.rotationPitch,
 					(vehicle.ammoHelper.getCurrentAmmoType() != null && vehicle.ammoHelper.getCurrentAmmoType().isRocket()));
 			if (!MathUtils.epsilonEquals(clientLaunchSpeed, power) && power < getAdjustedMaxMissileVelocity()) {
 				this.clientLaunchSpeed = power;
@@ -500,7 +498,7 @@ public class VehicleFiringHelper implements INBTSerializable<NBTTagCompound> {
 				}
 			}
 		} else if (vehicle.canAimPower()) {
-			float power = Trig.iterativeSpeedFinder(tx, ty, tz, vehicle.localTurretPitch + vehicle.rotationPitch, TRAJECTORY_ITERATIONS_CLIENT,
+			float power = BallisticSolver.INSTANCE.getLaunchSpeed(tx, ty, tz, vehicle.localTurretPitch + vehicle.rotationPitch,
 					(vehicle.ammoHelper.getCurrentAmmoType() != null && vehicle.ammoHelper.getCurrentAmmoType().isRocket()));
 			if (!MathUtils.epsilonEquals(vehicle.localLaunchPower, power) && power < getAdjustedMaxMissileVelocity()) {
 				this.vehicle.localLaunchPower = power;
@@ -587,9 +585,9 @@ public class VehicleFiringHelper implements INBTSerializable<NBTTagCompound> {
 			return true;
 		}
 
-		float power = Trig
-				.iterativeSpeedFinder((float) target.getX(), (float) target.getY(), (float) target.getZ(), vehicle.localTurretPitch + vehicle.rotationPitch,
-						TRAJECTORY_ITERATIONS_CLIENT, (vehicle.ammoHelper.getCurrentAmmoType() != null && vehicle.ammoHelper.getCurrentAmmoType().isRocket()));
+		float power = BallisticSolver.INSTANCE
+				.getLaunchSpeed((float) target.getX(), (float) target.getY(), (float) target.getZ(), vehicle.localTurretPitch + vehicle.rotationPitch,
+						(vehicle.ammoHelper.getCurrentAmmoType() != null && vehicle.ammoHelper.getCurrentAmmoType().isRocket()));
 		return !MathUtils.epsilonEquals(vehicle.localLaunchPower, power);
 	}
 
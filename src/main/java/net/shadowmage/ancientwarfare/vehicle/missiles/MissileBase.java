@@ -43,6 +43,7 @@ import net.minecraftforge.fml.common.registry.IEntityAdditionalSpawnData;
 import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
 import net.shadowmage.ancientwarfare.core.util.Trig;
+import net.shadowmage.ancientwarfare.structure.entity.GateCollisionRegistry;
 import net.shadowmage.ancientwarfare.vehicle.entity.IMissileHitCallback;
 import net.shadowmage.ancientwarfare.vehicle.registry.AmmoRegistry;
 
@@ -266,12 +267,14 @@ public class MissileBase extends Entity implements IEntityAdditionalSpawnData {
 				testEntities = false;
 			}
 			if (testEntities) {
-				List nearbyEntities = this.world.getEntitiesWithinAABBExcludingEntity(this, this.getEntityBoundingBox().offset(this.motionX, this.motionY, this.motionZ).grow(1.0D, 1.0D, 1.0D));
+				AxisAlignedBB searchBox = this.getEntityBoundingBox().offset(this.motionX, this.motionY, this.motionZ).grow(1.0D, 1.0D, 1.0D);
+				List<Entity> nearbyEntities = this.world.getEntitiesWithinAABBExcludingEntity(this, searchBox);
+				GateCollisionRegistry.INSTANCE.addGatesIntersecting(world, searchBox, nearbyEntities);
 				double closestHit = 0.0D;
 				float borderSize;
 
 				for (int i = 0; i < nearbyEntities.size(); ++i) {
-					Entity curEnt = (Entity) nearbyEntities.get(i);
+					Entity curEnt = nearbyEntities.get(i);
 					if (curEnt.canBeCollidedWith()) {
 						if (this.launcher != null) {
 							if (curEnt == this.launcher || curEnt == this.launcher.getControllingPassenger() || curEnt == this.shooterLiving || curEnt == this.shooter) {
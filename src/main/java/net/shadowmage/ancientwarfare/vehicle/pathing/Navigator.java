@@ -42,7 +42,7 @@ import java.util.Random;
 
 public class Navigator implements IPathableCallback {
 
-	PathFinderThetaStar pathFinder = new PathFinderThetaStar();
+	private VehiclePathingService.PathRequest pathRequest;
 
 	protected IPathableEntity owner;
 	protected Entity entity;
@@ -134,7 +134,6 @@ public class Navigator implements IPathableCallback {
 	}
 
 	protected void updateMoveHelper() {
-		this.pathFinder.doSearchIterations(10);
 		if (this.doorOpenTicks > 0) {
 			this.doorOpenTicks--;
 		}
@@ -194,8 +193,12 @@ public class Navigator implements IPathableCallback {
 		//  Config.logDebug("path empty: "+isPathEmpty());
 		//  Config.logDebug("current target: " + (currentTarget==null));
 		//  Config.logDebug("at target: " + !isAtTarget(tx, ty, tz));
-		//  Config.logDebug("searching already: " + !pathFinder.isSearching);
-		return isNewTarget(target) || (isPathEmpty() && !isAtTarget(target) && currentTarget == null && !pathFinder.isSearching);
+		//  Config.logDebug("searching already: " + isPathRequestPending());
+		return isNewTarget(target) || (isPathEmpty() && !isAtTarget(target) && currentTarget == null && !isPathRequestPending());
+	}
+
+	protected boolean isPathRequestPending() {
+		return this.pathRequest != null && this.pathRequest.isPending();
 	}
 
 	protected void calculatePath(int ex, int ey, int ez, BlockPos target) {
@@ -203,6 +206,10 @@ public class Navigator implements IPathableCallback {
 		//  Config.logDebug("checking path from: "+ex+","+ey+","+ez+" to: "+tx+","+ty+","+tz);
 		this.path.clearPath();
 		this.currentTarget = null;
+		if (this.pathRequest != null) {
+			this.pathRequest.cancel();
+			this.pathRequest = null;
+		}
 		if (PathUtils.canPathStraightToTarget(world, ex, ey, ez, target)) {
 			//    Config.logDebug("can path straight...");
 			this.currentTarget = new Node(target);
@@ -212,7 +219,7 @@ public class Navigator implements IPathableCallback {
 			//    Config.logDebug("crawler path end node: "+end);
 			if (end != null && (end.x != target.getX() || end.y != target.getY() || end.z != target.getZ())) {
 				//      Config.logDebug("crawler did not return complete path...");
-				this.pathFinder.findPath(world, end.x, end.y, end.z, target, 60, this, false);
+				this.pathRequest = VehiclePathingService.INSTANCE.requestPath(entity.world, world, end.x, end.y, end.z, target, 60, this);
 			}
 		}
 		this.stuckCheckTicks = this.stuckCheckTicksMax;
@@ -39,6 +39,10 @@ public class Node implements Comparable {
 	public boolean obstacle = false;
 	;
 	public boolean closed = false;
+	/**
+	 * position in the open-list heap of the path finder, -1 when not in it
+	 */
+	int heapIndex = -1;
 
 	public Node(BlockPos pos) {
 		this(pos.getX(), pos.getY(), pos.getZ());
@@ -57,6 +61,22 @@ public class Node implements Comparable {
 		this.f = this.getH(goal) + this.g;
 	}
 
+	/**
+	 * resets all search state, so that pooled nodes can be reused for a new search
+	 */
+	Node reset(int x, int y, int z) {
+		reassign(x, y, z);
+		this.goalLenght = 0;
+		this.travelCost = 10;
+		this.parentNode = null;
+		this.g = Float.POSITIVE_INFINITY;
+		this.f = 0;
+		this.obstacle = false;
+		this.closed = false;
+		this.heapIndex = -1;
+		return this;
+	}
+
 	public Node reassign(BlockPos pos) {
 		return reassign(pos.getX(), pos.getY(), pos.getZ());
 	}
@@ -0,0 +1,95 @@
+package net.shadowmage.ancientwarfare.vehicle.pathing;
+
+import java.util.Arrays;
+
+/*
+ * Binary min-heap of nodes ordered by their f cost, used as the open-list of the theta-star search.<br>
+ * Each node keeps its own index into the heap, so membership checks are O(1) and a node whose cost changed
+ * while in the heap can be moved to its new place in O(log n) (decrease-key) instead of being searched for.
+ */
+final class NodeHeap {
+
+	private Node[] heap = new Node[128];
+	private int size;
+
+	boolean isEmpty() {
+		return size == 0;
+	}
+
+	boolean contains(Node node) {
+		return node.heapIndex >= 0;
+	}
+
+	void offer(Node node) {
+		if (size == heap.length) {
+			heap = Arrays.copyOf(heap, size * 2);
+		}
+		heap[size] = node;
+		node.heapIndex = size;
+		size++;
+		siftUp(node.heapIndex);
+	}
+
+	Node poll() {
+		Node top = heap[0];
+		size--;
+		if (size > 0) {
+			move(heap[size], 0);
+			siftDown(0);
+		}
+		heap[size] = null;
+		top.heapIndex = -1;
+		return top;
+	}
+
+	/*
+	 * Restores the heap order after the f cost of a node that is in the heap changed
+	 */
+	void update(Node node) {
+		siftUp(node.heapIndex);
+		siftDown(node.heapIndex);
+	}
+
+	void clear() {
+		for (int i = 0; i < size; i++) {
+			heap[i].heapIndex = -1;
+			heap[i] = null;
+		}
+		size = 0;
+	}
+
+	private void siftUp(int index) {
+		Node node = heap[index];
+		while (index > 0) {
+			int parent = (index - 1) >> 1;
+			if (heap[parent].f <= node.f) {
+				break;
+			}
+			move(heap[parent], index);
+			index = parent;
+		}
+		move(node, index);
+	}
+
+	private void siftDown(int index) {
+		Node node = heap[index];
+		int half = size >> 1;
+		while (index < half) {
+			int child = (index << 1) + 1;
+			if (child + 1 < size && heap[child + 1].f < heap[child].f) {
+				child++;
+			}
+			if (node.f <= heap[child].f) {
+				break;
+			}
+			move(heap[child], index);
+			index = child;
+		}
+		move(node, index);
+	}
+
+	private void move(Node node, int index) {
+		heap[index] = node;
+		node.heapIndex = index;
+	}
+}
@@ -21,11 +21,11 @@
 
 package net.shadowmage.ancientwarfare.vehicle.pathing;
 
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import net.minecraft.util.math.BlockPos;
 
 import java.util.ArrayList;
 import java.util.LinkedList;
-import java.util.PriorityQueue;
 
 /**
  * going to be a theta-Star implementation
@@ -61,16 +61,22 @@ public class PathFinderThetaStar {
 	 */
 
 	/**
-	 * OPEN-LIST
+	 * OPEN-LIST, indexed heap so that membership checks and cost updates do not have to search the list
 	 */
-	private PriorityQueue<Node> qNodes = new PriorityQueue<Node>();
+	private final NodeHeap qNodes = new NodeHeap();
 
 	/**
-	 * a list of all working-set nodes, both open and closed.  used to prevent spurious object creation
+	 * all working-set nodes, both open and closed, by packed position.  used to prevent spurious object creation
 	 * as well as keep already visited but closed nodes scores valid and cached, as well as for pulling
 	 * live nodes from the 'open-list' without having to manually synch them back in/update values
 	 */
-	private ArrayList<Node> allNodes = new ArrayList<Node>();
+	private final Long2ObjectOpenHashMap<Node> allNodes = new Long2ObjectOpenHashMap<>();
+
+	/**
+	 * nodes reused between searches, the first nodePoolUsed of them are in use by the current search
+	 */
+	private final ArrayList<Node> nodePool = new ArrayList<>();
+	private int nodePoolUsed;
 
 	/**
 	 * current-node neighbors, just a cached list..
@@ -106,13 +112,12 @@ public class PathFinderThetaStar {
 	private float bestPathLength = 0.f;
 	private float bestPathDist = Float.POSITIVE_INFINITY;
 	private int searchIteration;
+	private boolean goalWalkable;
 
 	IPathableCallback caller = null;
 
 	public void findPath(PathWorldAccess world, int x, int y, int z, BlockPos target, int maxRange, IPathableCallback caller, boolean instant) {
-		this.allNodes.clear();
-		this.qNodes.clear();
-		this.searchNodes.clear();
+		clearSearchNodes();
 		this.world = world;
 		this.caller = caller;
 		this.instantSearch = instant;
@@ -136,6 +141,7 @@ public class PathFinderThetaStar {
 		maxy += searchBufferRange;
 		minz -= searchBufferRange;
 		maxz += searchBufferRange;
+		this.goalWalkable = world.isWalkable(tx, ty, tz) && world.isWalkable(tx, ty + 1, tz);
 		this.startTime = System.nanoTime();
 		this.currentNode = getOrMakeNode(sx, sy, sz, null);
 		this.currentNode.g = 0;
@@ -166,10 +172,15 @@ public class PathFinderThetaStar {
 		this.currentNode = null;
 		this.world = null;
 		this.bestEndNode = null;
+		clearSearchNodes();
+		this.isSearching = false;
+	}
+
+	private void clearSearchNodes() {
 		this.allNodes.clear();
 		this.qNodes.clear();
 		this.searchNodes.clear();
-		this.isSearching = false;
+		this.nodePoolUsed = 0;
 	}
 
 	public boolean isSearching = false;
@@ -195,14 +206,11 @@ public class PathFinderThetaStar {
 	private boolean searchLoop() {
 		boolean isDoor = false;
 		boolean isPDoor = false;
-		Node goalCache = new Node(tx, ty, tz);
-		boolean goalWalkable = world.isWalkable(tx, ty, tz) && world.isWalkable(tx, ty + 1, tz);
 		this.searchIteration++;
 		if (this.qNodes.isEmpty()) {
 			return true;
 		}
 		this.currentNode = this.qNodes.poll();
-		this.allNodes.add(currentNode);
 		if (currentNode.equals(tx, ty, tz)) {
 			return true;
 		} else if (!goalWalkable)//TODO hack to get around un-pathable target positions
@@ -246,6 +254,9 @@ public class PathFinderThetaStar {
 				if (!qNodes.contains(n))//if we're not already going to examine n, put it in line to be examined
 				{
 					qNodes.offer(n);
+				} else//else move it to its new place in line
+				{
+					qNodes.update(n);
 				}
 				n.closed = false;//go ahead and set n to open again...I don't think this really matters....
 			}
@@ -370,21 +381,34 @@ public class PathFinderThetaStar {
 	}
 
 	private Node getOrMakeNode(int x, int y, int z, Node p) {
-		Node n = null;
-		for (Node c : this.allNodes) {
-			if (c.equals(x, y, z)) {
-				return c;
-			}
+		long key = toKey(x, y, z);
+		Node n = allNodes.get(key);
+		if (n != null) {
+			return n;
 		}
-		n = new Node(x, y, z);
+		n = obtainNode(x, y, z);
 		if (p != null) {
 			n.travelCost = world.getTravelCost(new BlockPos(x, y, z));
 			n.parentNode = p;
 			n.g = p.g + n.getDistanceFrom(p) + n.travelCost;
 			n.f = n.g + n.getDistanceFrom(tx, ty, tz);
 		}
-		allNodes.add(n);
+		allNodes.put(key, n);
 		return n;
 	}
 
+	/**
+	 * packs the position into a map key, same layout as BlockPos.toLong() without creating a BlockPos
+	 */
+	private static long toKey(int x, int y, int z) {
+		return ((long) x & 0x3FFFFFFL) << 38 | ((long) y & 0xFFFL) << 26 | ((long) z & 0x3FFFFFFL);
+	}
+
+	private Node obtainNode(int x, int y, int z) {
+		if (nodePoolUsed == nodePool.size()) {
+			nodePool.add(new Node(x, y, z));
+		}
+		return nodePool.get(nodePoolUsed++).reset(x, y, z);
+	}
+
 }
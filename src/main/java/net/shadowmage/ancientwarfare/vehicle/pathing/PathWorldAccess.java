@@ -31,6 +31,7 @@ import net.minecraft.block.state.IBlockState;
 import net.minecraft.init.Blocks;
 import net.minecraft.util.math.AxisAlignedBB;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.IBlockAccess;
 import net.minecraft.world.World;
 import net.shadowmage.ancientwarfare.structure.block.AWStructuresBlocks;
 import net.shadowmage.ancientwarfare.structure.tile.TEGateProxy;
@@ -43,12 +44,24 @@ public class PathWorldAccess {
 	public boolean canUseLaders;
 	public boolean canGoOnLand = true;
 
-	World world;
+	IBlockAccess world;
 
 	public PathWorldAccess(World world) {
 		this.world = world;
 	}
 
+	/**
+	 * creates an access for the given blocks with the same movement flags as the other access
+	 */
+	protected PathWorldAccess(IBlockAccess world, PathWorldAccess flags) {
+		this.world = world;
+		this.canOpenDoors = flags.canOpenDoors;
+		this.canSwim = flags.canSwim;
+		this.canDrop = flags.canDrop;
+		this.canUseLaders = flags.canUseLaders;
+		this.canGoOnLand = flags.canGoOnLand;
+	}
+
 	public void setCanGoOnLand(boolean val) {
 		this.canGoOnLand = val;
 		if (!val) {
@@ -267,15 +280,16 @@ public class PathWorldAccess {
 		IBlockState state = world.getBlockState(pos);
 		Block block = state.getBlock();
 		if (block == AWStructuresBlocks.gateProxy) {
-			TEGateProxy proxy = (TEGateProxy) world.getTileEntity(pos);
-			if (proxy.getOwner() == null || !proxy.getOwner().getGateType().canSoldierActivate()) {
-				return false;
-			}
-			return true;
+			return canActivateGate(pos);
 		}
 		return (block instanceof BlockDoor && state.getMaterial() == Material.WOOD) || block instanceof BlockFenceGate;
 	}
 
+	protected boolean canActivateGate(BlockPos gateProxyPos) {
+		TEGateProxy proxy = (TEGateProxy) world.getTileEntity(gateProxyPos);
+		return proxy != null && proxy.getOwner() != null && proxy.getOwner().getGateType().canSoldierActivate();
+	}
+
 	protected boolean checkColidingEntities(int x, int y, int z) {
 		return false;
 	}
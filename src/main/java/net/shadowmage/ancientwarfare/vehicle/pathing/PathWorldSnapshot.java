@@ -0,0 +1,204 @@
+package net.shadowmage.ancientwarfare.vehicle.pathing;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongCollection;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import net.minecraft.block.Block;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.init.Biomes;
+import net.minecraft.init.Blocks;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.BitArray;
+import net.minecraft.util.EnumFacing;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.IBlockAccess;
+import net.minecraft.world.World;
+import net.minecraft.world.WorldType;
+import net.minecraft.world.biome.Biome;
+import net.minecraft.world.chunk.BlockStateContainer;
+import net.minecraft.world.chunk.BlockStatePaletteRegistry;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.IBlockStatePalette;
+import net.minecraft.world.chunk.storage.ExtendedBlockStorage;
+import net.minecraftforge.fml.relauncher.ReflectionHelper;
+import net.shadowmage.ancientwarfare.structure.tile.TEGateProxy;
+
+import javax.annotation.Nullable;
+import java.lang.reflect.Field;
+
+/*
+ * Read-only copy of the block states of chunk columns of a world, for path finding off the server thread.<br>
+ * Captured on the server thread, after that it does not touch the world anymore. Each section is copied as its packed
+ * palette indices with the palette resolved to states, instead of state by state. Empty chunk sections and unloaded
+ * chunks read as air, blocks outside of the captured columns read as barriers so that searches stay within them. Gate
+ * proxies are reduced to whether soldiers may activate their gate.
+ */
+public class PathWorldSnapshot extends PathWorldAccess {
+
+	private static final Field STORAGE = ReflectionHelper.findField(BlockStateContainer.class, "storage", "field_186021_b");
+	private static final Field PALETTE = ReflectionHelper.findField(BlockStateContainer.class, "palette", "field_186022_c");
+	private static final IBlockState OUTSIDE = Blocks.BARRIER.getDefaultState();
+	private static final SectionSnapshot EMPTY_SECTION = new SectionSnapshot(null, null);
+
+	private final BlockSnapshot blocks;
+
+	private PathWorldSnapshot(BlockSnapshot blocks, PathWorldAccess flags) {
+		super(blocks, flags);
+		this.blocks = blocks;
+	}
+
+	/*
+	 * Copies the blocks between minY and maxY of the given chunk columns (ChunkPos.asLong keys), the movement flags are
+	 * taken from the given access
+	 */
+	public static PathWorldSnapshot capture(World world, PathWorldAccess flags, LongCollection chunks, int minY, int maxY) {
+		BlockSnapshot blocks = new BlockSnapshot(world.getWorldType());
+		int minSectionY = Math.max(0, minY >> 4);
+		int maxSectionY = Math.min(15, maxY >> 4);
+		for (LongIterator it = chunks.iterator(); it.hasNext(); ) {
+			long chunkKey = it.nextLong();
+			int cx = (int) chunkKey;
+			int cz = (int) (chunkKey >> 32);
+			Chunk chunk = world.getChunkProvider().getLoadedChunk(cx, cz);
+			ExtendedBlockStorage[] storage = chunk == null ? null : chunk.getBlockStorageArray();
+			for (int sy = minSectionY; sy <= maxSectionY; sy++) {
+				ExtendedBlockStorage section = storage == null ? Chunk.NULL_BLOCK_STORAGE : storage[sy];
+				boolean empty = section == Chunk.NULL_BLOCK_STORAGE || section.isEmpty();
+				blocks.sections.put(sectionKey(cx, sy, cz), empty ? EMPTY_SECTION : copySection(section.getData()));
+			}
+			if (chunk == null) {
+				continue;
+			}
+			for (TileEntity te : chunk.getTileEntityMap().values()) {
+				if (te instanceof TEGateProxy) {
+					TEGateProxy proxy = (TEGateProxy) te;
+					if (proxy.getOwner() != null && proxy.getOwner().getGateType().canSoldierActivate()) {
+						blocks.activatableGates.add(te.getPos().toLong());
+					}
+				}
+			}
+		}
+		return new PathWorldSnapshot(blocks, flags);
+	}
+
+	/*
+	 * copies the packed indices in one go, and the states of the section palette as the palette may grow while the copy
+	 * is read; the global palette is never changed after startup and is read directly
+	 */
+	private static SectionSnapshot copySection(BlockStateContainer container) {
+		BitArray storage;
+		IBlockStatePalette palette;
+		try {
+			storage = (BitArray) STORAGE.get(container);
+			palette = (IBlockStatePalette) PALETTE.get(container);
+		}
+		catch (IllegalAccessException e) {
+			throw new RuntimeException(e);
+		}
+		long[] data = storage.getBackingLongArray();
+		int bits = data.length * 64 / 4096;
+		BitArray indices = new BitArray(bits, 4096);
+		System.arraycopy(data, 0, indices.getBackingLongArray(), 0, data.length);
+		if (palette instanceof BlockStatePaletteRegistry) {
+			return new SectionSnapshot(indices, null);
+		}
+		IBlockState[] states = new IBlockState[1 << bits];
+		for (int i = 0; i < states.length; i++) {
+			states[i] = palette.getBlockState(i);
+		}
+		return new SectionSnapshot(indices, states);
+	}
+
+	private static long sectionKey(int sectionX, int sectionY, int sectionZ) {
+		return ((long) sectionX & 0x3FFFFFFL) << 38 | ((long) sectionY & 0xFFFL) << 26 | ((long) sectionZ & 0x3FFFFFFL);
+	}
+
+	@Override
+	protected boolean canActivateGate(BlockPos gateProxyPos) {
+		return blocks.activatableGates.contains(gateProxyPos.toLong());
+	}
+
+	private static final class BlockSnapshot implements IBlockAccess {
+		private final Long2ObjectOpenHashMap<SectionSnapshot> sections = new Long2ObjectOpenHashMap<>();
+		private final LongOpenHashSet activatableGates = new LongOpenHashSet();
+		private final WorldType worldType;
+
+		private BlockSnapshot(WorldType worldType) {
+			this.worldType = worldType;
+		}
+
+		@Override
+		public IBlockState getBlockState(BlockPos pos) {
+			if (pos.getY() < 0 || pos.getY() > 255) {
+				return Blocks.AIR.getDefaultState();
+			}
+			SectionSnapshot section = sections.get(sectionKey(pos.getX() >> 4, pos.getY() >> 4, pos.getZ() >> 4));
+			return section == null ? OUTSIDE : section.get((pos.getY() & 15) << 8 | (pos.getZ() & 15) << 4 | (pos.getX() & 15));
+		}
+
+		@Nullable
+		@Override
+		public TileEntity getTileEntity(BlockPos pos) {
+			return null;
+		}
+
+		@Override
+		public int getCombinedLight(BlockPos pos, int lightValue) {
+			return 0;
+		}
+
+		@Override
+		public boolean isAirBlock(BlockPos pos) {
+			IBlockState state = getBlockState(pos);
+			return state.getBlock().isAir(state, this, pos);
+		}
+
+		@Override
+		public Biome getBiome(BlockPos pos) {
+			return Biomes.PLAINS;
+		}
+
+		@Override
+		public int getStrongPower(BlockPos pos, EnumFacing direction) {
+			return 0;
+		}
+
+		@Override
+		public WorldType getWorldType() {
+			return worldType;
+		}
+
+		@Override
+		public boolean isSideSolid(BlockPos pos, EnumFacing side, boolean _default) {
+			if (pos.getY() < 0 || pos.getY() > 255) {
+				return _default;
+			}
+			return getBlockState(pos).isSideSolid(this, pos, side);
+		}
+	}
+
+	private static final class SectionSnapshot {
+		@Nullable
+		private final BitArray indices;
+		@Nullable
+		private final IBlockState[] states;
+
+		/*
+		 * @param states states by palette index, null for sections using the global palette
+		 */
+		private SectionSnapshot(@Nullable BitArray indices, @Nullable IBlockState[] states) {
+			this.indices = indices;
+			this.states = states;
+		}
+
+		private IBlockState get(int index) {
+			if (indices == null) {
+				return Blocks.AIR.getDefaultState();
+			}
+			int id = indices.getAt(index);
+			IBlockState state = states == null ? Block.BLOCK_STATE_IDS.getByValue(id) : states[id];
+			return state == null ? Blocks.AIR.getDefaultState() : state;
+		}
+	}
+}
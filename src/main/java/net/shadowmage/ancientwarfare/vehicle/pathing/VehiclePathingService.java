@@ -0,0 +1,250 @@
+package net.shadowmage.ancientwarfare.vehicle.pathing;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.World;
+import net.minecraftforge.event.world.WorldEvent;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent;
+import net.shadowmage.ancientwarfare.vehicle.AncientWarfareVehicles;
+import net.shadowmage.ancientwarfare.vehicle.config.AWVehicleStatics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/*
+ * Solves vehicle path requests on worker threads instead of the server thread.<br>
+ * Requests are collected during the tick and grouped by world, target and movement flags. At the end of the tick one
+ * snapshot of the blocks along the corridors from the starts of the group to its target is captured and the group is
+ * solved on a worker, requests from the same start position share a single search. Results are handed to the callbacks on the server thread at the start of the next tick.
+ */
+public final class VehiclePathingService {
+
+	public static final VehiclePathingService INSTANCE = new VehiclePathingService();
+
+	/*
+	 * same as PathFinderThetaStar.searchBufferRange, the search never leaves the start/target bounds expanded by this
+	 */
+	private static final int SEARCH_BUFFER = 40;
+	/*
+	 * how far paths may stray sideways from the straight line between start and target, blocks further away are not
+	 * captured and are treated as blocked by the search
+	 */
+	private static final int CORRIDOR_WIDTH = 32;
+
+	private final Map<GroupKey, List<PathRequest>> queued = new LinkedHashMap<>();
+	private final Queue<PathRequest> completed = new ConcurrentLinkedQueue<>();
+	private final ThreadLocal<PathFinderThetaStar> pathFinders = ThreadLocal.withInitial(PathFinderThetaStar::new);
+	private ExecutorService executor;
+
+	private VehiclePathingService() {
+	}
+
+	/*
+	 * Queues a path search from the start position to the target, the callback is called on the server thread
+	 * once the path is found unless the request is cancelled before that.
+	 */
+	public PathRequest requestPath(World world, PathWorldAccess access, int x, int y, int z, BlockPos target, int maxRange, IPathableCallback callback) {
+		BlockPos targetPos = target.toImmutable();
+		PathRequest request = new PathRequest(x, y, z, targetPos, maxRange, callback);
+		queued.computeIfAbsent(new GroupKey(world, targetPos, access), k -> new ArrayList<>()).add(request);
+		return request;
+	}
+
+	@SubscribeEvent
+	public void onServerTick(TickEvent.ServerTickEvent evt) {
+		if (evt.phase == TickEvent.Phase.START) {
+			deliverCompleted();
+		} else {
+			submitQueued();
+		}
+	}
+
+	@SubscribeEvent
+	public void onWorldUnload(WorldEvent.Unload evt) {
+		Iterator<Map.Entry<GroupKey, List<PathRequest>>> it = queued.entrySet().iterator();
+		while (it.hasNext()) {
+			Map.Entry<GroupKey, List<PathRequest>> entry = it.next();
+			if (entry.getKey().world == evt.getWorld()) {
+				entry.getValue().forEach(PathRequest::cancel);
+				it.remove();
+			}
+		}
+	}
+
+	private void deliverCompleted() {
+		PathRequest request;
+		while ((request = completed.poll()) != null) {
+			if (!request.cancelled) {
+				request.delivered = true;
+				request.callback.onPathFound(request.result);
+			}
+		}
+	}
+
+	private void submitQueued() {
+		for (Map.Entry<GroupKey, List<PathRequest>> entry : queued.entrySet()) {
+			List<PathRequest> requests = entry.getValue();
+			requests.removeIf(r -> r.cancelled);
+			if (requests.isEmpty()) {
+				continue;
+			}
+			PathWorldSnapshot snapshot = captureSnapshot(entry.getKey(), requests);
+			if (AWVehicleStatics.vehiclePathingThreads <= 0) {
+				solve(snapshot, requests);
+			} else {
+				getExecutor().submit(() -> solve(snapshot, requests));
+			}
+		}
+		queued.clear();
+	}
+
+	private PathWorldSnapshot captureSnapshot(GroupKey key, List<PathRequest> requests) {
+		LongOpenHashSet chunks = new LongOpenHashSet();
+		int minY = Integer.MAX_VALUE, maxY = Integer.MIN_VALUE;
+		for (PathRequest request : requests) {
+			//the search is bounded by the buffered start/target box and by the max path length from the start
+			int range = request.maxRange + 3;
+			int minX = Math.max(Math.min(request.x, key.target.getX()) - SEARCH_BUFFER, request.x - range);
+			int minZ = Math.max(Math.min(request.z, key.target.getZ()) - SEARCH_BUFFER, request.z - range);
+			int maxX = Math.min(Math.max(request.x, key.target.getX()) + SEARCH_BUFFER, request.x + range);
+			int maxZ = Math.min(Math.max(request.z, key.target.getZ()) + SEARCH_BUFFER, request.z + range);
+			minY = Math.min(minY, Math.max(Math.min(request.y, key.target.getY()) - SEARCH_BUFFER, request.y - range));
+			maxY = Math.max(maxY, Math.min(Math.max(request.y, key.target.getY()) + SEARCH_BUFFER, request.y + range));
+			addCorridorChunks(chunks, request.x, request.z, key.target.getX(), key.target.getZ(), minX, minZ, maxX, maxZ);
+		}
+		return PathWorldSnapshot.capture(key.world, key.flags, chunks, minY, maxY);
+	}
+
+	/*
+	 * adds the chunks within the bounds that are within CORRIDOR_WIDTH of the line from the start to the target
+	 */
+	private static void addCorridorChunks(LongOpenHashSet chunks, int startX, int startZ, int targetX, int targetZ, int minX, int minZ, int maxX, int maxZ) {
+		double dx = targetX - startX;
+		double dz = targetZ - startZ;
+		double lengthSq = dx * dx + dz * dz;
+		double maxDistance = CORRIDOR_WIDTH + 12;//half diagonal of a chunk, measured from the chunk centers
+		for (int cx = minX >> 4; cx <= maxX >> 4; cx++) {
+			for (int cz = minZ >> 4; cz <= maxZ >> 4; cz++) {
+				double px = (cx << 4) + 8 - startX;
+				double pz = (cz << 4) + 8 - startZ;
+				double t = lengthSq == 0 ? 0 : Math.max(0, Math.min(1, (px * dx + pz * dz) / lengthSq));
+				double ox = px - t * dx;
+				double oz = pz - t * dz;
+				if (ox * ox + oz * oz <= maxDistance * maxDistance) {
+					chunks.add(ChunkPos.asLong(cx, cz));
+				}
+			}
+		}
+	}
+
+	private void solve(PathWorldSnapshot snapshot, List<PathRequest> requests) {
+		PathFinderThetaStar pathFinder = pathFinders.get();
+		Long2ObjectOpenHashMap<List<Node>> pathsByStart = new Long2ObjectOpenHashMap<>();
+		for (PathRequest request : requests) {
+			if (request.cancelled) {
+				continue;
+			}
+			try {
+				List<Node> path = pathsByStart.computeIfAbsent(new BlockPos(request.x, request.y, request.z).toLong(), k -> findPath(pathFinder, snapshot, request));
+				request.result = new ArrayList<>(path);
+			}
+			catch (RuntimeException e) {
+				AncientWarfareVehicles.log.error("Vehicle path search failed", e);
+				request.result = Collections.emptyList();
+			}
+			completed.add(request);
+		}
+	}
+
+	private List<Node> findPath(PathFinderThetaStar pathFinder, PathWorldSnapshot snapshot, PathRequest request) {
+		List<Node> result = new ArrayList<>();
+		pathFinder.findPath(snapshot, request.x, request.y, request.z, request.target, request.maxRange, result::addAll, false);
+		while (pathFinder.isSearching) {
+			pathFinder.doSearchIterations(100);
+		}
+		return result;
+	}
+
+	private ExecutorService getExecutor() {
+		if (executor == null) {
+			executor = Executors.newFixedThreadPool(AWVehicleStatics.vehiclePathingThreads, new ThreadFactoryBuilder().setNameFormat("AW Vehicle Pathing %d").setDaemon(true).build());
+		}
+		return executor;
+	}
+
+	public static final class PathRequest {
+		private final int x;
+		private final int y;
+		private final int z;
+		private final BlockPos target;
+		private final int maxRange;
+		private final IPathableCallback callback;
+		private volatile boolean cancelled = false;
+		private boolean delivered = false;
+		private List<Node> result = Collections.emptyList();
+
+		private PathRequest(int x, int y, int z, BlockPos target, int maxRange, IPathableCallback callback) {
+			this.x = x;
+			this.y = y;
+			this.z = z;
+			this.target = target;
+			this.maxRange = maxRange;
+			this.callback = callback;
+		}
+
+		/*
+		 * @return true until the path was delivered or the request cancelled
+		 */
+		public boolean isPending() {
+			return !cancelled && !delivered;
+		}
+
+		public void cancel() {
+			cancelled = true;
+		}
+	}
+
+	private static final class GroupKey {
+		private final World world;
+		private final BlockPos target;
+		private final PathWorldAccess flags;
+		private final int flagBits;
+
+		private GroupKey(World world, BlockPos target, PathWorldAccess flags) {
+			this.world = world;
+			this.target = target;
+			this.flags = flags;
+			this.flagBits = (flags.canOpenDoors ? 1 : 0) | (flags.canSwim ? 2 : 0) | (flags.canDrop ? 4 : 0) | (flags.canUseLaders ? 8 : 0) | (flags.canGoOnLand ? 16 : 0);
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (o == null || getClass() != o.getClass()) {
+				return false;
+			}
+			GroupKey other = (GroupKey) o;
+			return flagBits == other.flagBits && world == other.world && target.equals(other.target);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(System.identityHashCode(world), target, flagBits);
+		}
+	}
+}